@@ -0,0 +1,45 @@
+package org.contextmapper.cli;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Writes the CML models for the benchmarks with the synthetic model generator (see 'cm synth'): per bounded context,
+ * two relationships to random other bounded contexts and two aggregates with three entities each.
+ */
+final class BenchmarkModels {
+
+    private static final long SEED = 42;
+
+    private BenchmarkModels() {
+    }
+
+    static Path write(Path dir, int boundedContexts) {
+        return new SyntheticModelGenerator(SEED, boundedContexts, 2, 2, 3, 1).write(dir, "model-" + boundedContexts).get(0);
+    }
+
+    /**
+     * Deletes the directory of a benchmark (models and generated files) recursively.
+     */
+    static void delete(Path dir) {
+        List<Path> paths;
+        try (Stream<Path> files = Files.walk(dir)) {
+            // the files before the directories containing them
+            paths = files.sorted(Comparator.reverseOrder()).toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (Path path : paths) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
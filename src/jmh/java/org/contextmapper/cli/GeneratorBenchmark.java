@@ -0,0 +1,78 @@
+package org.contextmapper.cli;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.contextmapper.dsl.cml.CMLResource;
+import org.contextmapper.dsl.generator.GenericContentGenerator;
+import org.contextmapper.dsl.standalone.StandaloneContextMapperAPI;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.xtext.generator.IGenerator2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures each generator on an already loaded (and fully resolved) model, including writing the output files. The
+ * 'context-map' generator needs Graphviz to be installed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GeneratorBenchmark {
+
+    private static final String TEMPLATE = """
+            <#list boundedContexts as bc>
+            ${bc.name}: <#list bc.aggregates as aggregate>${aggregate.name} </#list>
+            </#list>
+            """;
+
+    @Param({"10", "100", "1000"})
+    public int boundedContexts;
+
+    @Param({"CONTEXT_MAP", "PLANT_UML", "GENERIC"})
+    public ContextMapperGenerator generator;
+
+    private Path dir;
+    private StandaloneContextMapperAPI cmAPI;
+    private CMLResource cmlResource;
+    private Path templateFile;
+    private String outputDir;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("cm-benchmark");
+        cmAPI = StandaloneAPIProvider.get();
+        cmlResource = cmAPI.loadCML(BenchmarkModels.write(dir, boundedContexts).toFile());
+        EcoreUtil.resolveAll(cmlResource);
+        templateFile = Files.writeString(dir.resolve("benchmark.ftl"), TEMPLATE);
+        outputDir = Files.createDirectories(dir.resolve("output")).toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkModels.delete(dir);
+    }
+
+    @Benchmark
+    public void generate() {
+        cmAPI.callGenerator(cmlResource, createGenerator(), outputDir);
+    }
+
+    private IGenerator2 createGenerator() {
+        IGenerator2 generatorImpl = GeneratorRunner.createGenerator(generator);
+        if (generatorImpl instanceof GenericContentGenerator genericContentGenerator) {
+            genericContentGenerator.setFreemarkerTemplateFile(templateFile.toFile());
+            genericContentGenerator.setTargetFileName("benchmark.txt");
+        }
+        return generatorImpl;
+    }
+}
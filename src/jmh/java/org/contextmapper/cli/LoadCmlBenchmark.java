@@ -0,0 +1,63 @@
+package org.contextmapper.cli;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.contextmapper.dsl.cml.CMLResource;
+import org.contextmapper.dsl.standalone.StandaloneContextMapperAPI;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures parsing a CML file ({@code loadCML}) and validating it as {@code cm validate} does (resolving all
+ * cross-references and reading the errors and warnings).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LoadCmlBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int boundedContexts;
+
+    private Path dir;
+    private StandaloneContextMapperAPI cmAPI;
+    private File modelFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("cm-benchmark");
+        cmAPI = StandaloneAPIProvider.get();
+        modelFile = BenchmarkModels.write(dir, boundedContexts).toFile();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkModels.delete(dir);
+    }
+
+    @Benchmark
+    public CMLResource loadCML() {
+        return cmAPI.loadCML(modelFile);
+    }
+
+    @Benchmark
+    public void validate(Blackhole blackhole) {
+        CMLResource cmlResource = cmAPI.loadCML(modelFile);
+        EcoreUtil.resolveAll(cmlResource);
+        blackhole.consume(cmlResource.getErrors());
+        blackhole.consume(cmlResource.getWarnings());
+    }
+}
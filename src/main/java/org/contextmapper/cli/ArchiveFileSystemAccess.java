@@ -0,0 +1,105 @@
+package org.contextmapper.cli;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtext.generator.AbstractFileSystemAccess2;
+
+/**
+ * Writes the files of the generators as entries into an {@link ArchiveWriter}, and records the time spent writing as
+ * 'write' phase of the metrics. Files rejected by the file filter are skipped.
+ * <p>
+ * The entries are streamed into the archive as they are generated, so they cannot be changed or removed afterwards.
+ * The files written through this instance are kept in memory, so that generators can read them back; deleting a
+ * written file fails.
+ */
+class ArchiveFileSystemAccess extends AbstractFileSystemAccess2 {
+
+    private final ArchiveWriter archive;
+    private final String entryDir;
+    private final Metrics metrics;
+    private final Predicate<String> fileFilter;
+    private final Map<String, byte[]> writtenFiles = new ConcurrentHashMap<>();
+
+    /**
+     * @param entryDir the directory within the archive into which the files are generated ('' for the top level)
+     */
+    ArchiveFileSystemAccess(ArchiveWriter archive, String entryDir, Metrics metrics, Predicate<String> fileFilter) {
+        this.archive = archive;
+        this.entryDir = entryDir.isEmpty() || entryDir.endsWith("/") ? entryDir : entryDir + "/";
+        this.metrics = metrics;
+        this.fileFilter = fileFilter;
+    }
+
+    @Override
+    public void generateFile(String fileName, String outputConfigurationName, CharSequence contents) {
+        write(fileName, contents.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void generateFile(String fileName, String outputConfigurationName, InputStream source) {
+        try (source) {
+            write(fileName, source.readAllBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void write(String fileName, byte[] content) {
+        if (!fileFilter.test(fileName)) {
+            metrics.count("filesSkipped", 1);
+            return;
+        }
+        metrics.run("write", () -> archive.addEntry(entryDir + fileName, content));
+        writtenFiles.put(fileName, content);
+        metrics.count("filesWritten", 1);
+        metrics.count("bytesWritten", content.length);
+    }
+
+    /**
+     * Does nothing if the file has not been written.
+     *
+     * @throws IllegalStateException if the file has already been written into the archive
+     */
+    @Override
+    public void deleteFile(String fileName, String outputConfigurationName) {
+        if (writtenFiles.containsKey(fileName)) {
+            throw new IllegalStateException("The file '" + entryDir + fileName + "' has already been written into the archive and cannot be deleted.");
+        }
+    }
+
+    @Override
+    public InputStream readBinaryFile(String fileName, String outputConfigurationName) {
+        return new ByteArrayInputStream(getWrittenFile(fileName));
+    }
+
+    @Override
+    public CharSequence readTextFile(String fileName, String outputConfigurationName) {
+        return new String(getWrittenFile(fileName), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public boolean isFile(String fileName, String outputConfigurationName) {
+        return writtenFiles.containsKey(fileName);
+    }
+
+    @Override
+    public URI getURI(String fileName, String outputConfigurationName) {
+        return URI.createURI(entryDir + fileName);
+    }
+
+    private byte[] getWrittenFile(String fileName) {
+        byte[] content = writtenFiles.get(fileName);
+        if (content == null) {
+            throw new IllegalStateException("The file '" + entryDir + fileName + "' has not been written into the archive.");
+        }
+        return content;
+    }
+}
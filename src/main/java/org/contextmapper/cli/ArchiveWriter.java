@@ -0,0 +1,247 @@
+package org.contextmapper.cli;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Streams generated files as entries into an archive, instead of writing them into an output directory. Entries are
+ * written as soon as a generator produces a file, so that the archive does not have to be kept in memory. The writer
+ * is thread-safe: the entries of concurrently running generators are written one after another.
+ * <p>
+ * Use {@link #close()} to finish the archive after all files have been generated.
+ */
+abstract class ArchiveWriter implements Closeable {
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private Path tempFile;
+    private Path archiveFile;
+
+    /**
+     * Creates a writer of an archive file, whose format is chosen by the extension of the file: *.zip, *.tar.gz (or
+     * *.tgz), or *.tar. The archive is written into a temporary file, which replaces the archive file when the writer
+     * is closed.
+     *
+     * @throws IllegalArgumentException if the extension is not supported
+     */
+    static ArchiveWriter create(Path file) throws IOException {
+        checkFile(file);
+        String fileName = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        Path archiveFile = file.toAbsolutePath().normalize();
+        Path tempFile = Files.createTempFile(archiveFile.getParent(), "." + archiveFile.getFileName(), ".tmp");
+        OutputStream out = Files.newOutputStream(tempFile);
+        ArchiveWriter writer;
+        if (fileName.endsWith(".zip")) {
+            writer = new ZipWriter(out);
+        } else if (fileName.endsWith(".tar")) {
+            writer = new TarWriter(out, true);
+        } else {
+            writer = new TarWriter(new GZIPOutputStream(out, GZIP_BUFFER_SIZE), true);
+        }
+        writer.tempFile = tempFile;
+        writer.archiveFile = archiveFile;
+        return writer;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the format of the archive file is not supported (by its extension)
+     */
+    static void checkFile(Path file) {
+        String fileName = Objects.isNull(file.getFileName()) ? "" : file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (!fileName.endsWith(".zip") && !fileName.endsWith(".tar.gz") && !fileName.endsWith(".tgz") && !fileName.endsWith(".tar")) {
+            throw new IllegalArgumentException("The archive '" + file + "' is not supported; please pass a *.zip, *.tar.gz, *.tgz or *.tar file.");
+        }
+    }
+
+    /**
+     * Creates a writer of an (uncompressed) tar stream in the POSIX format.
+     *
+     * @param closeStream false if the stream shall only be flushed when the archive is finished (e.g. for stdout)
+     */
+    static ArchiveWriter tar(OutputStream out, boolean closeStream) {
+        return new TarWriter(out, closeStream);
+    }
+
+    /**
+     * Adds a file to the archive.
+     *
+     * @param name the path of the file within the archive ('/' separated)
+     */
+    final synchronized void addEntry(String name, byte[] content) {
+        try {
+            writeEntry(normalize(name), content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public final synchronized void close() throws IOException {
+        finish();
+        if (Objects.nonNull(archiveFile)) {
+            try {
+                Files.move(tempFile, archiveFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, archiveFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    /**
+     * Finishes the archive without replacing the archive file, so that a failed generation does not replace the
+     * archive of the last one with an incomplete archive.
+     */
+    final synchronized void discard() throws IOException {
+        try {
+            finish();
+        } finally {
+            if (Objects.nonNull(tempFile)) {
+                Files.deleteIfExists(tempFile);
+            }
+        }
+    }
+
+    protected abstract void writeEntry(String name, byte[] content) throws IOException;
+
+    protected abstract void finish() throws IOException;
+
+    private static String normalize(String name) {
+        String normalized = name.replace('\\', '/');
+        while (normalized.startsWith("/") || normalized.startsWith("./")) {
+            normalized = normalized.substring(normalized.startsWith("/") ? 1 : 2);
+        }
+        return normalized;
+    }
+
+    /**
+     * Writes the zip format (with compressed entries).
+     */
+    private static final class ZipWriter extends ArchiveWriter {
+
+        private final ZipOutputStream out;
+        private final FileTime modificationTime = FileTime.fromMillis(System.currentTimeMillis());
+
+        ZipWriter(OutputStream out) {
+            this.out = new ZipOutputStream(new BufferedOutputStream(out));
+        }
+
+        @Override
+        protected void writeEntry(String name, byte[] content) throws IOException {
+            ZipEntry entry = new ZipEntry(name);
+            entry.setLastModifiedTime(modificationTime);
+            out.putNextEntry(entry);
+            out.write(content);
+            out.closeEntry();
+        }
+
+        @Override
+        protected void finish() throws IOException {
+            out.close();
+        }
+    }
+
+    /**
+     * Writes the tar format (ustar, with a PAX header for names longer than 100 bytes).
+     */
+    private static final class TarWriter extends ArchiveWriter {
+
+        private static final int BLOCK_SIZE = 512;
+        private static final int NAME_LENGTH = 100;
+
+        private final OutputStream out;
+        private final boolean closeStream;
+        private final long modificationTime = System.currentTimeMillis() / 1000;
+
+        TarWriter(OutputStream out, boolean closeStream) {
+            this.out = new BufferedOutputStream(out);
+            this.closeStream = closeStream;
+        }
+
+        @Override
+        protected void writeEntry(String name, byte[] content) throws IOException {
+            byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+            if (nameBytes.length > NAME_LENGTH) {
+                writePaxHeader(name);
+                nameBytes = Arrays.copyOf(nameBytes, NAME_LENGTH);
+            }
+            writeHeader(nameBytes, content.length, (byte) '0');
+            writeContent(content);
+        }
+
+        /**
+         * Writes an extended header with the full name, which replaces the (truncated) name of the next entry.
+         */
+        private void writePaxHeader(String name) throws IOException {
+            String record = " path=" + name + "\n";
+            int length = record.getBytes(StandardCharsets.UTF_8).length;
+            // the length of a record includes the digits of the length itself
+            int totalLength = length + String.valueOf(length).length();
+            if (String.valueOf(totalLength).length() > String.valueOf(length).length()) {
+                totalLength++;
+            }
+            byte[] content = (totalLength + record).getBytes(StandardCharsets.UTF_8);
+            writeHeader("PaxHeader".getBytes(StandardCharsets.US_ASCII), content.length, (byte) 'x');
+            writeContent(content);
+        }
+
+        private void writeHeader(byte[] name, long size, byte type) throws IOException {
+            byte[] header = new byte[BLOCK_SIZE];
+            System.arraycopy(name, 0, header, 0, name.length);
+            putOctal(header, 100, 8, 0644);
+            putOctal(header, 108, 8, 0);
+            putOctal(header, 116, 8, 0);
+            putOctal(header, 124, 12, size);
+            putOctal(header, 136, 12, modificationTime);
+            header[156] = type;
+            System.arraycopy("ustar\u000000".getBytes(StandardCharsets.US_ASCII), 0, header, 257, 8);
+            // the checksum is calculated with its own field filled with spaces
+            Arrays.fill(header, 148, 156, (byte) ' ');
+            long checksum = 0;
+            for (byte b : header) {
+                checksum += b & 0xff;
+            }
+            putOctal(header, 148, 7, checksum);
+            out.write(header);
+        }
+
+        private void writeContent(byte[] content) throws IOException {
+            out.write(content);
+            int padding = (BLOCK_SIZE - content.length % BLOCK_SIZE) % BLOCK_SIZE;
+            out.write(new byte[padding]);
+        }
+
+        /**
+         * Writes the value as zero-padded octal number, terminated by a NUL byte.
+         */
+        private static void putOctal(byte[] header, int offset, int length, long value) {
+            String octal = String.format("%0" + (length - 1) + "o", value);
+            System.arraycopy(octal.getBytes(StandardCharsets.US_ASCII), 0, header, offset, length - 1);
+            header[offset + length - 1] = 0;
+        }
+
+        @Override
+        protected void finish() throws IOException {
+            // the end of the archive is marked by two empty blocks
+            out.write(new byte[2 * BLOCK_SIZE]);
+            out.flush();
+            if (closeStream) {
+                out.close();
+            }
+        }
+    }
+}
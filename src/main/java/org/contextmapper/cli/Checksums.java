@@ -0,0 +1,42 @@
+package org.contextmapper.cli;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 checksums as used for cache keys and manifests.
+ */
+final class Checksums {
+
+    static final String MISSING_FILE = "missing";
+
+    private Checksums() {
+    }
+
+    static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return the checksum of the file content, or {@link #MISSING_FILE} if the file does not exist
+     */
+    static String sha256(Path file) {
+        try {
+            return sha256(Files.readAllBytes(file));
+        } catch (NoSuchFileException e) {
+            return MISSING_FILE;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.contextmapper.cli;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Finds the files imported by a CML file by scanning its import statements, without parsing the model with Xtext.
+ */
+class CmlImportScanner {
+
+    private static final Pattern COMMENT_PATTERN = Pattern.compile("/\\*.*?\\*/|//[^\\r\\n]*", Pattern.DOTALL);
+    private static final Pattern IMPORT_PATTERN = Pattern.compile("^\\s*import\\s+\"([^\"]+)\"", Pattern.MULTILINE);
+
+    /**
+     * Returns the files directly imported by the given CML file. Imports are resolved relative to the importing file;
+     * files that cannot be read are treated as files without imports.
+     */
+    List<Path> getImports(Path cmlFile) {
+        String content;
+        try {
+            content = Files.readString(cmlFile);
+        } catch (IOException e) {
+            return List.of();
+        }
+        return getImports(cmlFile, content);
+    }
+
+    /**
+     * Returns the files directly imported by the given content of a CML file, resolved relative to the file (which
+     * does not need to exist, e.g. for CML read from stdin).
+     */
+    List<Path> getImports(Path cmlFile, String content) {
+        List<Path> imports = new ArrayList<>();
+        Path baseDir = cmlFile.toAbsolutePath().getParent();
+        Matcher matcher = IMPORT_PATTERN.matcher(COMMENT_PATTERN.matcher(content).replaceAll(""));
+        while (matcher.find()) {
+            imports.add(baseDir.resolve(matcher.group(1)).normalize());
+        }
+        return imports;
+    }
+
+    /**
+     * Returns all files imported by the given CML file, directly or through other imported files (in the order they
+     * have been found). The file itself is not part of the result, even if it is imported through a cycle.
+     */
+    Set<Path> getTransitiveImports(Path cmlFile) {
+        Path start = cmlFile.toAbsolutePath().normalize();
+        Set<Path> imports = new LinkedHashSet<>();
+        Deque<Path> filesToScan = new ArrayDeque<>(List.of(start));
+        while (!filesToScan.isEmpty()) {
+            for (Path importedFile : getImports(filesToScan.pop())) {
+                if (!importedFile.equals(start) && imports.add(importedFile)) {
+                    filesToScan.add(importedFile);
+                }
+            }
+        }
+        return imports;
+    }
+
+    /**
+     * Returns the given CML file and all files it imports (transitively), absolute and normalized.
+     */
+    Set<Path> getFileWithTransitiveImports(Path cmlFile) {
+        Set<Path> files = new LinkedHashSet<>(List.of(cmlFile.toAbsolutePath().normalize()));
+        files.addAll(getTransitiveImports(cmlFile));
+        return files;
+    }
+
+    /**
+     * Returns the given CML files which changed or import a changed file (directly or transitively). The imports of
+     * every file are scanned once, and the changes are propagated from the imported to the importing files through
+     * the reverse import graph, so that files imported by many others are not scanned again for each of them.
+     *
+     * @param changedFiles the changed files, absolute and normalized (may include deleted files)
+     * @return the affected files of the given ones, absolute and normalized
+     */
+    Set<Path> getAffectedFiles(Collection<Path> cmlFiles, Set<Path> changedFiles) {
+        Set<Path> affectedFiles = ImportGraph.scan(cmlFiles, this).getImportingFiles(changedFiles);
+        Set<Path> affectedCmlFiles = new LinkedHashSet<>();
+        cmlFiles.stream().map(file -> file.toAbsolutePath().normalize()).filter(affectedFiles::contains).forEach(affectedCmlFiles::add);
+        return affectedCmlFiles;
+    }
+}
@@ -0,0 +1,39 @@
+package org.contextmapper.cli;
+
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * A CML file resolved from the --input parameter(s).
+ *
+ * @param file    the path to the CML file
+ * @param name    the name of the input, relative to the directory or glob it has been found with and without the
+ *                *.cml extension (used as output subdirectory if multiple files are processed)
+ * @param content the CML read from stdin (-i -), or null if the file is read from disk; for stdin, the file is a
+ *                virtual file in the base directory, against which its imports are resolved
+ */
+public record CmlInput(Path file, String name, String content) {
+
+    static final String STDIN = "-";
+    static final String STDIN_NAME = "stdin";
+
+    public CmlInput(Path file, String name) {
+        this(file, name, null);
+    }
+
+    /**
+     * @param baseDir the directory against which the imports of the CML are resolved
+     */
+    static CmlInput fromStdin(Path baseDir, String content) {
+        return new CmlInput(baseDir.toAbsolutePath().normalize().resolve(STDIN_NAME + ".cml"), STDIN_NAME, content);
+    }
+
+    boolean isStdin() {
+        return Objects.nonNull(content);
+    }
+
+    @Override
+    public String toString() {
+        return isStdin() ? "<stdin>" : file.toString();
+    }
+}
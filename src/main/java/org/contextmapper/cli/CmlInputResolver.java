@@ -0,0 +1,179 @@
+package org.contextmapper.cli;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Resolves the values of the --input parameter to CML files. A value can either be the path to a CML file, a
+ * directory (which is searched recursively for *.cml files), a glob pattern such as 'models/**.cml', or '-' to read
+ * the CML from stdin.
+ */
+class CmlInputResolver {
+
+    private static final String CML_FILE_EXTENSION = ".cml";
+    private static final String GLOB_CHARACTERS = "*?[{";
+
+    private final boolean requireUniqueNames;
+    private final Path stdinBaseDir;
+
+    CmlInputResolver() {
+        this(true);
+    }
+
+    /**
+     * @param requireUniqueNames false if the inputs are not generated into subdirectories named after them, so that
+     *                           files with the same name in different directories can be resolved together
+     */
+    CmlInputResolver(boolean requireUniqueNames) {
+        this(requireUniqueNames, Path.of(""));
+    }
+
+    /**
+     * @param stdinBaseDir the directory against which the imports of CML read from stdin are resolved
+     */
+    CmlInputResolver(boolean requireUniqueNames, Path stdinBaseDir) {
+        this.requireUniqueNames = requireUniqueNames;
+        this.stdinBaseDir = stdinBaseDir;
+    }
+
+    /**
+     * Resolves the given input values. Errors are printed to System.err.
+     *
+     * @param inputPaths the values passed to the --input parameter
+     * @return the resolved CML files in a deterministic order, or an empty Optional if one of the values is invalid
+     */
+    Optional<List<CmlInput>> resolve(List<String> inputPaths) {
+        Map<Path, CmlInput> inputs = new LinkedHashMap<>();
+        boolean valid = true;
+        for (String inputPath : inputPaths) {
+            List<CmlInput> resolved = resolve(inputPath);
+            if (resolved.isEmpty()) {
+                valid = false;
+            }
+            for (CmlInput input : resolved) {
+                inputs.putIfAbsent(input.file().toAbsolutePath().normalize(), input);
+            }
+        }
+        if (!valid || (requireUniqueNames && !hasUniqueNames(inputs.values()))) {
+            return Optional.empty();
+        }
+        return Optional.of(new ArrayList<>(inputs.values()));
+    }
+
+    private List<CmlInput> resolve(String inputPath) {
+        if (CmlInput.STDIN.equals(inputPath)) {
+            return resolveStdin();
+        }
+        if (isGlobPattern(inputPath)) {
+            return resolveGlob(inputPath);
+        }
+        Path path = Path.of(inputPath);
+        if (!Files.exists(path)) {
+            System.err.println("ERROR: The file '" + inputPath + "' does not exist.");
+            return List.of();
+        }
+        if (Files.isDirectory(path)) {
+            List<CmlInput> inputs = findCmlFiles(path, path, file -> true);
+            if (inputs.isEmpty()) {
+                System.err.println("ERROR: The directory '" + inputPath + "' does not contain any CML (*.cml) files.");
+            }
+            return inputs;
+        }
+        if (!inputPath.endsWith(CML_FILE_EXTENSION)) {
+            System.err.println("ERROR: Please provide a path to a CML (*.cml) file.");
+            return List.of();
+        }
+        return List.of(new CmlInput(path, stripExtension(path.getFileName().toString())));
+    }
+
+    private List<CmlInput> resolveStdin() {
+        if (!Files.isDirectory(stdinBaseDir)) {
+            System.err.println("ERROR: The base directory '" + stdinBaseDir + "' does not exist.");
+            return List.of();
+        }
+        try {
+            return List.of(CmlInput.fromStdin(stdinBaseDir, new String(System.in.readAllBytes(), StandardCharsets.UTF_8)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<CmlInput> resolveGlob(String pattern) {
+        Path baseDir = getGlobBaseDir(pattern);
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+        List<CmlInput> inputs = Files.isDirectory(baseDir) ? findCmlFiles(baseDir, baseDir, matcher) : List.of();
+        if (inputs.isEmpty()) {
+            System.err.println("ERROR: The pattern '" + pattern + "' does not match any CML (*.cml) files.");
+        }
+        return inputs;
+    }
+
+    private List<CmlInput> findCmlFiles(Path searchDir, Path nameBaseDir, PathMatcher matcher) {
+        try (Stream<Path> files = Files.walk(searchDir)) {
+            return files
+                    .filter(Files::isRegularFile)
+                    .filter(file -> file.toString().endsWith(CML_FILE_EXTENSION))
+                    .filter(matcher::matches)
+                    .sorted(Comparator.comparing(Path::toString))
+                    .map(file -> new CmlInput(file, stripExtension(toUnixPath(nameBaseDir.relativize(file)))))
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean hasUniqueNames(Iterable<CmlInput> inputs) {
+        Map<String, CmlInput> inputsByName = new HashMap<>();
+        for (CmlInput input : inputs) {
+            CmlInput other = inputsByName.putIfAbsent(input.name(), input);
+            if (other != null) {
+                System.err.println("ERROR: The files '" + other + "' and '" + input + "' would be generated into the same directory '"
+                        + input.name() + "'. Please pass their parent directory instead.");
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isGlobPattern(String inputPath) {
+        return inputPath.chars().anyMatch(c -> GLOB_CHARACTERS.indexOf(c) >= 0);
+    }
+
+    /**
+     * Returns the directory part of the pattern in front of the first glob character. The files found below this
+     * directory have the same form as the pattern (relative or absolute), so that the matcher can be applied to them.
+     */
+    private Path getGlobBaseDir(String pattern) {
+        int firstGlobCharacter = 0;
+        while (GLOB_CHARACTERS.indexOf(pattern.charAt(firstGlobCharacter)) < 0) {
+            firstGlobCharacter++;
+        }
+        String prefix = pattern.substring(0, firstGlobCharacter);
+        int lastSeparator = Math.max(prefix.lastIndexOf('/'), prefix.lastIndexOf('\\'));
+        if (lastSeparator < 0) {
+            return Path.of("");
+        }
+        return lastSeparator == 0 ? Path.of("/") : Path.of(prefix.substring(0, lastSeparator));
+    }
+
+    private static String toUnixPath(Path path) {
+        return path.toString().replace('\\', '/');
+    }
+
+    private static String stripExtension(String fileName) {
+        return fileName.substring(0, fileName.length() - CML_FILE_EXTENSION.length());
+    }
+}
@@ -0,0 +1,182 @@
+package org.contextmapper.cli;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.contextmapper.dsl.cml.CMLResource;
+import org.contextmapper.dsl.contextMappingDSL.ContextMappingModel;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+/**
+ * Loads CML files into a resource set which is kept between loads: files loaded before (including imported files) are
+ * not parsed again unless they have been reloaded explicitly. A loader is not thread-safe, as EMF resource sets are
+ * not; use one loader per thread.
+ * <p>
+ * Imported files are taken from the {@link ImportCache}: they are registered in the URI map of the resource set
+ * (without being part of its resources), so that all loaders share the same, read-only models of imported files.
+ * Files which are imported by other inputs as well (see {@link ImportGraphScheduler}) are loaded from the cache, too.
+ */
+class CmlResourceLoader {
+
+    private final ResourceSetImpl resourceSet = new ResourceSetImpl();
+    private final CmlImportScanner importScanner = new CmlImportScanner();
+    private final ImportCache importCache;
+    private final ModelCache modelCache;
+    private final Set<URI> contentURIs = new HashSet<>();
+    private final Set<Path> sharedFiles;
+
+    CmlResourceLoader() {
+        this(ImportCache.shared(), ModelCache.disabled());
+    }
+
+    /**
+     * @param modelCache the cache from which files are loaded instead of parsing them, if possible
+     */
+    CmlResourceLoader(ImportCache importCache, ModelCache modelCache) {
+        this(importCache, modelCache, Set.of());
+    }
+
+    /**
+     * @param sharedFiles the files (absolute and normalized) which are loaded from the import cache, as other files
+     *                    import them; their models are shared and must only be read
+     */
+    CmlResourceLoader(ImportCache importCache, ModelCache modelCache, Set<Path> sharedFiles) {
+        this.importCache = importCache;
+        this.modelCache = modelCache;
+        this.sharedFiles = sharedFiles;
+        resourceSet.setURIResourceMap(new HashMap<>());
+    }
+
+    CMLResource load(Path cmlFile) {
+        // make sure the CML language is registered with EMF
+        StandaloneAPIProvider.get();
+        Path file = cmlFile.toAbsolutePath().normalize();
+        if (sharedFiles.contains(file)) {
+            List<Resource> sharedResources = importCache.get(file, modelCache);
+            if (!sharedResources.isEmpty()) {
+                return new CMLResource(sharedResources.get(0));
+            }
+        }
+        URI uri = toURI(cmlFile);
+        registerImports(uri, importScanner.getImports(cmlFile));
+        return new CMLResource(modelCache.load(resourceSet, cmlFile));
+    }
+
+    /**
+     * Loads the CML file of the input, or parses its content if it has been read from stdin. Content read from stdin
+     * is always parsed (and never added to the model cache), as it is not identified by a file.
+     */
+    CMLResource load(CmlInput input) {
+        if (!input.isStdin()) {
+            return load(input.file());
+        }
+        StandaloneAPIProvider.get();
+        URI uri = toURI(input.file());
+        registerImports(uri, importScanner.getImports(input.file(), input.content()));
+        Resource existing = resourceSet.getResource(uri, false);
+        if (existing != null) {
+            resourceSet.getResources().remove(existing);
+        }
+        Resource resource = resourceSet.createResource(uri);
+        try {
+            resource.load(new ByteArrayInputStream(input.content().getBytes(StandardCharsets.UTF_8)), resourceSet.getLoadOptions());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        contentURIs.add(uri);
+        return new CMLResource(resource);
+    }
+
+    private void registerImports(URI uri, List<Path> importedFiles) {
+        Map<URI, Resource> uriResourceMap = resourceSet.getURIResourceMap();
+        for (Path importedFile : importedFiles) {
+            importCache.get(importedFile, modelCache).stream()
+                    .filter(resource -> !resource.getURI().equals(uri))
+                    .forEach(resource -> uriResourceMap.putIfAbsent(resource.getURI(), resource));
+        }
+    }
+
+    /**
+     * Resolves all cross-references in the loaded files. Afterwards, the errors and warnings include the references
+     * that could not be resolved, and the model is only read (and no longer modified) by accessing it. Parsed files
+     * without errors are added to the model cache.
+     */
+    void resolveAll() {
+        EcoreUtil.resolveAll(resourceSet);
+        resourceSet.getResources().stream()
+                .filter(resource -> !contentURIs.contains(resource.getURI()))
+                .forEach(modelCache::store);
+    }
+
+    /**
+     * Adds the size of the loaded model to the counters of the given metrics.
+     */
+    void countModel(CMLResource cmlResource, Metrics metrics) {
+        if (!metrics.isEnabled()) {
+            return;
+        }
+        metrics.count("resources", resourceSet.getResources().size());
+        metrics.count("sharedResources", resourceSet.getURIResourceMap().values().stream()
+                .filter(resource -> resource.getResourceSet() != resourceSet)
+                .distinct()
+                .count());
+        ContextMappingModel model = cmlResource.getContextMappingModel();
+        metrics.count("boundedContexts", model != null ? model.getBoundedContexts().size() : 0);
+        metrics.count("diagnostics", cmlResource.getErrors().size() + cmlResource.getWarnings().size());
+    }
+
+    /**
+     * Unloads the given files and all loaded files importing them (directly or transitively), so that they are parsed
+     * and linked again the next time they are loaded. All other resources stay loaded.
+     */
+    void reload(Collection<Path> changedFiles) {
+        // shared imports are registered again (from the cache, which knows whether they changed) on the next load
+        resourceSet.getURIResourceMap().clear();
+        Set<URI> changed = new HashSet<>();
+        changedFiles.forEach(file -> changed.add(toURI(file)));
+        for (Resource resource : getFileResources()) {
+            if (changed.contains(resource.getURI()) || importsAny(resource, changed)) {
+                resource.unload();
+            }
+        }
+    }
+
+    /**
+     * Unloads all files of the resource set, so that their models can be garbage collected even if the loader (or parts
+     * of the models) are still referenced. The shared imported files stay loaded in the {@link ImportCache}.
+     */
+    void unloadAll() {
+        resourceSet.getURIResourceMap().clear();
+        for (Resource resource : List.copyOf(resourceSet.getResources())) {
+            resource.unload();
+        }
+        resourceSet.getResources().clear();
+        contentURIs.clear();
+    }
+
+    private List<Resource> getFileResources() {
+        return resourceSet.getResources().stream().filter(resource -> resource.getURI().isFile()).toList();
+    }
+
+    private boolean importsAny(Resource resource, Set<URI> files) {
+        return importScanner.getTransitiveImports(Path.of(resource.getURI().toFileString())).stream()
+                .map(CmlResourceLoader::toURI)
+                .anyMatch(files::contains);
+    }
+
+    static URI toURI(Path file) {
+        return URI.createFileURI(file.toAbsolutePath().normalize().toString());
+    }
+}
@@ -0,0 +1,68 @@
+package org.contextmapper.cli;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Provides the CML loaders for worker threads. EMF resource sets are not thread-safe, so every worker thread gets its
+ * own loader (and thereby its own resource set).
+ */
+class CmlResourceLoaders {
+
+    private final boolean keepLoaded;
+    private final ModelCache modelCache;
+    private final List<CmlResourceLoader> loaders = new CopyOnWriteArrayList<>();
+    private final Set<Path> sharedFiles = ConcurrentHashMap.newKeySet();
+    private final ThreadLocal<CmlResourceLoader> workerLoader = ThreadLocal.withInitial(this::createLoader);
+
+    /**
+     * @param keepLoaded true if the loader of a worker shall be kept for all files it processes (so that files loaded
+     *                   before are reused), false if every call to {@link #get()} shall return a new loader
+     */
+    CmlResourceLoaders(boolean keepLoaded) {
+        this(keepLoaded, ModelCache.disabled());
+    }
+
+    /**
+     * @param modelCache the cache from which the loaders load files instead of parsing them, if possible
+     */
+    CmlResourceLoaders(boolean keepLoaded, ModelCache modelCache) {
+        this.keepLoaded = keepLoaded;
+        this.modelCache = modelCache;
+    }
+
+    /**
+     * @return the loader for the current thread
+     */
+    CmlResourceLoader get() {
+        return keepLoaded ? workerLoader.get() : new CmlResourceLoader(ImportCache.shared(), modelCache, sharedFiles);
+    }
+
+    /**
+     * Lets the loaders load the given files from the import cache, as they are imported by other files.
+     *
+     * @see ImportGraphScheduler#getSharedFiles()
+     */
+    void share(Collection<Path> files) {
+        sharedFiles.addAll(files);
+    }
+
+    /**
+     * Reloads the changed files in the loaders of all workers.
+     *
+     * @see CmlResourceLoader#reload(Collection)
+     */
+    void reload(Collection<Path> changedFiles) {
+        loaders.forEach(loader -> loader.reload(changedFiles));
+    }
+
+    private CmlResourceLoader createLoader() {
+        CmlResourceLoader loader = new CmlResourceLoader(ImportCache.shared(), modelCache, sharedFiles);
+        loaders.add(loader);
+        return loader;
+    }
+}
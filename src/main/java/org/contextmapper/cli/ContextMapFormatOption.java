@@ -0,0 +1,27 @@
+package org.contextmapper.cli;
+
+/**
+ * The output formats of the 'context-map' generator. (The formats of the context map generator library are not used
+ * here, as picocli loads this enum when parsing the command line.)
+ */
+public enum ContextMapFormatOption {
+
+    PNG("png"),
+    SVG("svg"),
+    GV("gv");
+
+    private final String name;
+
+    ContextMapFormatOption(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return this.name;
+    }
+}
@@ -0,0 +1,46 @@
+package org.contextmapper.cli;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The options of the 'context-map' generator.
+ *
+ * @param formats      the formats to render
+ * @param width        the width of the images, or null for the default size
+ * @param height       the height of the images, or null for the default size
+ * @param labelSpacing the spacing factor of the relationship labels, or null for the default spacing
+ */
+record ContextMapOptions(List<ContextMapFormatOption> formats, Integer width, Integer height, Integer labelSpacing) {
+
+    static final int MAX_LABEL_SPACING = 20;
+
+    static ContextMapOptions defaults() {
+        return new ContextMapOptions(List.of(ContextMapFormatOption.values()), null, null, null);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the options are not valid
+     */
+    void check() {
+        if (Objects.nonNull(width) && Objects.nonNull(height)) {
+            throw new IllegalArgumentException("Please pass either --map-width or --map-height; the other side is scaled accordingly.");
+        }
+        if ((Objects.nonNull(width) && width < 1) || (Objects.nonNull(height) && height < 1)) {
+            throw new IllegalArgumentException("The --map-width and --map-height parameters must be positive.");
+        }
+        if (Objects.nonNull(labelSpacing) && (labelSpacing < 1 || labelSpacing > MAX_LABEL_SPACING)) {
+            throw new IllegalArgumentException("The --map-label-spacing parameter must be between 1 and " + MAX_LABEL_SPACING + ".");
+        }
+    }
+
+    /**
+     * Describes the options for the manifest of incremental generations.
+     */
+    String describe() {
+        return formats.stream().map(ContextMapFormatOption::getName).distinct().toList()
+                + (Objects.nonNull(width) ? " width=" + width : "")
+                + (Objects.nonNull(height) ? " height=" + height : "")
+                + (Objects.nonNull(labelSpacing) ? " labelSpacing=" + labelSpacing : "");
+    }
+}
@@ -9,7 +9,9 @@ import picocli.CommandLine.Command;
     description = "Context Mapper CLI",
     subcommands = {
         ValidateCommand.class,
-        GenerateCommand.class
+        GenerateCommand.class,
+        SynthCommand.class,
+        ServeCommand.class
     },
     mixinStandardHelpOptions = true,
     usageHelpAutoWidth = true)
@@ -25,7 +27,7 @@ public class ContextMapperCLI implements Runnable {
     }
 
     public static void main(String[] args) {
-        int exitCode = runCLI(args);
+        int exitCode = DaemonClient.forward(args).orElseGet(() -> runCLI(args));
         System.exit(exitCode);
     }
 }
@@ -4,9 +4,6 @@ import java.util.Arrays;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
-import org.contextmapper.dsl.generator.ContextMapGenerator;
-import org.contextmapper.dsl.generator.GenericContentGenerator;
-import org.contextmapper.dsl.generator.PlantUMLGenerator;
 import org.eclipse.xtext.generator.IGenerator2;
 
 public enum ContextMapperGenerator {
@@ -53,11 +50,12 @@ public enum ContextMapperGenerator {
                         Arrays.stream(values()).map(ContextMapperGenerator::getName).collect(Collectors.joining(", "))));
     }
 
+    /**
+     * @deprecated use {@link GeneratorRunner#createGenerator(ContextMapperGenerator)}, which keeps the generator
+     *             implementations out of this enum (picocli loads it when parsing the command line)
+     */
+    @Deprecated
     public IGenerator2 getGenerator() {
-        return switch (this) {
-            case CONTEXT_MAP -> new ContextMapGenerator();
-            case PLANT_UML -> new PlantUMLGenerator();
-            case GENERIC -> new GenericContentGenerator();
-        };
+        return GeneratorRunner.createGenerator(this);
     }
 }
@@ -0,0 +1,223 @@
+package org.contextmapper.cli;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.OptionalInt;
+import java.util.Set;
+
+/**
+ * Client for the Context Mapper daemon started with 'cm serve'. The daemon is reached through a Unix domain socket.
+ * Unless another socket is configured with the CM_DAEMON_SOCKET environment variable, the socket path depends on the
+ * working directory, so that relative paths passed to a command mean the same for the client and the daemon. The socket
+ * is created in a directory only the user can access ($XDG_RUNTIME_DIR, or a directory of the user in the temporary
+ * directory), and the client only connects to sockets owned by the user, so that other users cannot pose as the daemon.
+ *
+ * <p>Protocol: the client sends a request type and, for {@link #REQUEST_RUN}, its versions, the working directory and
+ * the command line arguments. The daemon answers with frames: stdout and stderr chunks, followed by the exit code (or a
+ * rejection, e.g. if the daemon runs other versions of the CLI and CML, in which case the client runs the command
+ * itself).
+ */
+class DaemonClient {
+
+    static final String SOCKET_ENV_VARIABLE = "CM_DAEMON_SOCKET";
+    static final String DISABLE_ENV_VARIABLE = "CM_NO_DAEMON";
+
+    static final String REQUEST_RUN = "run";
+    static final String REQUEST_PING = "ping";
+    static final String REQUEST_STOP = "stop";
+
+    static final byte FRAME_OUT = 1;
+    static final byte FRAME_ERR = 2;
+    static final byte FRAME_EXIT = 3;
+    static final byte FRAME_REJECTED = 4;
+
+    private static final Set<String> FORWARDED_COMMANDS = Set.of("validate", "generate");
+
+    private final Path socketPath;
+    private final String versions;
+
+    DaemonClient(Path socketPath) {
+        this(socketPath, VersionProvider.getBuildVersions());
+    }
+
+    /**
+     * @param versions the versions of the CLI and CML, which must be the same for the daemon to run a command
+     */
+    DaemonClient(Path socketPath, String versions) {
+        this.socketPath = socketPath;
+        this.versions = versions;
+    }
+
+    /**
+     * Runs the command on the daemon of the current working directory, if the command can be forwarded and a daemon
+     * is running.
+     *
+     * @return the exit code of the command, or an empty OptionalInt if the command has to be run in-process
+     */
+    static OptionalInt forward(String[] args) {
+        if (!isForwardable(args) || Objects.nonNull(System.getenv(DISABLE_ENV_VARIABLE))) {
+            return OptionalInt.empty();
+        }
+        return new DaemonClient(getDefaultSocketPath()).run(args, System.out, System.err);
+    }
+
+    static boolean isForwardable(String[] args) {
+        // watching keeps a command running; the daemon would not be available for other requests meanwhile
+        return args.length > 0 && FORWARDED_COMMANDS.contains(args[0]) && !Arrays.asList(args).contains("--watch") && !readsStdin(args);
+    }
+
+    /**
+     * @return true if the command reads CML from stdin (-i -), which is not forwarded to the daemon
+     */
+    private static boolean readsStdin(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            boolean inputOption = args[i].equals("-i") || args[i].equals("--input");
+            if ((inputOption && i + 1 < args.length && args[i + 1].equals(CmlInput.STDIN))
+                    || args[i].equals("-i-") || args[i].equals("-i=-") || args[i].equals("--input=-")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static Path getDefaultSocketPath() {
+        String configuredSocket = System.getenv(SOCKET_ENV_VARIABLE);
+        if (Objects.nonNull(configuredSocket) && !configuredSocket.isBlank()) {
+            return Path.of(configuredSocket);
+        }
+        String key = System.getProperty("user.name") + ":" + getWorkingDirectory();
+        return getDefaultSocketDirectory().resolve("cm-daemon-" + Checksums.sha256(key.getBytes(StandardCharsets.UTF_8)).substring(0, 16) + ".sock");
+    }
+
+    /**
+     * @return $XDG_RUNTIME_DIR if set, or a directory of the user in the temporary directory (created by the daemon
+     *         with permissions for the user only)
+     */
+    static Path getDefaultSocketDirectory() {
+        String runtimeDir = System.getenv("XDG_RUNTIME_DIR");
+        if (Objects.nonNull(runtimeDir) && !runtimeDir.isBlank() && Files.isDirectory(Path.of(runtimeDir))) {
+            return Path.of(runtimeDir);
+        }
+        return Path.of(System.getProperty("java.io.tmpdir"), "cm-daemon-" + System.getProperty("user.name"));
+    }
+
+    /**
+     * @return true if the file is owned by the user running the CLI; false if not, or if the owner cannot be determined
+     */
+    static boolean isOwnedByCurrentUser(Path file) {
+        try {
+            UserPrincipal currentUser = file.getFileSystem().getUserPrincipalLookupService()
+                    .lookupPrincipalByName(System.getProperty("user.name"));
+            return Files.getOwner(file).equals(currentUser);
+        } catch (IOException | UnsupportedOperationException e) {
+            return false;
+        }
+    }
+
+    static String getWorkingDirectory() {
+        return Path.of("").toAbsolutePath().normalize().toString();
+    }
+
+    /**
+     * Runs the command on the daemon and copies its output to the given streams.
+     *
+     * @return the exit code of the command, or an empty OptionalInt if no daemon is running or the daemon rejected
+     * the request
+     */
+    OptionalInt run(String[] args, PrintStream out, PrintStream err) {
+        if (!isAvailable()) {
+            return OptionalInt.empty();
+        }
+        try (SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            channel.connect(UnixDomainSocketAddress.of(socketPath));
+            DataOutputStream request = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            request.writeUTF(REQUEST_RUN);
+            request.writeUTF(versions);
+            request.writeUTF(getWorkingDirectory());
+            request.writeInt(args.length);
+            for (String arg : args) {
+                request.writeUTF(arg);
+            }
+            request.flush();
+            return readResponse(new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel))), out, err);
+        } catch (IOException e) {
+            // no daemon listening (anymore); the caller falls back to in-process execution
+            return OptionalInt.empty();
+        }
+    }
+
+    boolean isRunning() {
+        return isAvailable() && sendControlRequest(REQUEST_PING);
+    }
+
+    boolean stop() {
+        return isAvailable() && sendControlRequest(REQUEST_STOP);
+    }
+
+    /**
+     * @return true if the socket exists and has been created by the user (and not by another user posing as daemon)
+     */
+    private boolean isAvailable() {
+        return Files.exists(socketPath) && isOwnedByCurrentUser(socketPath);
+    }
+
+    private boolean sendControlRequest(String requestType) {
+        try (SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            channel.connect(UnixDomainSocketAddress.of(socketPath));
+            DataOutputStream request = new DataOutputStream(Channels.newOutputStream(channel));
+            request.writeUTF(requestType);
+            request.flush();
+            return new DataInputStream(Channels.newInputStream(channel)).readByte() == FRAME_EXIT;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private OptionalInt readResponse(DataInputStream response, PrintStream out, PrintStream err) throws IOException {
+        boolean outputReceived = false;
+        while (true) {
+            byte frameType;
+            try {
+                frameType = response.readByte();
+            } catch (IOException e) {
+                if (!outputReceived) {
+                    throw e;
+                }
+                // the command already produced output, so running it once more in-process is not an option
+                err.println("ERROR: The connection to the Context Mapper daemon has been lost.");
+                return OptionalInt.of(1);
+            }
+            switch (frameType) {
+                case FRAME_OUT, FRAME_ERR -> {
+                    byte[] chunk = new byte[response.readInt()];
+                    response.readFully(chunk);
+                    PrintStream target = frameType == FRAME_OUT ? out : err;
+                    target.write(chunk);
+                    target.flush();
+                    outputReceived = true;
+                }
+                case FRAME_EXIT -> {
+                    return OptionalInt.of(response.readInt());
+                }
+                case FRAME_REJECTED -> {
+                    return OptionalInt.empty();
+                }
+                default -> throw new IOException("Unexpected frame type " + frameType + " received from daemon.");
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.contextmapper.cli;
+
+import org.eclipse.emf.ecore.resource.Resource.Diagnostic;
+import org.eclipse.xtext.diagnostics.AbstractDiagnostic;
+import org.eclipse.xtext.validation.Issue;
+
+import java.util.Objects;
+
+/**
+ * A copy of an error or warning of a resource. Xtext diagnostics reference the node model of their resource (and
+ * thereby the whole model); the copy does not, so that it can be kept after the resource has been unloaded.
+ */
+record DetachedDiagnostic(String message, String location, int line, int column, String code) implements Diagnostic {
+
+    static DetachedDiagnostic copyOf(Diagnostic diagnostic) {
+        String code = diagnostic instanceof AbstractDiagnostic abstractDiagnostic ? abstractDiagnostic.getCode() : null;
+        return new DetachedDiagnostic(diagnostic.getMessage(), diagnostic.getLocation(), diagnostic.getLine(), diagnostic.getColumn(), code);
+    }
+
+    /**
+     * Copies an issue of the validator; issues without a position in the text (e.g. of models loaded from the model
+     * cache) are reported on line 0.
+     */
+    static DetachedDiagnostic copyOf(Issue issue) {
+        return new DetachedDiagnostic(issue.getMessage(), null, Objects.requireNonNullElse(issue.getLineNumber(), 0),
+                Objects.requireNonNullElse(issue.getColumn(), 0), issue.getCode());
+    }
+
+    @Override
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String getLocation() {
+        return location;
+    }
+
+    @Override
+    public int getLine() {
+        return line;
+    }
+
+    @Override
+    public int getColumn() {
+        return column;
+    }
+}
@@ -0,0 +1,30 @@
+package org.contextmapper.cli;
+
+public enum DiagnosticsFormat {
+
+    TEXT("text", "Human-readable messages (errors on stderr, everything else on stdout)"),
+    JSON("json", "One JSON document per validation run"),
+    JSONL("jsonl", "One JSON object per line and diagnostic (JSON Lines)"),
+    SARIF("sarif", "SARIF 2.1.0 log, as understood by code scanning tools");
+
+    private final String name;
+    private final String description;
+
+    DiagnosticsFormat(String name, String description) {
+        this.name = name;
+        this.description = description;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public String toString() {
+        return this.name;
+    }
+}
@@ -0,0 +1,286 @@
+package org.contextmapper.cli;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+
+import org.eclipse.emf.ecore.resource.Resource.Diagnostic;
+import org.eclipse.xtext.diagnostics.AbstractDiagnostic;
+
+/**
+ * Writes the results of validations in one of the {@link DiagnosticsFormat}s. The diagnostics are written through
+ * buffered writers as soon as the result of a file is passed, so that neither the output nor its memory grows with
+ * the number of files. With a maximum, further diagnostics are only counted; the summary tells how many were omitted.
+ * <p>
+ * Every validation run (the initial one and every run in watch mode) is written as a complete document by calling
+ * {@link #startRun()}, {@link #writeResult} for every file and {@link #endRun}.
+ */
+abstract class DiagnosticsWriter {
+
+    private static final String SEVERITY_ERROR = "error";
+    private static final String SEVERITY_WARNING = "warning";
+
+    protected final PrintWriter out;
+    protected final PrintWriter err;
+    private final Integer maxDiagnostics;
+    private int writtenDiagnostics;
+    private int omittedDiagnostics;
+
+    private DiagnosticsWriter(Charset charset, Integer maxDiagnostics) {
+        this.out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out, charset)));
+        this.err = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.err, charset)));
+        this.maxDiagnostics = maxDiagnostics;
+    }
+
+    /**
+     * @param maxDiagnostics the maximum number of diagnostics written per run, or null for all
+     */
+    static DiagnosticsWriter create(DiagnosticsFormat format, Integer maxDiagnostics) {
+        return switch (format) {
+            case TEXT -> new TextWriter(maxDiagnostics);
+            case JSON -> new JsonWriter(maxDiagnostics);
+            case JSONL -> new JsonLinesWriter(maxDiagnostics);
+            case SARIF -> new SarifWriter(maxDiagnostics);
+        };
+    }
+
+    void startRun() {
+        writtenDiagnostics = 0;
+        omittedDiagnostics = 0;
+    }
+
+    /**
+     * Writes the errors and warnings of a validated file.
+     *
+     * @param defaultLocation the location of diagnostics without location in the text format (null to print none)
+     */
+    void writeResult(String file, String defaultLocation, List<Diagnostic> errors, List<Diagnostic> warnings) {
+        if (errors.isEmpty()) {
+            writeValidFile(file);
+        }
+        for (Diagnostic diagnostic : errors) {
+            writeLimited(file, defaultLocation, diagnostic, SEVERITY_ERROR);
+        }
+        for (Diagnostic diagnostic : warnings) {
+            writeLimited(file, defaultLocation, diagnostic, SEVERITY_WARNING);
+        }
+        flush();
+    }
+
+    /**
+     * Reports a file which could not be validated at all (always on stderr, so that structured output stays valid).
+     */
+    void writeFailure(String file, String message) {
+        err.println("ERROR: Validation of '" + file + "' failed: " + message);
+        flush();
+    }
+
+    void endRun(int files, int invalidFiles) {
+        writeSummary(files, invalidFiles, omittedDiagnostics);
+        flush();
+    }
+
+    private void writeLimited(String file, String defaultLocation, Diagnostic diagnostic, String severity) {
+        if (Objects.nonNull(maxDiagnostics) && writtenDiagnostics >= maxDiagnostics) {
+            omittedDiagnostics++;
+            return;
+        }
+        writtenDiagnostics++;
+        writeDiagnostic(file, defaultLocation, diagnostic, severity);
+    }
+
+    private void flush() {
+        out.flush();
+        err.flush();
+    }
+
+    protected void writeValidFile(String file) {
+    }
+
+    protected abstract void writeDiagnostic(String file, String defaultLocation, Diagnostic diagnostic, String severity);
+
+    protected abstract void writeSummary(int files, int invalidFiles, int omittedDiagnostics);
+
+    /**
+     * @return the code of the diagnostic (e.g. the id of the validation rule), or null if it has none
+     */
+    protected static String getCode(Diagnostic diagnostic) {
+        if (diagnostic instanceof DetachedDiagnostic detachedDiagnostic) {
+            return detachedDiagnostic.code();
+        }
+        return diagnostic instanceof AbstractDiagnostic abstractDiagnostic ? abstractDiagnostic.getCode() : null;
+    }
+
+    protected static String quote(String value) {
+        if (Objects.isNull(value)) {
+            return "null";
+        }
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> quoted.append("\\\"");
+                case '\\' -> quoted.append("\\\\");
+                case '\n' -> quoted.append("\\n");
+                case '\r' -> quoted.append("\\r");
+                case '\t' -> quoted.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+                }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    /**
+     * Writes a diagnostic as JSON object with its file, line, column, severity, code, and message.
+     */
+    protected static String toJson(String file, Diagnostic diagnostic, String severity) {
+        return "{\"file\": " + quote(Objects.toString(diagnostic.getLocation(), file))
+                + ", \"line\": " + diagnostic.getLine()
+                + ", \"column\": " + diagnostic.getColumn()
+                + ", \"severity\": " + quote(severity)
+                + ", \"code\": " + quote(getCode(diagnostic))
+                + ", \"message\": " + quote(diagnostic.getMessage()) + "}";
+    }
+
+    private static final class TextWriter extends DiagnosticsWriter {
+
+        TextWriter(Integer maxDiagnostics) {
+            super(Charset.defaultCharset(), maxDiagnostics);
+        }
+
+        @Override
+        protected void writeValidFile(String file) {
+            out.println("The CML file '" + file + "' has been validated without errors.");
+        }
+
+        @Override
+        protected void writeDiagnostic(String file, String defaultLocation, Diagnostic diagnostic, String severity) {
+            String message = " in " + Objects.toString(diagnostic.getLocation(), defaultLocation) + " on line "
+                    + diagnostic.getLine() + ":" + diagnostic.getMessage();
+            if (SEVERITY_ERROR.equals(severity)) {
+                err.println("ERROR" + message);
+            } else {
+                out.println("WARNING" + message);
+            }
+        }
+
+        @Override
+        protected void writeSummary(int files, int invalidFiles, int omittedDiagnostics) {
+            if (omittedDiagnostics > 0) {
+                out.println("Omitted " + omittedDiagnostics + " further diagnostics (--max-diagnostics).");
+            }
+            if (files > 1) {
+                out.println("Validated " + files + " CML files, " + invalidFiles + " with errors.");
+            }
+        }
+    }
+
+    private static final class JsonLinesWriter extends DiagnosticsWriter {
+
+        JsonLinesWriter(Integer maxDiagnostics) {
+            super(StandardCharsets.UTF_8, maxDiagnostics);
+        }
+
+        @Override
+        protected void writeDiagnostic(String file, String defaultLocation, Diagnostic diagnostic, String severity) {
+            out.println(toJson(file, diagnostic, severity));
+        }
+
+        @Override
+        protected void writeSummary(int files, int invalidFiles, int omittedDiagnostics) {
+            // JSON Lines only contain the diagnostics; the exit code tells whether there were errors
+        }
+    }
+
+    private static final class JsonWriter extends DiagnosticsWriter {
+
+        private boolean firstDiagnostic;
+
+        JsonWriter(Integer maxDiagnostics) {
+            super(StandardCharsets.UTF_8, maxDiagnostics);
+        }
+
+        @Override
+        void startRun() {
+            super.startRun();
+            firstDiagnostic = true;
+            out.print("{\n  \"diagnostics\": [");
+        }
+
+        @Override
+        protected void writeDiagnostic(String file, String defaultLocation, Diagnostic diagnostic, String severity) {
+            out.print(firstDiagnostic ? "\n    " : ",\n    ");
+            out.print(toJson(file, diagnostic, severity));
+            firstDiagnostic = false;
+        }
+
+        @Override
+        protected void writeSummary(int files, int invalidFiles, int omittedDiagnostics) {
+            out.print(firstDiagnostic ? "],\n" : "\n  ],\n");
+            out.println("  \"files\": " + files + ",\n  \"filesWithErrors\": " + invalidFiles
+                    + ",\n  \"omittedDiagnostics\": " + omittedDiagnostics + "\n}");
+        }
+    }
+
+    private static final class SarifWriter extends DiagnosticsWriter {
+
+        private boolean firstResult;
+
+        SarifWriter(Integer maxDiagnostics) {
+            super(StandardCharsets.UTF_8, maxDiagnostics);
+        }
+
+        @Override
+        void startRun() {
+            super.startRun();
+            firstResult = true;
+            out.print("""
+                    {
+                      "$schema": "https://json.schemastore.org/sarif-2.1.0.json",
+                      "version": "2.1.0",
+                      "runs": [{
+                        "tool": {"driver": {"name": "Context Mapper CLI", "informationUri": "https://contextmapper.org/"}},
+                        "results": [""");
+        }
+
+        @Override
+        protected void writeDiagnostic(String file, String defaultLocation, Diagnostic diagnostic, String severity) {
+            StringBuilder result = new StringBuilder(firstResult ? "\n      {" : ",\n      {");
+            String code = getCode(diagnostic);
+            if (Objects.nonNull(code)) {
+                result.append("\"ruleId\": ").append(quote(code)).append(", ");
+            }
+            result.append("\"level\": ").append(quote(severity))
+                    .append(", \"message\": {\"text\": ").append(quote(diagnostic.getMessage())).append("}")
+                    .append(", \"locations\": [{\"physicalLocation\": {\"artifactLocation\": {\"uri\": ")
+                    .append(quote(Objects.toString(diagnostic.getLocation(), file))).append("}");
+            // SARIF regions start at line and column 1; diagnostics without position only refer to the file
+            if (diagnostic.getLine() > 0) {
+                result.append(", \"region\": {\"startLine\": ").append(diagnostic.getLine());
+                if (diagnostic.getColumn() > 0) {
+                    result.append(", \"startColumn\": ").append(diagnostic.getColumn());
+                }
+                result.append("}");
+            }
+            out.print(result.append("}}]}"));
+            firstResult = false;
+        }
+
+        @Override
+        protected void writeSummary(int files, int invalidFiles, int omittedDiagnostics) {
+            out.print(firstResult ? "],\n" : "\n    ],\n");
+            out.println("    \"properties\": {\"files\": " + files + ", \"filesWithErrors\": " + invalidFiles
+                    + ", \"omittedDiagnostics\": " + omittedDiagnostics + "}\n  }]\n}");
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package org.contextmapper.cli;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Watches a set of files for changes. The directories containing the files are watched (instead of the files), so that
+ * editors which save by replacing the file are supported too.
+ */
+class FileWatcher implements Closeable {
+
+    static final Duration DEFAULT_DEBOUNCE = Duration.ofMillis(300);
+
+    private final WatchService watchService;
+    private final Duration debounce;
+    private final Map<Path, WatchKey> watchedDirs = new HashMap<>();
+    private final Set<Path> watchedFiles = new HashSet<>();
+
+    /**
+     * @param debounce the time without further changes to wait for, before a burst of changes is reported
+     */
+    FileWatcher(Duration debounce) throws IOException {
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.debounce = debounce;
+    }
+
+    /**
+     * Calls the handler whenever watched files changed, until the thread is interrupted. The watched files are
+     * determined again after each change, since a change can add or remove imports. Errors of the handler are printed
+     * and do not stop watching.
+     */
+    void runOnChanges(Supplier<Collection<Path>> files, ChangeHandler handler) throws IOException {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                watch(files.get());
+                // not on stdout, as the results written there may be parsed (--format, -o -)
+                System.err.println("Watching for changes (press Ctrl+C to stop) ...");
+                Set<Path> changedFiles = awaitChanges();
+                try {
+                    handler.handle(changedFiles);
+                } catch (RuntimeException e) {
+                    System.err.println("ERROR: " + e.getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // the watcher has been closed
+        }
+    }
+
+    /**
+     * Replaces the set of watched files.
+     */
+    void watch(Collection<Path> files) throws IOException {
+        watchedFiles.clear();
+        for (Path file : files) {
+            Path absoluteFile = file.toAbsolutePath().normalize();
+            watchedFiles.add(absoluteFile);
+            Path dir = absoluteFile.getParent();
+            if (!watchedDirs.containsKey(dir) && dir.toFile().isDirectory()) {
+                watchedDirs.put(dir, dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE));
+            }
+        }
+    }
+
+    /**
+     * Blocks until at least one watched file changed and no further change happened within the debounce time.
+     *
+     * @return the changed files (absolute and normalized)
+     */
+    Set<Path> awaitChanges() throws InterruptedException {
+        Set<Path> changedFiles = new HashSet<>();
+        while (changedFiles.isEmpty()) {
+            collectChanges(watchService.take(), changedFiles);
+        }
+        WatchKey key;
+        while ((key = watchService.poll(debounce.toMillis(), TimeUnit.MILLISECONDS)) != null) {
+            collectChanges(key, changedFiles);
+        }
+        return changedFiles;
+    }
+
+    private void collectChanges(WatchKey key, Set<Path> changedFiles) {
+        Path dir = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // events have been lost; consider all files in the directory as changed
+                watchedFiles.stream().filter(file -> file.getParent().equals(dir)).forEach(changedFiles::add);
+            } else if (event.context() instanceof Path fileName && watchedFiles.contains(dir.resolve(fileName))) {
+                changedFiles.add(dir.resolve(fileName));
+            }
+        }
+        key.reset();
+    }
+
+    @FunctionalInterface
+    interface ChangeHandler {
+
+        void handle(Set<Path> changedFiles) throws InterruptedException;
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+}
@@ -0,0 +1,66 @@
+package org.contextmapper.cli;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.contextmapper.dsl.cml.CMLResource;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+/**
+ * Creates the resource of a filtered copy of a model ({@link PlantUMLModelFilter}, {@link ModelSlicer}), so that the
+ * generators see it like a loaded model:
+ * <ul>
+ * <li>The resource is part of a resource set of its own, which finds the files imported by the original model (through
+ * its URI map, as the resource sets of {@link CmlResourceLoader} do); the copy still references their elements.</li>
+ * <li>The elements removed from the copy which are still referenced by it (e.g. the bounded contexts of a context map
+ * whose class diagrams are not selected) are kept as further contents of the resource, after the model. The generators
+ * only process the model, but no reference points to an element outside of any resource.</li>
+ * </ul>
+ */
+final class FilteredModelResource {
+
+    private FilteredModelResource() {
+    }
+
+    static CMLResource create(CMLResource cmlResource, EObject copy) {
+        ResourceSetImpl resourceSet = new ResourceSetImpl();
+        resourceSet.setURIResourceMap(new HashMap<>());
+        registerImports(resourceSet.getURIResourceMap(), cmlResource);
+        Resource resource = new ResourceImpl(cmlResource.getURI());
+        resourceSet.getResources().add(resource);
+        resource.getContents().add(copy);
+        // the contents grow while the removed elements are added
+        for (int i = 0; i < resource.getContents().size(); i++) {
+            for (EObject referencedObject : EcoreUtil.ExternalCrossReferencer.find(resource.getContents().get(i)).keySet()) {
+                EObject root = EcoreUtil.getRootContainer(referencedObject);
+                if (root.eResource() == null) {
+                    resource.getContents().add(root);
+                }
+            }
+        }
+        return new CMLResource(resource);
+    }
+
+    private static void registerImports(Map<URI, Resource> uriResourceMap, CMLResource cmlResource) {
+        ResourceSet originalResourceSet = cmlResource.getResourceSet();
+        if (originalResourceSet == null) {
+            return;
+        }
+        originalResourceSet.getResources().stream()
+                .filter(resource -> !resource.getURI().equals(cmlResource.getURI()))
+                .forEach(resource -> uriResourceMap.putIfAbsent(resource.getURI(), resource));
+        if (originalResourceSet instanceof ResourceSetImpl resourceSetImpl && resourceSetImpl.getURIResourceMap() != null) {
+            resourceSetImpl.getURIResourceMap().forEach((uri, resource) -> {
+                if (!uri.equals(cmlResource.getURI())) {
+                    uriResourceMap.putIfAbsent(uri, resource);
+                }
+            });
+        }
+    }
+}
@@ -1,14 +1,21 @@
 package org.contextmapper.cli;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.Callable;
-
-import org.contextmapper.dsl.cml.CMLResource;
-import org.contextmapper.dsl.generator.GenericContentGenerator;
-import org.contextmapper.dsl.standalone.ContextMapperStandaloneSetup;
-import org.contextmapper.dsl.standalone.StandaloneContextMapperAPI;
-import org.eclipse.xtext.generator.IGenerator2;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
@@ -19,56 +26,234 @@ import picocli.CommandLine.Option;
     mixinStandardHelpOptions = true)
 public class GenerateCommand implements Callable<Integer> {
 
+    private static final String STDOUT = "-";
+
     @Option(
         names = {"-i", "--input"},
-        description = "Path to the CML file for which you want to generate output.",
+        paramLabel = "<inputPath>",
+        description = """
+            Path to the CML file for which you want to generate output.
+            Can be repeated and also be a directory (searched recursively for *.cml files) or a glob pattern.
+            If multiple CML files are given, the output of each file is generated into its own subdirectory.
+            Use '-' to read the CML from stdin (imports are resolved relative to --base-dir).
+            """,
         required = true)
-    private String inputPath;
+    private List<String> inputPaths;
+
+    @Option(
+        names = {"--base-dir"},
+        paramLabel = "<dir>",
+        description = "The directory against which the imports of CML read from stdin (-i -) are resolved (default: working directory).",
+        defaultValue = ".")
+    private String baseDir;
 
     @Option(
         names = {"-g", "--generator"},
+        paramLabel = "<generatorType>",
+        split = ",",
         description = """
-            The generator you want to call.
-            Use one of the following values: ${COMPLETION-CANDIDATES}
+            The generator(s) you want to call (comma-separated or repeated).
+            The CML file is parsed once and all generators run concurrently on the same model.
+            Use the following values: ${COMPLETION-CANDIDATES}
             """)
-    private ContextMapperGenerator generatorType;
+    private List<ContextMapperGenerator> generatorTypes;
 
     @Option(
         names = {"-o", "--outputDir"},
-        description = "Path to the directory into which you want to generate.",
+        description = "Path to the directory into which you want to generate. Use '-' to write the files to stdout as tar stream.",
         defaultValue = ".")
     private String outputDir;
 
+    @Option(
+        names = {"--archive"},
+        paramLabel = "<file>",
+        description = """
+            Writes all generated files into the given archive (*.zip, *.tar.gz, *.tgz or *.tar) instead of
+            the output directory. The files are streamed into the archive without being written to disk first.
+            """)
+    private String archiveFile;
+
     @Option(
         names = {"-t", "--template"},
+        paramLabel = "<templateFile>",
         description = """
             Path to the Freemarker template you want to use.
             This parameter is only used if you pass 'generic' to the 'generator' (-g) parameter.
+            Can be repeated together with --outputFile (-f) to generate multiple files.
             """
         )
-    private File templateFile;
+    private List<File> templateFiles = new ArrayList<>();
 
     @Option(
         names = {"-f", "--outputFile"},
+        paramLabel = "<outputFileName>",
         description = """
             The name of the file that shall be generated (only used by Freemarker generator,
             as we cannot know the file extension).
+            The n-th output file is generated with the n-th template (-t).
             """
         )
-    private String outputFileName;
+    private List<String> outputFileNames = new ArrayList<>();
 
-    private boolean isInputFileValid(String path) {
-        File inputFile = new File(path);
-        if (!inputFile.exists()) {
-            System.err.println("ERROR: The file '" + path + "' does not exist.");
-            return false;
-        }
-        if (!path.endsWith(".cml")) {
-            System.err.println("ERROR: Please provide a path to a CML (*.cml) file.");
-            return false;
-        }
-        return true;
-    }
+    @Option(
+        names = {"--map-format"},
+        paramLabel = "<format>",
+        split = ",",
+        description = """
+            The format(s) rendered by the 'context-map' generator (comma-separated or repeated; default: all).
+            Use the following values: ${COMPLETION-CANDIDATES}
+            """)
+    private List<ContextMapFormatOption> contextMapFormats;
+
+    @Option(
+        names = {"--map-width"},
+        paramLabel = "<pixels>",
+        description = "The width of the context map images (the height is scaled accordingly).")
+    private Integer contextMapWidth;
+
+    @Option(
+        names = {"--map-height"},
+        paramLabel = "<pixels>",
+        description = "The height of the context map images (the width is scaled accordingly).")
+    private Integer contextMapHeight;
+
+    @Option(
+        names = {"--map-label-spacing"},
+        paramLabel = "<factor>",
+        description = "The spacing of the relationship labels in context maps (1 to 20).")
+    private Integer contextMapLabelSpacing;
+
+    @Option(
+        names = {"--plantuml-diagram"},
+        paramLabel = "<kind>",
+        split = ",",
+        description = """
+            The kind(s) of diagrams generated by the 'plantuml' generator (comma-separated or repeated; default: all).
+            Use the following values: ${COMPLETION-CANDIDATES}
+            """)
+    private List<PlantUMLDiagramKind> plantUMLDiagrams;
+
+    @Option(
+        names = {"--plantuml-include"},
+        paramLabel = "<pattern>",
+        description = """
+            Generates PlantUML diagrams only for the bounded contexts matching the pattern (can be repeated).
+            Use '[context].[aggregate]' to select aggregates, and '*' and '?' as wildcards.
+            """)
+    private List<String> plantUMLIncludes = new ArrayList<>();
+
+    @Option(
+        names = {"--plantuml-exclude"},
+        paramLabel = "<pattern>",
+        description = """
+            Generates no PlantUML diagrams for the bounded contexts (or '[context].[aggregate]') matching the pattern
+            (can be repeated).
+            """)
+    private List<String> plantUMLExcludes = new ArrayList<>();
+
+    @Option(
+        names = {"--context"},
+        paramLabel = "<name>",
+        description = """
+            Generates for the given bounded context only (can be repeated). The model is reduced to the selected
+            bounded contexts (and their neighbours, see --depth) before any generator runs.
+            """)
+    private List<String> contexts = new ArrayList<>();
+
+    @Option(
+        names = {"--subdomain"},
+        paramLabel = "<name>",
+        description = "Generates for the bounded contexts implementing the given subdomain only (can be repeated).")
+    private List<String> subdomains = new ArrayList<>();
+
+    @Option(
+        names = {"--depth"},
+        paramLabel = "<hops>",
+        description = """
+            Adds the bounded contexts reachable by up to the given number of relationships from the bounded contexts
+            selected by --context or --subdomain (default: 0).
+            """)
+    private Integer depth;
+
+    @Option(
+        names = {"--changed-since"},
+        paramLabel = "<revision>",
+        description = """
+            Generates only the CML files which changed since the given git revision (e.g. origin/main or HEAD~1), or which import
+            a changed file (directly or transitively). The changes are taken from the git repository of the working directory.
+            """)
+    private String changedSince;
+
+    @Option(
+        names = {"--threads"},
+        description = """
+            The number of CML files processed in parallel if multiple input files are given
+            (default: number of available processors).
+            """)
+    private Integer threads;
+
+    @Option(
+        names = {"--incremental"},
+        description = """
+            Skips parsing and generation if neither the CML file, the files it imports, the templates,
+            the generator configuration nor the CLI version changed since the last generation into the output directory.
+            """)
+    private boolean incremental;
+
+    @Option(
+        names = {"--watch"},
+        description = """
+            Keeps running and generates again whenever a CML file, one of the files it imports, or a template changes.
+            Only the affected CML files are parsed and generated again.
+            """)
+    private boolean watch;
+
+    @Option(
+        names = {"--cache-dir"},
+        paramLabel = "<dir>",
+        description = """
+            Caches the parsed and linked models in the given directory (created if it does not exist),
+            so that CML files which did not change are not parsed again by later runs.
+            """)
+    private String cacheDir;
+
+    @Option(
+        names = {"--memory-budget"},
+        paramLabel = "<size>",
+        arity = "0..1",
+        fallbackValue = "",
+        description = """
+            Bounds the heap used for many CML files (e.g. 1536m or 2g; default: 75%% of the maximum heap): the models of
+            a file are unloaded as soon as it has been generated, and no further file is started while the heap exceeds the
+            budget. The peak heap usage is reported at the end.
+            """)
+    private String memoryBudgetSize;
+
+    @Option(
+        names = {"--metrics"},
+        paramLabel = "<file>",
+        arity = "0..1",
+        fallbackValue = "",
+        description = """
+            Records the time and memory used by every phase (setup, parse, link, generate, write) and the size of
+            the models, and writes them as JSON into the given file (or to the console if no file is given).
+            """)
+    private String metricsFile;
+
+    private Metrics metrics = Metrics.disabled();
+    private MemoryBudget memoryBudget = MemoryBudget.disabled();
+    // the archive of the generated files, if they are written to stdout (-o -) or into an archive file (--archive)
+    private ArchiveWriter archive;
+    // the stream of the progress messages, which is stderr if the generated files are written to stdout
+    private PrintStream messages = System.out;
+    private ExecutorService generatorExecutor;
+    private ExecutorService inputExecutor;
+    private GeneratorRunner generatorRunner;
+
+    // every worker loads with its own resource set; in watch mode, it is kept, so that unchanged imports are not parsed again
+    private CmlResourceLoaders loaders;
+
+    private final CmlImportScanner importScanner = new CmlImportScanner();
 
     private boolean doesOutputDirExist(String dirPath) {
         if (Objects.isNull(dirPath) || dirPath.trim().isEmpty()) {
@@ -89,39 +274,308 @@ public class GenerateCommand implements Callable<Integer> {
         return true;
     }
 
-    private IGenerator2 getGenerator() {
-        IGenerator2 selectedGenerator = generatorType.getGenerator();
-        if (selectedGenerator instanceof GenericContentGenerator) {
-            if (Objects.isNull(templateFile)) {
+    private void checkGeneratorParameters() {
+        if (Objects.isNull(generatorTypes) || generatorTypes.isEmpty()) {
+            throw new IllegalArgumentException("The --generator (-g) parameter is required.");
+        }
+        getContextMapOptions().check();
+        getModelSlice().check();
+        // parses the name patterns, which fails for invalid patterns
+        getPlantUMLOptions();
+        if (generatorTypes.contains(ContextMapperGenerator.GENERIC)) {
+            if (templateFiles.isEmpty()) {
                 throw new IllegalArgumentException("The --template (-t) parameter is required for the 'generic' generator.");
             }
-            if (Objects.isNull(outputFileName) || outputFileName.trim().isEmpty()) {
+            if (outputFileNames.isEmpty() || outputFileNames.stream().anyMatch(name -> name.trim().isEmpty())) {
                 throw new IllegalArgumentException("The --outputFile (-f) parameter is required for the 'generic' generator.");
             }
-            final GenericContentGenerator genericContentGenerator = (GenericContentGenerator) selectedGenerator;
-            genericContentGenerator.setFreemarkerTemplateFile(templateFile);
-            genericContentGenerator.setTargetFileName(outputFileName);
-            return genericContentGenerator;
+            if (templateFiles.size() != outputFileNames.size()) {
+                throw new IllegalArgumentException("Please pass one --outputFile (-f) parameter per --template (-t) parameter for the 'generic' generator.");
+            }
+        }
+    }
+
+    private boolean doesArchiveDirExist() {
+        Path archiveDir = Path.of(archiveFile).toAbsolutePath().getParent();
+        if (Objects.isNull(archiveDir) || !Files.isDirectory(archiveDir)) {
+            System.err.println("ERROR: The directory of the archive '" + archiveFile + "' does not exist.");
+            return false;
+        }
+        return true;
+    }
+
+    private boolean isStreamOutput() {
+        return STDOUT.equals(outputDir);
+    }
+
+    /**
+     * @return true if the generated files are written into an archive, i.e. to stdout (-o -) or into an archive file
+     */
+    private boolean isArchiveOutput() {
+        return isStreamOutput() || Objects.nonNull(archiveFile);
+    }
+
+    private void checkOutputParameters() {
+        if (inputPaths.contains(CmlInput.STDIN) && (watch || incremental)) {
+            throw new IllegalArgumentException("The --watch and --incremental parameters cannot be used with input from stdin (-i -).");
+        }
+        if (isStreamOutput() && (watch || incremental)) {
+            throw new IllegalArgumentException("The --watch and --incremental parameters cannot be used with output to stdout (-o -).");
         }
-        return selectedGenerator;
+        if (isStreamOutput() && Objects.nonNull(metricsFile) && metricsFile.isEmpty()) {
+            throw new IllegalArgumentException("Please pass a file to --metrics (--metrics=<file>) if the output is written to stdout (-o -).");
+        }
+        if (Objects.nonNull(archiveFile)) {
+            if (isStreamOutput()) {
+                throw new IllegalArgumentException("The --archive parameter cannot be used with output to stdout (-o -).");
+            }
+            if (watch || incremental) {
+                throw new IllegalArgumentException("The --watch and --incremental parameters cannot be used with --archive.");
+            }
+            ArchiveWriter.checkFile(Path.of(archiveFile));
+        }
+    }
+
+    /**
+     * @return the output directory, or the top level of the archive ('') if the output is written into an archive
+     */
+    private String getTargetDir() {
+        return isArchiveOutput() ? "" : this.outputDir;
+    }
+
+    private String getInputOutputDir(CmlInput input) {
+        return isArchiveOutput() ? input.name() : Path.of(this.outputDir, input.name()).toString();
+    }
+
+    /**
+     * @param targetDir the output directory, or the directory within the archive if the output is written into an archive
+     */
+    private String describeOutput(String targetDir) {
+        if (isStreamOutput()) {
+            return targetDir.isEmpty() ? "stdout" : "'" + targetDir + "/' on stdout";
+        }
+        if (Objects.nonNull(archiveFile)) {
+            return targetDir.isEmpty() ? "'" + archiveFile + "'" : "'" + targetDir + "/' in '" + archiveFile + "'";
+        }
+        return "'" + targetDir + "'";
+    }
+
+    private ContextMapOptions getContextMapOptions() {
+        ContextMapOptions defaults = ContextMapOptions.defaults();
+        return new ContextMapOptions(Objects.isNull(contextMapFormats) || contextMapFormats.isEmpty() ? defaults.formats() : contextMapFormats,
+                contextMapWidth, contextMapHeight, contextMapLabelSpacing);
+    }
+
+    /**
+     * @throws IllegalArgumentException if a pattern is not valid
+     */
+    private PlantUMLOptions getPlantUMLOptions() {
+        PlantUMLOptions defaults = PlantUMLOptions.defaults();
+        return new PlantUMLOptions(Objects.isNull(plantUMLDiagrams) || plantUMLDiagrams.isEmpty() ? defaults.diagrams() : plantUMLDiagrams,
+                plantUMLIncludes.stream().map(PlantUMLOptions.NamePattern::parse).toList(),
+                plantUMLExcludes.stream().map(PlantUMLOptions.NamePattern::parse).toList());
+    }
+
+    private ModelSlice getModelSlice() {
+        return new ModelSlice(contexts, subdomains, depth);
     }
 
-    private Integer runCall() {
+    /**
+     * Describes the generator configuration for the manifest of incremental generations. Any option which changes
+     * the generated output must be part of this description.
+     */
+    private String getGeneratorConfiguration() {
+        List<String> generatorDescriptions = new ArrayList<>();
+        for (ContextMapperGenerator generatorType : new LinkedHashSet<>(generatorTypes)) {
+            if (generatorType == ContextMapperGenerator.CONTEXT_MAP) {
+                generatorDescriptions.add(generatorType.getName() + getContextMapOptions().describe());
+                continue;
+            }
+            if (generatorType == ContextMapperGenerator.PLANT_UML) {
+                generatorDescriptions.add(generatorType.getName() + getPlantUMLOptions().describe());
+                continue;
+            }
+            if (generatorType != ContextMapperGenerator.GENERIC) {
+                generatorDescriptions.add(generatorType.getName());
+                continue;
+            }
+            for (int i = 0; i < templateFiles.size(); i++) {
+                generatorDescriptions.add(generatorType.getName() + "[" + templateFiles.get(i).getAbsolutePath() + " -> " + outputFileNames.get(i) + "]");
+            }
+        }
+        return String.join(", ", generatorDescriptions) + getModelSlice().describe();
+    }
+
+    private Integer runCall() throws InterruptedException, IOException {
         // Preconditions check
-        if (!isInputFileValid(inputPath)) {
+        checkOutputParameters();
+        Optional<List<CmlInput>> inputs = new CmlInputResolver(true, Path.of(baseDir)).resolve(inputPaths);
+        if (inputs.isEmpty()) {
             return 1;
         }
-        if (!doesOutputDirExist(this.outputDir)) {
+        if (Objects.nonNull(archiveFile) ? !doesArchiveDirExist() : !isStreamOutput() && !doesOutputDirExist(this.outputDir)) {
             return 1;
         }
+        checkGeneratorParameters();
+        if (Objects.nonNull(metricsFile)) {
+            metrics = Metrics.enabled("generate");
+        }
+        if (Objects.nonNull(memoryBudgetSize)) {
+            memoryBudget = MemoryBudget.enabled(memoryBudgetSize, ImportCache.shared());
+        }
+        metrics.run("setup", StandaloneAPIProvider::get);
+        // the models are unloaded after every file if the memory is bounded, so there is nothing to keep for watch mode
+        loaders = new CmlResourceLoaders(watch && !memoryBudget.isEnabled(),
+                Objects.isNull(cacheDir) ? ModelCache.disabled() : ModelCache.enabled(Path.of(cacheDir), metrics));
+
+        generatorExecutor = Executors.newCachedThreadPool();
+        generatorRunner = new GeneratorRunner(generatorTypes, templateFiles, outputFileNames, getContextMapOptions(),
+                getPlantUMLOptions(), getModelSlice(), generatorExecutor, metrics);
+        inputExecutor = Executors.newFixedThreadPool(Math.min(inputs.get().size(), Objects.isNull(threads) || threads < 1 ? Runtime.getRuntime().availableProcessors() : threads));
+        if (isStreamOutput()) {
+            archive = ArchiveWriter.tar(System.out, false);
+            messages = System.err;
+        } else if (Objects.nonNull(archiveFile)) {
+            archive = ArchiveWriter.create(Path.of(archiveFile));
+        }
+        boolean completed = false;
+        try {
+            // based on all inputs, so that the output of a file is generated into the same directory whether others changed or not
+            boolean intoSubdirectories = inputs.get().size() > 1;
+            List<CmlInput> changedInputs = Objects.isNull(changedSince) ? inputs.get() : getChangedInputs(inputs.get());
+            int exitCode = generate(changedInputs, intoSubdirectories);
+            if (watch) {
+                try (FileWatcher watcher = new FileWatcher(FileWatcher.DEFAULT_DEBOUNCE)) {
+                    watcher.runOnChanges(() -> getFilesToWatch(inputs.get()), changedFiles -> {
+                        List<CmlInput> affectedInputs = getAffectedInputs(inputs.get(), changedFiles);
+                        loaders.reload(changedFiles);
+                        generate(affectedInputs, intoSubdirectories);
+                    });
+                }
+            }
+            completed = true;
+            return exitCode;
+        } finally {
+            generatorExecutor.shutdownNow();
+            inputExecutor.shutdownNow();
+            metrics.close();
+            if (Objects.nonNull(archive) && completed) {
+                archive.close();
+            } else if (Objects.nonNull(archive)) {
+                archive.discard();
+            }
+        }
+    }
+
+    private int generate(List<CmlInput> inputs, boolean intoSubdirectories) throws InterruptedException {
+        metrics.run("templates", generatorRunner::checkTemplates);
+        int exitCode = 0;
+        if (intoSubdirectories) {
+            exitCode = generateAll(inputs);
+        } else if (inputs.isEmpty()) {
+            messages.println("No CML file is affected, nothing has been generated.");
+        } else if (generate(inputs.get(0), getTargetDir())) {
+            messages.println("Generated into " + describeOutput(getTargetDir()) + ".");
+        } else {
+            messages.println("The output in '" + this.outputDir + "' is up to date.");
+        }
+        metrics.count("inputs", inputs.size());
+        if (memoryBudget.isEnabled()) {
+            messages.println(memoryBudget.describe());
+        }
+        if (metrics.isEnabled()) {
+            metrics.write(metricsFile);
+        }
+        return exitCode;
+    }
+
+    private Set<Path> getFilesToWatch(List<CmlInput> inputs) {
+        Set<Path> files = new LinkedHashSet<>();
+        inputs.forEach(input -> files.addAll(importScanner.getFileWithTransitiveImports(input.file())));
+        templateFiles.forEach(templateFile -> files.add(templateFile.toPath().toAbsolutePath().normalize()));
+        return files;
+    }
+
+    private List<CmlInput> getAffectedInputs(List<CmlInput> inputs, Set<Path> changedFiles) {
+        boolean templateChanged = templateFiles.stream()
+                .anyMatch(templateFile -> changedFiles.contains(templateFile.toPath().toAbsolutePath().normalize()));
+        Set<Path> affectedFiles = importScanner.getAffectedFiles(inputs.stream().map(CmlInput::file).toList(), changedFiles);
+        // CML read from stdin is not known to git, and thus always generated
+        return inputs.stream()
+                .filter(input -> templateChanged || input.isStdin() || affectedFiles.contains(input.file().toAbsolutePath().normalize()))
+                .toList();
+    }
+
+    private List<CmlInput> getChangedInputs(List<CmlInput> inputs) throws InterruptedException {
+        List<CmlInput> changedInputs = getAffectedInputs(inputs, GitChanges.getChangedFiles(Path.of(""), changedSince));
+        messages.println(changedInputs.size() + " of " + inputs.size() + " CML files are affected by the changes since '" + changedSince + "'.");
+        return changedInputs;
+    }
+
+    /**
+     * Generates the output of the CML files in parallel; files importing other input files are generated after them
+     * (see {@link ImportGraphScheduler}).
+     */
+    private Integer generateAll(List<CmlInput> inputs) throws InterruptedException {
+        ImportGraphScheduler scheduler = new ImportGraphScheduler(inputs, importScanner);
+        scheduler.getCycles().forEach(cycle -> System.err.println("WARNING: Import cycle: " + ImportGraphScheduler.describeCycle(cycle)));
+        loaders.share(scheduler.getSharedFiles());
+        List<CompletableFuture<Boolean>> results = scheduler.submit(inputExecutor, input -> {
+            String inputOutputDir = getInputOutputDir(input);
+            if (!isArchiveOutput()) {
+                new File(inputOutputDir).mkdirs();
+            }
+            return generate(input, inputOutputDir);
+        });
 
-        StandaloneContextMapperAPI cmAPI = ContextMapperStandaloneSetup.getStandaloneAPI();
-        CMLResource cmlResource = cmAPI.loadCML(inputPath);
-        IGenerator2 generator = getGenerator();
+        int failures = 0;
+        for (int i = 0; i < inputs.size(); i++) {
+            try {
+                if (results.get(i).get()) {
+                    messages.println("Generated '" + inputs.get(i) + "' into " + describeOutput(getInputOutputDir(inputs.get(i))) + ".");
+                } else {
+                    messages.println("Skipped '" + inputs.get(i) + "', the output in '" + getInputOutputDir(inputs.get(i)) + "' is up to date.");
+                }
+            } catch (ExecutionException e) {
+                failures++;
+                System.err.println("ERROR: Generation for '" + inputs.get(i) + "' failed: " + e.getCause().getMessage());
+            }
+        }
+        messages.println("Generated " + (inputs.size() - failures) + " of " + inputs.size() + " CML files into "
+                + describeOutput(getTargetDir()) + ".");
+        return failures == 0 ? 0 : 1;
+    }
 
-        cmAPI.callGenerator(cmlResource, generator, this.outputDir);
-        System.out.println("Generated into '" + this.outputDir + "'.");
-        return 0;
+    /**
+     * @param targetDir the output directory, or the directory within the archive if the output is written into an archive
+     * @return false if the generation has been skipped because the output is up to date (--incremental)
+     */
+    private boolean generate(CmlInput input, String targetDir) throws InterruptedException {
+        memoryBudget.acquire();
+        CmlResourceLoader loader = loaders.get();
+        try {
+            if (Objects.nonNull(archive)) {
+                generatorRunner.generate(loader, input, archive, targetDir);
+                return true;
+            }
+            if (!incremental) {
+                generatorRunner.generate(loader, input, targetDir);
+                return true;
+            }
+
+            GenerationManifest manifest = GenerationManifest.create(input, getGeneratorConfiguration(), templateFiles.stream().map(File::toPath).toList());
+            // the generated files are verified as well, as they may have been changed or deleted since
+            if (manifest.isUpToDate(Path.of(targetDir)) && OutputManifest.isIntact(Path.of(targetDir))) {
+                return false;
+            }
+            // an interrupted generation must not leave a manifest behind that matches the inputs
+            GenerationManifest.delete(Path.of(targetDir));
+            generatorRunner.generate(loader, input, targetDir);
+            manifest.write(Path.of(targetDir));
+            return true;
+        } finally {
+            memoryBudget.release(loader);
+        }
     }
 
     @Override
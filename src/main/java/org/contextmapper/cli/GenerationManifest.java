@@ -0,0 +1,84 @@
+package org.contextmapper.cli;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Records everything the output of a generation depends on: the content hashes of the CML file, of all files it
+ * imports (transitively), and of the templates, as well as the generator configuration and the CLI/CML versions.
+ * Stored in the output directory, it allows to skip parsing and generation if none of these changed.
+ */
+class GenerationManifest {
+
+    static final String FILE_NAME = ".cm-generate.properties";
+
+    private final Map<String, String> entries;
+
+    private GenerationManifest(Map<String, String> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Creates the manifest for the current state of the input files.
+     *
+     * @param input         the CML file (its imports are added automatically)
+     * @param configuration a description of the generator configuration (generators, templates, options)
+     * @param templateFiles additional files the output depends on
+     */
+    static GenerationManifest create(CmlInput input, String configuration, Collection<Path> templateFiles) {
+        Map<String, String> entries = new TreeMap<>();
+        entries.put("versions", VersionProvider.getBuildVersions());
+        entries.put("configuration", configuration);
+        addFile(entries, input.file());
+        new CmlImportScanner().getTransitiveImports(input.file()).forEach(file -> addFile(entries, file));
+        templateFiles.forEach(file -> addFile(entries, file));
+        return new GenerationManifest(entries);
+    }
+
+    /**
+     * @return true if the manifest stored in the given output directory equals this manifest
+     */
+    boolean isUpToDate(Path outputDir) {
+        Path manifestFile = outputDir.resolve(FILE_NAME);
+        if (!Files.isRegularFile(manifestFile)) {
+            return false;
+        }
+        Properties stored = new Properties();
+        try (InputStream in = Files.newInputStream(manifestFile)) {
+            stored.load(in);
+        } catch (IOException e) {
+            return false;
+        }
+        return entries.equals(new TreeMap<>(stored));
+    }
+
+    void write(Path outputDir) {
+        Properties properties = new Properties();
+        properties.putAll(entries);
+        try (OutputStream out = Files.newOutputStream(outputDir.resolve(FILE_NAME))) {
+            properties.store(out, "Context Mapper CLI: inputs of the generated files (used by --incremental)");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static void delete(Path outputDir) {
+        try {
+            Files.deleteIfExists(outputDir.resolve(FILE_NAME));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void addFile(Map<String, String> entries, Path file) {
+        entries.put("file." + file.toAbsolutePath().normalize(), Checksums.sha256(file));
+    }
+}
@@ -0,0 +1,208 @@
+package org.contextmapper.cli;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.contextmapper.contextmap.generator.model.ContextMapFormat;
+import org.contextmapper.dsl.cml.CMLResource;
+import org.contextmapper.dsl.generator.ContextMapGenerator;
+import org.contextmapper.dsl.generator.GenericContentGenerator;
+import org.contextmapper.dsl.generator.PlantUMLGenerator;
+import org.eclipse.xtext.generator.GeneratorContext;
+import org.eclipse.xtext.generator.IFileSystemAccess2;
+import org.eclipse.xtext.generator.IGenerator2;
+
+/**
+ * Calls the generators on CML models. The classes of the CML language are referenced from here instead of from
+ * {@link GenerateCommand}, so that they are not loaded before a model is actually generated (e.g. for --help or
+ * invalid parameters).
+ */
+class GeneratorRunner {
+
+    private final List<ContextMapperGenerator> generatorTypes;
+    private final List<File> templateFiles;
+    private final List<String> outputFileNames;
+    private final ContextMapOptions contextMapOptions;
+    private final PlantUMLOptions plantUMLOptions;
+    private final ModelSlice modelSlice;
+    private final ExecutorService generatorExecutor;
+    private final Metrics metrics;
+    private final TemplateSyntaxChecker templateSyntaxChecker = new TemplateSyntaxChecker();
+
+    /**
+     * @param generatorExecutor the executor on which multiple generators run concurrently
+     */
+    GeneratorRunner(List<ContextMapperGenerator> generatorTypes, List<File> templateFiles, List<String> outputFileNames,
+            ContextMapOptions contextMapOptions, PlantUMLOptions plantUMLOptions, ModelSlice modelSlice, ExecutorService generatorExecutor, Metrics metrics) {
+        this.generatorTypes = generatorTypes;
+        this.templateFiles = templateFiles;
+        this.outputFileNames = outputFileNames;
+        this.contextMapOptions = contextMapOptions;
+        this.plantUMLOptions = plantUMLOptions;
+        this.modelSlice = modelSlice;
+        this.generatorExecutor = generatorExecutor;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Checks the templates of the 'generic' generator, so that syntax errors are reported once before any model is
+     * generated. Templates which did not change since the last call are not checked again.
+     *
+     * @throws IllegalArgumentException if a template cannot be read or is invalid
+     */
+    void checkTemplates() {
+        if (generatorTypes.contains(ContextMapperGenerator.GENERIC)) {
+            templateFiles.forEach(templateSyntaxChecker::check);
+        }
+    }
+
+    /**
+     * Loads the CML file of the input with the given loader, reduces it to the {@link ModelSlice}, calls all generators
+     * on it, and writes the {@link OutputManifest} of the produced files into the target directory.
+     */
+    void generate(CmlResourceLoader loader, CmlInput input, String targetDir) throws InterruptedException {
+        CMLResource cmlResource = load(loader, input);
+        OutputManifest outputManifest = new OutputManifest();
+        callGenerators(cmlResource,
+                fileFilter -> new OutputFileSystemAccess(Path.of(targetDir), outputManifest, metrics, fileFilter));
+        outputManifest.write(Path.of(targetDir));
+    }
+
+    /**
+     * Like {@link #generate(CmlResourceLoader, CmlInput, String)}, but adds the generated files to the archive.
+     *
+     * @param entryDir the directory within the archive into which the files are generated ('' for the top level)
+     */
+    void generate(CmlResourceLoader loader, CmlInput input, ArchiveWriter archive, String entryDir) throws InterruptedException {
+        CMLResource cmlResource = load(loader, input);
+        callGenerators(cmlResource, fileFilter -> new ArchiveFileSystemAccess(archive, entryDir, metrics, fileFilter));
+    }
+
+    private CMLResource load(CmlResourceLoader loader, CmlInput input) {
+        CMLResource cmlResource = metrics.measure("parse", () -> loader.load(input));
+        // EMF resolves cross-references lazily, which modifies the model while it is read. Resolving all proxies
+        // up front leaves a model that the generators only read, so that they can safely share it.
+        metrics.run("link", loader::resolveAll);
+        loader.countModel(cmlResource, metrics);
+        return modelSlice.isAll()
+                ? cmlResource
+                : metrics.measure("slice", () -> ModelSlicer.slice(cmlResource, modelSlice));
+    }
+
+    /**
+     * Creates new generator instances (generators are not reused, since they may hold state while generating).
+     * For the 'generic' generator, one generator per template/output file pair is created; the 'context-map' generator
+     * renders all selected formats one after another (the graph layout of Graphviz is not known to be thread-safe).
+     */
+    List<IGenerator2> getGenerators() {
+        List<IGenerator2> generators = new ArrayList<>();
+        for (ContextMapperGenerator generatorType : new LinkedHashSet<>(generatorTypes)) {
+            if (generatorType == ContextMapperGenerator.CONTEXT_MAP) {
+                generators.add(createContextMapGenerator());
+                continue;
+            }
+            if (generatorType != ContextMapperGenerator.GENERIC) {
+                generators.add(createGenerator(generatorType));
+                continue;
+            }
+            for (int i = 0; i < templateFiles.size(); i++) {
+                final GenericContentGenerator genericContentGenerator = new GenericContentGenerator();
+                genericContentGenerator.setFreemarkerTemplateFile(templateFiles.get(i));
+                genericContentGenerator.setTargetFileName(outputFileNames.get(i));
+                generators.add(genericContentGenerator);
+            }
+        }
+        return generators;
+    }
+
+    /**
+     * Creates the generator implementation for the given generator type. (This mapping is not part of
+     * {@link ContextMapperGenerator}, as picocli loads the enum when parsing the command line.)
+     */
+    static IGenerator2 createGenerator(ContextMapperGenerator generatorType) {
+        return switch (generatorType) {
+            case CONTEXT_MAP -> new ContextMapGenerator();
+            case PLANT_UML -> new PlantUMLGenerator();
+            case GENERIC -> new GenericContentGenerator();
+        };
+    }
+
+    private ContextMapGenerator createContextMapGenerator() {
+        ContextMapGenerator generator = new ContextMapGenerator();
+        generator.setContextMapFormats(new LinkedHashSet<>(contextMapOptions.formats()).stream()
+                .map(format -> switch (format) {
+                    case PNG -> ContextMapFormat.PNG;
+                    case SVG -> ContextMapFormat.SVG;
+                    case GV -> ContextMapFormat.DOT;
+                })
+                .toArray(ContextMapFormat[]::new));
+        if (Objects.nonNull(contextMapOptions.width())) {
+            generator.setWidth(contextMapOptions.width());
+        }
+        if (Objects.nonNull(contextMapOptions.height())) {
+            generator.setHeight(contextMapOptions.height());
+        }
+        if (Objects.nonNull(contextMapOptions.labelSpacing())) {
+            generator.setLabelSpacingFactor(contextMapOptions.labelSpacing());
+        }
+        return generator;
+    }
+
+    /**
+     * @param fileSystemAccessFactory creates the file system access of a generator for the given file filter
+     */
+    private void callGenerators(CMLResource cmlResource, Function<Predicate<String>, IFileSystemAccess2> fileSystemAccessFactory)
+            throws InterruptedException {
+        List<IGenerator2> generators = getGenerators();
+        CMLResource plantUMLResource = generators.stream().anyMatch(PlantUMLGenerator.class::isInstance)
+                ? metrics.measure("filter", () -> PlantUMLModelFilter.filter(cmlResource, plantUMLOptions))
+                : cmlResource;
+        if (generators.size() == 1) {
+            callGenerator(cmlResource, plantUMLResource, generators.get(0), fileSystemAccessFactory);
+            return;
+        }
+
+        List<Future<?>> results = new ArrayList<>();
+        for (IGenerator2 generator : generators) {
+            results.add(generatorExecutor.submit(() -> callGenerator(cmlResource, plantUMLResource, generator, fileSystemAccessFactory)));
+        }
+        for (Future<?> result : results) {
+            try {
+                result.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Calls the generator as the standalone API does, but with the file system access of the output (which only
+     * writes changed files into the output directory, or streams them into an archive).
+     * The 'plantuml' generator is called on the model filtered by {@link PlantUMLModelFilter}; its files are filtered by
+     * name as well, for the diagrams which cannot be skipped by filtering the model.
+     */
+    private void callGenerator(CMLResource cmlResource, CMLResource plantUMLResource, IGenerator2 generator,
+            Function<Predicate<String>, IFileSystemAccess2> fileSystemAccessFactory) {
+        if (generator instanceof PlantUMLGenerator && plantUMLOptions.isSelective()) {
+            String modelName = cmlResource.getURI().trimFileExtension().lastSegment();
+            IFileSystemAccess2 fileSystemAccess = fileSystemAccessFactory
+                    .apply(fileName -> plantUMLOptions.isFileSelected(modelName, fileName));
+            metrics.run("generate", () -> generator.doGenerate(plantUMLResource, fileSystemAccess, new GeneratorContext()));
+            return;
+        }
+        IFileSystemAccess2 fileSystemAccess = fileSystemAccessFactory.apply(fileName -> true);
+        metrics.run("generate", () -> generator.doGenerate(cmlResource, fileSystemAccess, new GeneratorContext()));
+    }
+}
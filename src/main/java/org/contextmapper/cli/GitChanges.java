@@ -0,0 +1,84 @@
+package org.contextmapper.cli;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Determines the files changed since a git revision (--changed-since) by asking the local git: the files which differ
+ * between the revision and the working tree (committed or not, including deleted and renamed files), and the
+ * untracked files which are not ignored.
+ */
+final class GitChanges {
+
+    private GitChanges() {
+    }
+
+    /**
+     * @param workingDir a directory within the git repository
+     * @return the changed files, absolute and normalized
+     * @throws IllegalArgumentException if the changes cannot be determined (e.g. because the revision does not exist)
+     */
+    static Set<Path> getChangedFiles(Path workingDir, String revision) throws InterruptedException {
+        // git would take a revision starting with '-' for an option
+        if (revision.isBlank() || revision.startsWith("-")) {
+            throw new IllegalArgumentException("The revision '" + revision + "' (--changed-since) is not valid.");
+        }
+        // the paths of git are relative to the top level of the repository
+        Path topLevel = workingDir.toAbsolutePath().resolve(git(workingDir, revision, "rev-parse", "--show-cdup").trim()).normalize();
+        Set<Path> changedFiles = new LinkedHashSet<>();
+        // without rename detection, both the old and the new path of a renamed file are listed
+        addFiles(changedFiles, topLevel, git(workingDir, revision, "diff", "--name-only", "--no-renames", "-z", revision, "--"));
+        addFiles(changedFiles, topLevel, git(workingDir, revision, "ls-files", "--others", "--exclude-standard", "--full-name", "-z"));
+        return changedFiles;
+    }
+
+    private static void addFiles(Set<Path> changedFiles, Path topLevel, String output) {
+        for (String fileName : output.split("\0")) {
+            if (!fileName.isEmpty()) {
+                changedFiles.add(topLevel.resolve(fileName).normalize());
+            }
+        }
+    }
+
+    private static String git(Path workingDir, String revision, String... args) throws InterruptedException {
+        List<String> command = new ArrayList<>(List.of("git"));
+        command.addAll(List.of(args));
+        Path errorFile = null;
+        try {
+            // stderr goes to a file, as git would block on a full pipe while its stdout is read
+            errorFile = Files.createTempFile("cm-git-", ".err");
+            Process process = new ProcessBuilder(command)
+                    .directory(workingDir.toAbsolutePath().toFile())
+                    .redirectError(errorFile.toFile())
+                    .start();
+            process.getOutputStream().close();
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            if (process.waitFor() != 0) {
+                String errors = Files.readString(errorFile, StandardCharsets.UTF_8);
+                throw new IllegalArgumentException("The files changed since '" + revision + "' cannot be determined: " + errors.trim());
+            }
+            return output;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("The files changed since '" + revision + "' cannot be determined, as git is not available: "
+                    + e.getMessage(), e);
+        } finally {
+            deleteQuietly(errorFile);
+        }
+    }
+
+    private static void deleteQuietly(Path tempFile) {
+        if (tempFile != null) {
+            try {
+                Files.deleteIfExists(tempFile);
+            } catch (IOException e) {
+                // the temporary file is only left behind
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.contextmapper.cli;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+/**
+ * Tracks the highest heap usage while started. The heap usage is taken before every garbage collection (the heap is
+ * fullest then, e.g. while a large model is parsed or linked), and whenever it is sampled explicitly.
+ */
+class HeapPeakMonitor {
+
+    private final Set<String> heapPoolNames = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP)
+            .map(MemoryPoolMXBean::getName)
+            .collect(Collectors.toSet());
+    private final List<NotificationEmitter> garbageCollectors = ManagementFactory.getGarbageCollectorMXBeans().stream()
+            .filter(NotificationEmitter.class::isInstance)
+            .map(NotificationEmitter.class::cast)
+            .toList();
+    private final NotificationListener garbageCollectionListener = (notification, handback) -> onGarbageCollection(notification);
+    private final Runnable collectionCallback;
+    private boolean started;
+    private long peakHeapBytes;
+
+    HeapPeakMonitor() {
+        this(() -> { });
+    }
+
+    /**
+     * @param collectionCallback called after every garbage collection while started (on a thread of the JVM)
+     */
+    HeapPeakMonitor(Runnable collectionCallback) {
+        this.collectionCallback = collectionCallback;
+    }
+
+    /**
+     * Starts listening to the garbage collections; does nothing if already started.
+     */
+    synchronized void start() {
+        if (!started) {
+            garbageCollectors.forEach(collector -> collector.addNotificationListener(garbageCollectionListener, null, null));
+            started = true;
+        }
+        sample();
+    }
+
+    /**
+     * Stops listening to the garbage collections; the peak is kept.
+     */
+    synchronized void stop() {
+        if (started) {
+            garbageCollectors.forEach(this::removeGarbageCollectionListener);
+            started = false;
+        }
+    }
+
+    /**
+     * @return the currently used heap, which is taken into account for the peak
+     */
+    synchronized long sample() {
+        long usedBytes = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        peakHeapBytes = Math.max(peakHeapBytes, usedBytes);
+        return usedBytes;
+    }
+
+    synchronized long getPeakHeapBytes() {
+        return peakHeapBytes;
+    }
+
+    private void removeGarbageCollectionListener(NotificationEmitter collector) {
+        try {
+            collector.removeNotificationListener(garbageCollectionListener);
+        } catch (ListenerNotFoundException e) {
+            // not registered
+        }
+    }
+
+    private void onGarbageCollection(Notification notification) {
+        if (!notification.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) {
+            return;
+        }
+        Map<String, MemoryUsage> usageBeforeCollection = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData())
+                .getGcInfo().getMemoryUsageBeforeGc();
+        long usedBytes = usageBeforeCollection.entrySet().stream()
+                .filter(pool -> heapPoolNames.contains(pool.getKey()))
+                .mapToLong(pool -> pool.getValue().getUsed())
+                .sum();
+        synchronized (this) {
+            peakHeapBytes = Math.max(peakHeapBytes, usedBytes);
+        }
+        collectionCallback.run();
+    }
+}
@@ -0,0 +1,164 @@
+package org.contextmapper.cli;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.IResourceServiceProvider;
+
+import com.google.common.collect.Iterables;
+
+/**
+ * Caches imported CML files for the whole process (including all daemon requests), so that a file imported by many
+ * inputs is parsed and linked only once. Every imported file is loaded into its own resource set, and the files it
+ * imports are taken from their own entries (so that a file is shared by all entries importing it, too); only the files
+ * importing each other through a cycle are loaded into the same resource set. All references are resolved before the
+ * resources are shared; afterwards they are only read.
+ * <p>
+ * Entries are identified by the path of the imported file and the checksums of the file and of all files it imports,
+ * so that an entry is not used anymore once one of these files changed. The least recently used entries are evicted
+ * if there are more than the maximum number of entries.
+ */
+class ImportCache {
+
+    static final int DEFAULT_MAX_ENTRIES = 128;
+
+    private static final ImportCache SHARED = new ImportCache(DEFAULT_MAX_ENTRIES);
+
+    private final CmlImportScanner importScanner = new CmlImportScanner();
+    private final Map<String, CompletableFuture<List<Resource>>> entries;
+
+    ImportCache(int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<List<Resource>>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    static ImportCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the resources of the given imported file and of all files it imports (transitively), loaded and
+     * resolved. If multiple threads request the same file, it is loaded only once.
+     *
+     * @param modelCache the cache from which the files are loaded instead of parsing them, if possible
+     *
+     * @return the resources (the imported file first, then the files it imports), or an empty list if the file cannot be loaded (e.g. because
+     *         it does not exist); in this case, the importing file reports the import as usual
+     */
+    List<Resource> get(Path importedFile, ModelCache modelCache) {
+        Path file = importedFile.toAbsolutePath().normalize();
+        if (!Files.isRegularFile(file)) {
+            return List.of();
+        }
+        String key = getKey(file);
+        CompletableFuture<List<Resource>> entry;
+        boolean load = false;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry == null) {
+                entry = new CompletableFuture<>();
+                entries.put(key, entry);
+                load = true;
+            }
+        }
+        if (load) {
+            try {
+                entry.complete(load(file, modelCache));
+            } catch (RuntimeException e) {
+                // not cached, so that the file is loaded again (and the error reported) by the importing file
+                synchronized (entries) {
+                    entries.remove(key, entry);
+                }
+                entry.complete(List.of());
+            }
+        }
+        return entry.join();
+    }
+
+    /**
+     * Evicts all entries, so that the imported files can be garbage collected once no loaded file references them.
+     */
+    void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private String getKey(Path file) {
+        StringBuilder key = new StringBuilder(file.toString());
+        importScanner.getFileWithTransitiveImports(file).forEach(path -> key.append('@').append(Checksums.sha256(path)));
+        return key.toString();
+    }
+
+    private List<Resource> load(Path file, ModelCache modelCache) {
+        // make sure the CML language is registered with EMF
+        StandaloneAPIProvider.get();
+        ImportGraph importGraph = ImportGraph.scan(List.of(file), importScanner);
+        // the files imported by the file which import it again; they cannot be loaded by entries of their own first
+        Set<Path> cycle = importGraph.getImportingFiles(List.of(file));
+        ResourceSetImpl resourceSet = new ResourceSetImpl();
+        resourceSet.setURIResourceMap(new HashMap<>());
+        List<Resource> resources = new ArrayList<>();
+        for (Path cycleFile : cycle) {
+            if (Files.isRegularFile(cycleFile)) {
+                resources.add(modelCache.load(resourceSet, cycleFile));
+            }
+        }
+        List<Resource> sharedResources = new ArrayList<>();
+        for (Path cycleFile : cycle) {
+            for (Path importedFile : importGraph.getImports(cycleFile)) {
+                if (cycle.contains(importedFile)) {
+                    continue;
+                }
+                for (Resource resource : get(importedFile, modelCache)) {
+                    if (resourceSet.getURIResourceMap().putIfAbsent(resource.getURI(), resource) == null) {
+                        sharedResources.add(resource);
+                    }
+                }
+            }
+        }
+        EcoreUtil.resolveAll(resourceSet);
+        resources.forEach(modelCache::store);
+        resourceSet.getResources().stream().filter(resource -> !resources.contains(resource)).forEach(resources::add);
+        resources.forEach(ImportCache::computeExportedObjects);
+        resources.addAll(sharedResources);
+        return List.copyOf(resources);
+    }
+
+    /**
+     * Computes the objects a resource exports to the files importing it. Xtext computes them lazily: the resource
+     * description is cached in an adapter of the resource on first access, and the description computes its exported
+     * objects on the first call of getExportedObjects(), neither of which is synchronized. Both happen here, before the
+     * resource is shared (published to the other threads by completing the cache entry); the threads linking against
+     * the resource afterwards only read the cached description. (Iterables.size() iterates the objects unless they have
+     * already been computed into a collection, so that they are computed completely in any case.)
+     */
+    private static void computeExportedObjects(Resource resource) {
+        IResourceServiceProvider serviceProvider = IResourceServiceProvider.Registry.INSTANCE.getResourceServiceProvider(resource.getURI());
+        if (serviceProvider != null) {
+            IResourceDescription description = serviceProvider.getResourceDescriptionManager().getResourceDescription(resource);
+            Iterables.size(description.getExportedObjects());
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package org.contextmapper.cli;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The import graph of CML files and of all files they import (transitively), built by scanning the import statements
+ * of every file once ({@link CmlImportScanner}), without parsing the files with Xtext. All paths are absolute and
+ * normalized.
+ */
+final class ImportGraph {
+
+    private final Map<Path, List<Path>> imports = new LinkedHashMap<>();
+    private final Map<Path, List<Path>> importingFiles = new HashMap<>();
+
+    private ImportGraph() {
+    }
+
+    static ImportGraph scan(Collection<Path> cmlFiles, CmlImportScanner importScanner) {
+        ImportGraph graph = new ImportGraph();
+        Deque<Path> filesToScan = new ArrayDeque<>();
+        cmlFiles.forEach(file -> filesToScan.add(file.toAbsolutePath().normalize()));
+        while (!filesToScan.isEmpty()) {
+            Path file = filesToScan.pop();
+            if (graph.imports.containsKey(file)) {
+                continue;
+            }
+            List<Path> importedFiles = importScanner.getImports(file);
+            graph.imports.put(file, importedFiles);
+            for (Path importedFile : importedFiles) {
+                graph.importingFiles.computeIfAbsent(importedFile, importedPath -> new ArrayList<>()).add(file);
+                filesToScan.add(importedFile);
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * @return the files directly imported by the given file
+     */
+    List<Path> getImports(Path file) {
+        return imports.getOrDefault(file, List.of());
+    }
+
+    /**
+     * @return the files imported by the given file, directly or transitively (without the file itself)
+     */
+    Set<Path> getTransitiveImports(Path file) {
+        return walk(file, imports);
+    }
+
+    /**
+     * @return the given files and all files importing them, directly or transitively
+     */
+    Set<Path> getImportingFiles(Collection<Path> files) {
+        Set<Path> result = new LinkedHashSet<>(files);
+        files.forEach(file -> result.addAll(walk(file, importingFiles)));
+        return result;
+    }
+
+    /**
+     * Finds the import cycles of the graph (its strongly connected components with more than one file, or a file
+     * importing itself).
+     *
+     * @return one cycle per component, as the path of imports from a file back to itself
+     */
+    List<List<Path>> getCycles() {
+        List<List<Path>> cycles = new ArrayList<>();
+        for (Set<Path> component : getStronglyConnectedComponents()) {
+            Path start = component.iterator().next();
+            if (component.size() > 1 || getImports(start).contains(start)) {
+                cycles.add(getCyclePath(start, component));
+            }
+        }
+        return cycles;
+    }
+
+    private static Set<Path> walk(Path start, Map<Path, List<Path>> edges) {
+        Set<Path> visited = new LinkedHashSet<>();
+        Deque<Path> filesToVisit = new ArrayDeque<>(edges.getOrDefault(start, List.of()));
+        while (!filesToVisit.isEmpty()) {
+            Path file = filesToVisit.pop();
+            if (!file.equals(start) && visited.add(file)) {
+                filesToVisit.addAll(edges.getOrDefault(file, List.of()));
+            }
+        }
+        return visited;
+    }
+
+    /**
+     * Tarjan's algorithm, iteratively (import chains may be longer than the stack allows for recursion).
+     */
+    private List<Set<Path>> getStronglyConnectedComponents() {
+        Map<Path, Integer> indexes = new HashMap<>();
+        Map<Path, Integer> lowLinks = new HashMap<>();
+        Deque<Path> stack = new ArrayDeque<>();
+        Set<Path> onStack = new LinkedHashSet<>();
+        List<Set<Path>> components = new ArrayList<>();
+        for (Path root : imports.keySet()) {
+            if (indexes.containsKey(root)) {
+                continue;
+            }
+            // every frame is a file and the index of the next import to visit
+            Deque<Map.Entry<Path, Integer>> frames = new ArrayDeque<>();
+            frames.push(Map.entry(root, 0));
+            indexes.put(root, indexes.size());
+            lowLinks.put(root, indexes.get(root));
+            stack.push(root);
+            onStack.add(root);
+            while (!frames.isEmpty()) {
+                Map.Entry<Path, Integer> frame = frames.pop();
+                Path file = frame.getKey();
+                List<Path> importedFiles = getImports(file);
+                if (frame.getValue() < importedFiles.size()) {
+                    frames.push(Map.entry(file, frame.getValue() + 1));
+                    Path importedFile = importedFiles.get(frame.getValue());
+                    if (!indexes.containsKey(importedFile)) {
+                        indexes.put(importedFile, indexes.size());
+                        lowLinks.put(importedFile, indexes.get(importedFile));
+                        stack.push(importedFile);
+                        onStack.add(importedFile);
+                        frames.push(Map.entry(importedFile, 0));
+                    } else if (onStack.contains(importedFile)) {
+                        lowLinks.put(file, Math.min(lowLinks.get(file), indexes.get(importedFile)));
+                    }
+                    continue;
+                }
+                if (lowLinks.get(file).equals(indexes.get(file))) {
+                    Set<Path> component = new LinkedHashSet<>();
+                    Path member;
+                    do {
+                        member = stack.pop();
+                        onStack.remove(member);
+                        component.add(member);
+                    } while (!member.equals(file));
+                    components.add(component);
+                }
+                if (!frames.isEmpty()) {
+                    Path importingFile = frames.peek().getKey();
+                    lowLinks.put(importingFile, Math.min(lowLinks.get(importingFile), lowLinks.get(file)));
+                }
+            }
+        }
+        return components;
+    }
+
+    /**
+     * @return the shortest path of imports within the component from the file back to itself
+     */
+    private List<Path> getCyclePath(Path start, Set<Path> component) {
+        Map<Path, Path> predecessors = new HashMap<>();
+        Deque<Path> filesToVisit = new ArrayDeque<>(List.of(start));
+        while (!filesToVisit.isEmpty() && !predecessors.containsKey(start)) {
+            Path file = filesToVisit.removeFirst();
+            for (Path importedFile : getImports(file)) {
+                if (component.contains(importedFile) && !predecessors.containsKey(importedFile)) {
+                    predecessors.put(importedFile, file);
+                    filesToVisit.addLast(importedFile);
+                }
+            }
+        }
+        List<Path> path = new ArrayList<>(List.of(start));
+        for (Path file = predecessors.get(start); !file.equals(start); file = predecessors.get(file)) {
+            path.add(0, file);
+        }
+        path.add(0, start);
+        return path;
+    }
+}
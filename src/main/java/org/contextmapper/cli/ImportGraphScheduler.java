@@ -0,0 +1,124 @@
+package org.contextmapper.cli;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * Schedules the processing of CML files along their import graph: a file which imports other input files is started
+ * once they have been processed, so that the files imported by many others are loaded and linked exactly once (into
+ * the {@link ImportCache}, see {@link #getSharedFiles()}) instead of by every worker at the same time. Files which do
+ * not depend on each other are processed in parallel, each as soon as its imports are done.
+ * <p>
+ * The import graph is built by scanning the import statements of the files ({@link ImportGraph}). Files importing
+ * each other through a cycle do not wait for each other; the cycles are reported with {@link #getCycles()}.
+ */
+final class ImportGraphScheduler {
+
+    /**
+     * The processing of a single input, run by a worker.
+     */
+    @FunctionalInterface
+    interface InputTask<T> {
+        T run(CmlInput input) throws Exception;
+    }
+
+    private final List<CmlInput> inputs;
+    private final List<List<Integer>> dependencies = new ArrayList<>();
+    private final Set<Path> sharedFiles = new LinkedHashSet<>();
+    private final List<List<Path>> cycles;
+
+    ImportGraphScheduler(List<CmlInput> inputs, CmlImportScanner importScanner) {
+        this.inputs = List.copyOf(inputs);
+        // CML read from stdin cannot be imported, and is processed right away
+        List<Path> files = inputs.stream().map(input -> input.isStdin() ? null : input.file().toAbsolutePath().normalize()).toList();
+        ImportGraph importGraph = ImportGraph.scan(files.stream().filter(Objects::nonNull).toList(), importScanner);
+        List<Set<Path>> transitiveImports = files.stream()
+                .map(file -> Objects.isNull(file) ? Set.<Path>of() : importGraph.getTransitiveImports(file))
+                .toList();
+        for (int i = 0; i < files.size(); i++) {
+            List<Integer> inputDependencies = new ArrayList<>();
+            for (int j = 0; j < files.size(); j++) {
+                Path importedFile = files.get(j);
+                // files of the same cycle would wait for each other forever
+                if (Objects.nonNull(importedFile) && transitiveImports.get(i).contains(importedFile)
+                        && !transitiveImports.get(j).contains(files.get(i))) {
+                    inputDependencies.add(j);
+                    sharedFiles.add(importedFile);
+                }
+            }
+            dependencies.add(inputDependencies);
+        }
+        this.cycles = importGraph.getCycles();
+    }
+
+    /**
+     * @return the input files (absolute and normalized) which are imported by other inputs; they are processed before
+     *         the files importing them, and their models can be taken from the {@link ImportCache}
+     */
+    Set<Path> getSharedFiles() {
+        return sharedFiles;
+    }
+
+    /**
+     * @return the import cycles found among the inputs and the files they import, each as the path of imports from a
+     *         file back to itself
+     */
+    List<List<Path>> getCycles() {
+        return cycles;
+    }
+
+    static String describeCycle(List<Path> cycle) {
+        Path workingDir = Path.of("").toAbsolutePath();
+        return cycle.stream()
+                .map(file -> file.startsWith(workingDir) ? workingDir.relativize(file) : file)
+                .map(Path::toString)
+                .collect(Collectors.joining(" -> "));
+    }
+
+    /**
+     * Submits the task for all inputs to the executor, each once the inputs it imports have been processed (whether
+     * successfully or not). A task is not started anymore if its result has been cancelled before.
+     *
+     * @return the results, in the order of the inputs
+     */
+    <T> List<CompletableFuture<T>> submit(Executor executor, InputTask<T> task) {
+        List<CompletableFuture<T>> results = new ArrayList<>();
+        inputs.forEach(input -> results.add(new CompletableFuture<>()));
+        for (int i = 0; i < inputs.size(); i++) {
+            CmlInput input = inputs.get(i);
+            CompletableFuture<T> result = results.get(i);
+            CompletableFuture<?>[] importedResults = dependencies.get(i).stream().map(results::get).toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(importedResults).whenComplete((ignored, failure) -> start(executor, task, input, result));
+        }
+        return results;
+    }
+
+    private static <T> void start(Executor executor, InputTask<T> task, CmlInput input, CompletableFuture<T> result) {
+        if (result.isDone()) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                if (result.isDone()) {
+                    return;
+                }
+                try {
+                    result.complete(task.run(input));
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // the executor has been shut down
+            result.completeExceptionally(e);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package org.contextmapper.cli;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Bounds the heap used for processing many CML files in one JVM (--memory-budget). The models of an input are unloaded
+ * as soon as it has been processed, and no further input is started while the used heap exceeds the budget: the
+ * cached imports are evicted first, and the workers then wait until enough memory has been freed by the inputs still
+ * in progress. One input is always processed, so that an input larger than the budget does not block.
+ * <p>
+ * The highest heap usage is taken from the heap usage before every garbage collection while inputs are processed (see
+ * {@link HeapPeakMonitor}), as well as whenever an input starts or finishes. Every garbage collection also lets waiting
+ * inputs check the budget again. If disabled, inputs are only processed.
+ */
+class MemoryBudget {
+
+    private static final MemoryBudget DISABLED = new MemoryBudget(0, null);
+    private static final Pattern SIZE = Pattern.compile("(\\d+)([kmg]?)b?");
+    private static final long POLL_MILLIS = 50;
+    // the budget if no size is given, relative to the maximum heap of the JVM (-Xmx)
+    private static final double DEFAULT_BUDGET_RATIO = 0.75;
+
+    private final long budgetBytes;
+    private final ImportCache importCache;
+    // memory may have been freed by a garbage collection; the waiting inputs check the budget again
+    private final HeapPeakMonitor heapPeakMonitor = new HeapPeakMonitor(this::notifyWaitingInputs);
+    private int runningInputs;
+
+    private MemoryBudget(long budgetBytes, ImportCache importCache) {
+        this.budgetBytes = budgetBytes;
+        this.importCache = importCache;
+    }
+
+    /**
+     * @param size        the budget, in bytes or with a unit (e.g. 1536m or 2g), or an empty string for 75% of the
+     *                    maximum heap
+     * @param importCache the cache evicted if the budget is exceeded
+     * @throws IllegalArgumentException if the size is not valid
+     */
+    static MemoryBudget enabled(String size, ImportCache importCache) {
+        return new MemoryBudget(size.isEmpty() ? (long) (Runtime.getRuntime().maxMemory() * DEFAULT_BUDGET_RATIO) : parseSize(size), importCache);
+    }
+
+    static MemoryBudget disabled() {
+        return DISABLED;
+    }
+
+    boolean isEnabled() {
+        return budgetBytes > 0;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the size is not a positive number of bytes, kilobytes (k), megabytes (m) or
+     *                                  gigabytes (g)
+     */
+    static long parseSize(String size) {
+        Matcher matcher = SIZE.matcher(size.trim().toLowerCase(Locale.ROOT));
+        if (!matcher.matches() || Long.parseLong(matcher.group(1)) == 0) {
+            throw new IllegalArgumentException("The --memory-budget parameter '" + size + "' is not valid; please pass a size such as 1536m or 2g.");
+        }
+        int shift = switch (matcher.group(2)) {
+            case "k" -> 10;
+            case "m" -> 20;
+            case "g" -> 30;
+            default -> 0;
+        };
+        return Long.parseLong(matcher.group(1)) << shift;
+    }
+
+    /**
+     * Waits until the used heap is within the budget (or no other input is in progress) before an input is processed.
+     */
+    synchronized void acquire() throws InterruptedException {
+        if (!isEnabled()) {
+            return;
+        }
+        boolean evicted = false;
+        while (runningInputs > 0 && heapPeakMonitor.sample() > budgetBytes) {
+            if (!evicted) {
+                importCache.clear();
+                evicted = true;
+            }
+            // woken up by garbage collections, and otherwise sampled again after a while
+            wait(POLL_MILLIS);
+        }
+        if (runningInputs++ == 0) {
+            heapPeakMonitor.start();
+        }
+    }
+
+    /**
+     * Unloads the models of the processed input, so that they can be garbage collected even if parts of them are
+     * still referenced, and lets the next input start.
+     */
+    synchronized void release(CmlResourceLoader loader) {
+        if (!isEnabled()) {
+            return;
+        }
+        heapPeakMonitor.sample();
+        loader.unloadAll();
+        if (--runningInputs == 0) {
+            heapPeakMonitor.stop();
+        }
+        notifyAll();
+    }
+
+    long getBudgetBytes() {
+        return budgetBytes;
+    }
+
+    long getPeakHeapBytes() {
+        return heapPeakMonitor.getPeakHeapBytes();
+    }
+
+    /**
+     * Describes the peak heap usage and the budget, e.g. for the console.
+     */
+    String describe() {
+        return String.format(Locale.ROOT, "Peak heap usage: %d MB (memory budget: %d MB).", toMegabytes(getPeakHeapBytes()), toMegabytes(budgetBytes));
+    }
+
+    private synchronized void notifyWaitingInputs() {
+        notifyAll();
+    }
+
+    private static long toMegabytes(long bytes) {
+        return bytes >> 20;
+    }
+}
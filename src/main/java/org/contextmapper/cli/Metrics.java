@@ -0,0 +1,159 @@
+package org.contextmapper.cli;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Records the time and memory allocated by the phases of a command (--metrics), as well as counters describing the size
+ * of the processed models and the peak heap usage of the whole command ({@link HeapPeakMonitor}, until closed). Phases
+ * can be measured concurrently by multiple threads; the values of all executions of a phase are summed up. If
+ * disabled, phases are only executed.
+ */
+class Metrics {
+
+    private static final Metrics DISABLED = new Metrics(null);
+
+    private final String command;
+    private final long startNanos = System.nanoTime();
+    private final Map<String, Phase> phases = new LinkedHashMap<>();
+    private final Map<String, Long> counters = new LinkedHashMap<>();
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    private final HeapPeakMonitor heapPeakMonitor = new HeapPeakMonitor();
+
+    private Metrics(String command) {
+        this.command = command;
+        if (isEnabled()) {
+            heapPeakMonitor.start();
+        }
+    }
+
+    /**
+     * @param command the name of the measured command
+     */
+    static Metrics enabled(String command) {
+        return new Metrics(command);
+    }
+
+    static Metrics disabled() {
+        return DISABLED;
+    }
+
+    boolean isEnabled() {
+        return command != null;
+    }
+
+    <T, E extends Exception> T measure(String phase, PhaseAction<T, E> action) throws E {
+        if (!isEnabled()) {
+            return action.run();
+        }
+        long wallStart = System.nanoTime();
+        long cpuStart = threadBean.getCurrentThreadCpuTime();
+        long allocatedStart = getAllocatedBytes();
+        try {
+            return action.run();
+        } finally {
+            long wallNanos = System.nanoTime() - wallStart;
+            long cpuNanos = threadBean.getCurrentThreadCpuTime() - cpuStart;
+            long allocatedBytes = getAllocatedBytes() - allocatedStart;
+            synchronized (this) {
+                phases.computeIfAbsent(phase, name -> new Phase()).add(wallNanos, cpuNanos, allocatedBytes);
+            }
+        }
+    }
+
+    <E extends Exception> void run(String phase, PhaseRunnable<E> action) throws E {
+        measure(phase, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    synchronized void count(String counter, long value) {
+        if (isEnabled()) {
+            counters.merge(counter, value, Long::sum);
+        }
+    }
+
+    /**
+     * Stops recording the peak heap usage.
+     */
+    void close() {
+        heapPeakMonitor.stop();
+    }
+
+    /**
+     * Writes the metrics as JSON to the given file, or to System.out if the file name is empty.
+     */
+    void write(String metricsFile) {
+        String json = toJson();
+        if (metricsFile.isEmpty()) {
+            System.out.println(json);
+            return;
+        }
+        try {
+            Files.writeString(Path.of(metricsFile), json + System.lineSeparator());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    synchronized String toJson() {
+        List<String> phaseEntries = new ArrayList<>();
+        phases.forEach((name, phase) -> phaseEntries.add(String.format(Locale.ROOT,
+                "    {\"name\": \"%s\", \"count\": %d, \"wallMillis\": %.3f, \"cpuMillis\": %.3f, \"allocatedBytes\": %d}",
+                name, phase.count, phase.wallNanos / 1e6, phase.cpuNanos / 1e6, phase.allocatedBytes)));
+        List<String> counterEntries = new ArrayList<>();
+        counters.forEach((name, value) -> counterEntries.add("    \"" + name + "\": " + value));
+        heapPeakMonitor.sample();
+        counterEntries.add("    \"peakHeapBytes\": " + heapPeakMonitor.getPeakHeapBytes());
+        return "{\n"
+                + "  \"command\": \"" + command + "\",\n"
+                + String.format(Locale.ROOT, "  \"wallMillis\": %.3f,%n", (System.nanoTime() - startNanos) / 1e6)
+                + "  \"phases\": [\n" + String.join(",\n", phaseEntries) + "\n  ],\n"
+                + "  \"counters\": {\n" + String.join(",\n", counterEntries) + "\n  }\n"
+                + "}";
+    }
+
+    private long getAllocatedBytes() {
+        if (threadBean instanceof com.sun.management.ThreadMXBean allocationBean && allocationBean.isThreadAllocatedMemoryEnabled()) {
+            return allocationBean.getCurrentThreadAllocatedBytes();
+        }
+        return 0;
+    }
+
+    @FunctionalInterface
+    interface PhaseAction<T, E extends Exception> {
+
+        T run() throws E;
+    }
+
+    @FunctionalInterface
+    interface PhaseRunnable<E extends Exception> {
+
+        void run() throws E;
+    }
+
+    private static final class Phase {
+
+        private long count;
+        private long wallNanos;
+        private long cpuNanos;
+        private long allocatedBytes;
+
+        void add(long wallNanos, long cpuNanos, long allocatedBytes) {
+            this.count++;
+            this.wallNanos += wallNanos;
+            this.cpuNanos += cpuNanos;
+            this.allocatedBytes += allocatedBytes;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package org.contextmapper.cli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.Resource.Diagnostic;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl;
+
+/**
+ * Stores linked CML models in a cache directory (--cache-dir), in the binary format of EMF, so that unchanged files
+ * are deserialized instead of being parsed and linked by Xtext. A cached model is identified by the checksums of the
+ * file and of all files it imports, and by the versions of the CLI and the CML language.
+ * <p>
+ * Only models without errors are cached; their warnings are stored with the model. References to imported files are
+ * stored as URIs, which are resolved (and the imported files loaded) as usual when the model is linked.
+ */
+class ModelCache {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final String FILE_EXTENSION = ".cmlbin";
+    private static final ModelCache DISABLED = new ModelCache(null, Metrics.disabled());
+
+    private final Path cacheDir;
+    private final Metrics metrics;
+    private final CmlImportScanner importScanner = new CmlImportScanner();
+
+    private ModelCache(Path cacheDir, Metrics metrics) {
+        this.cacheDir = cacheDir;
+        this.metrics = metrics;
+    }
+
+    /**
+     * @param cacheDir the cache directory (created if it does not exist)
+     */
+    static ModelCache enabled(Path cacheDir, Metrics metrics) {
+        try {
+            Files.createDirectories(cacheDir);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("The cache directory '" + cacheDir + "' cannot be created: " + e.getMessage(), e);
+        }
+        return new ModelCache(cacheDir, metrics);
+    }
+
+    static ModelCache disabled() {
+        return DISABLED;
+    }
+
+    boolean isEnabled() {
+        return cacheDir != null;
+    }
+
+    /**
+     * Loads the CML file into the resource set: from the cache if it contains the model of the current file, otherwise
+     * by parsing it. A parsed model is not linked yet; call {@link #store(Resource)} after linking it.
+     */
+    Resource load(ResourceSet resourceSet, Path cmlFile) {
+        URI uri = CmlResourceLoader.toURI(cmlFile);
+        if (!isEnabled()) {
+            return resourceSet.getResource(uri, true);
+        }
+        Resource existing = resourceSet.getResource(uri, false);
+        if (existing != null && existing.isLoaded()) {
+            return existing;
+        }
+        Path cacheFile = getCacheFile(cmlFile);
+        try (InputStream in = Files.newInputStream(cacheFile)) {
+            if (existing != null) {
+                resourceSet.getResources().remove(existing);
+            }
+            Resource resource = read(resourceSet, uri, new DataInputStream(in));
+            metrics.count("modelCacheHits", 1);
+            return resource;
+        } catch (NoSuchFileException e) {
+            // not cached yet
+        } catch (IOException | RuntimeException e) {
+            // a corrupt cache file is deleted, so that the model is stored again once it has been parsed
+            resourceSet.getResources().removeIf(resource -> resource instanceof BinaryResourceImpl && resource.getURI().equals(uri));
+            deleteQuietly(cacheFile);
+        }
+        metrics.count("modelCacheMisses", 1);
+        return resourceSet.getResource(uri, true);
+    }
+
+    /**
+     * Stores the linked model of a parsed CML file, unless it has errors or has been loaded from the cache.
+     */
+    void store(Resource resource) {
+        if (!isEnabled() || resource instanceof BinaryResourceImpl || !resource.getURI().isFile() || !resource.isLoaded()
+                || !resource.getErrors().isEmpty()) {
+            return;
+        }
+        Path cacheFile = getCacheFile(Path.of(resource.getURI().toFileString()));
+        if (Files.exists(cacheFile)) {
+            return;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            write(resource, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        OutputFileSystemAccess.writeAtomically(cacheFile, bytes.toByteArray());
+    }
+
+    private Path getCacheFile(Path cmlFile) {
+        StringBuilder key = new StringBuilder(VersionProvider.getBuildVersions()).append('\n').append(FORMAT_VERSION);
+        for (Path file : importScanner.getFileWithTransitiveImports(cmlFile)) {
+            key.append('\n').append(file).append('=').append(Checksums.sha256(file));
+        }
+        return cacheDir.resolve(Checksums.sha256(key.toString().getBytes(StandardCharsets.UTF_8)) + FILE_EXTENSION);
+    }
+
+    private static void write(Resource resource, DataOutputStream out) throws IOException {
+        out.writeInt(resource.getWarnings().size());
+        for (Diagnostic warning : resource.getWarnings()) {
+            writeString(out, warning.getLocation());
+            out.writeInt(warning.getLine());
+            out.writeInt(warning.getColumn());
+            writeString(out, warning.getMessage());
+        }
+        BinaryResourceImpl.EObjectOutputStream modelOut = new BinaryResourceImpl.EObjectOutputStream(out, Map.of());
+        modelOut.saveResource(resource);
+        modelOut.flush();
+    }
+
+    private static Resource read(ResourceSet resourceSet, URI uri, DataInputStream in) throws IOException {
+        List<Diagnostic> warnings = new ArrayList<>();
+        int warningCount = in.readInt();
+        for (int i = 0; i < warningCount; i++) {
+            warnings.add(new CachedDiagnostic(readString(in), in.readInt(), in.readInt(), readString(in)));
+        }
+        BinaryResourceImpl resource = new BinaryResourceImpl(uri);
+        resourceSet.getResources().add(resource);
+        resource.load(in, Map.of());
+        resource.getWarnings().addAll(warnings);
+        return resource;
+    }
+
+    private static void deleteQuietly(Path cacheFile) {
+        try {
+            Files.deleteIfExists(cacheFile);
+        } catch (IOException e) {
+            // the cache file is only read (and fails) again
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        return length < 0 ? null : new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+
+    private record CachedDiagnostic(String location, int line, int column, String message) implements Diagnostic {
+
+        @Override
+        public String getLocation() {
+            return location;
+        }
+
+        @Override
+        public int getLine() {
+            return line;
+        }
+
+        @Override
+        public int getColumn() {
+            return column;
+        }
+
+        @Override
+        public String getMessage() {
+            return message;
+        }
+    }
+}
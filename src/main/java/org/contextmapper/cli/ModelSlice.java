@@ -0,0 +1,86 @@
+package org.contextmapper.cli;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Selects the part of a model which is generated (--context, --subdomain, --depth): the selected bounded contexts,
+ * the bounded contexts implementing the selected subdomains, and the bounded contexts reachable from these by up to
+ * 'depth' relationships of the context map.
+ *
+ * @param contexts   the names of the selected bounded contexts
+ * @param subdomains the names of the selected subdomains (or domains)
+ * @param depth      the number of relationship hops, or null for none
+ */
+record ModelSlice(List<String> contexts, List<String> subdomains, Integer depth) {
+
+    static ModelSlice all() {
+        return new ModelSlice(List.of(), List.of(), null);
+    }
+
+    /**
+     * @return true if the whole model is generated
+     */
+    boolean isAll() {
+        return contexts.isEmpty() && subdomains.isEmpty();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the options are not valid
+     */
+    void check() {
+        if (Objects.nonNull(depth) && depth < 0) {
+            throw new IllegalArgumentException("The --depth parameter must not be negative.");
+        }
+        if (Objects.nonNull(depth) && isAll()) {
+            throw new IllegalArgumentException("The --depth parameter requires --context or --subdomain.");
+        }
+    }
+
+    /**
+     * Selects the bounded contexts reachable from the given ones within the depth (breadth-first, so that every
+     * bounded context is visited once).
+     *
+     * @param selectedContexts the names of the selected bounded contexts and those implementing the selected subdomains
+     * @param relationships    the pairs of names of the related bounded contexts (in any direction)
+     * @return the names of all bounded contexts of the slice
+     */
+    Set<String> select(Set<String> selectedContexts, List<Map.Entry<String, String>> relationships) {
+        Map<String, Set<String>> neighbours = new HashMap<>();
+        for (Map.Entry<String, String> relationship : relationships) {
+            neighbours.computeIfAbsent(relationship.getKey(), name -> new LinkedHashSet<>()).add(relationship.getValue());
+            neighbours.computeIfAbsent(relationship.getValue(), name -> new LinkedHashSet<>()).add(relationship.getKey());
+        }
+
+        Set<String> slice = new LinkedHashSet<>(selectedContexts);
+        Queue<String> frontier = new ArrayDeque<>(selectedContexts);
+        for (int hop = 0; hop < (Objects.isNull(depth) ? 0 : depth) && !frontier.isEmpty(); hop++) {
+            Queue<String> next = new ArrayDeque<>();
+            for (String context : frontier) {
+                for (String neighbour : neighbours.getOrDefault(context, Set.of())) {
+                    if (slice.add(neighbour)) {
+                        next.add(neighbour);
+                    }
+                }
+            }
+            frontier = next;
+        }
+        return slice;
+    }
+
+    /**
+     * Describes the slice for the manifest of incremental generations (empty if the whole model is generated).
+     */
+    String describe() {
+        if (isAll()) {
+            return "";
+        }
+        return " slice[contexts=" + contexts + " subdomains=" + subdomains + " depth=" + (Objects.isNull(depth) ? 0 : depth) + "]";
+    }
+}
@@ -0,0 +1,139 @@
+package org.contextmapper.cli;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.contextmapper.dsl.cml.CMLResource;
+import org.contextmapper.dsl.contextMappingDSL.BoundedContext;
+import org.contextmapper.dsl.contextMappingDSL.ContextMap;
+import org.contextmapper.dsl.contextMappingDSL.ContextMappingModel;
+import org.contextmapper.dsl.contextMappingDSL.Domain;
+import org.contextmapper.dsl.contextMappingDSL.DomainPart;
+import org.contextmapper.dsl.contextMappingDSL.Relationship;
+import org.contextmapper.dsl.contextMappingDSL.SymmetricRelationship;
+import org.contextmapper.dsl.contextMappingDSL.UpstreamDownstreamRelationship;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+/**
+ * Reduces a model to a {@link ModelSlice} before the generators are called: the bounded contexts outside of the slice,
+ * the relationships to them, and the subdomains no longer implemented by any bounded context are removed. The
+ * generators thus only process the slice.
+ * <p>
+ * The model is copied, since the loaded model is kept by the caches.
+ */
+final class ModelSlicer {
+
+    private ModelSlicer() {
+    }
+
+    /**
+     * @return a resource with the sliced copy of the model, or the given resource if the whole model is selected
+     * @throws IllegalArgumentException if a selected bounded context or subdomain does not exist in the model
+     */
+    static CMLResource slice(CMLResource cmlResource, ModelSlice slice) {
+        ContextMappingModel model = cmlResource.getContextMappingModel();
+        if (Objects.isNull(model) || slice.isAll()) {
+            return cmlResource;
+        }
+        Set<String> selectedContexts = getSelectedContexts(model, cmlResource.getURI().lastSegment(), slice);
+        Set<String> slicedContexts = slice.select(selectedContexts, getRelationships(model));
+
+        ContextMappingModel copy = EcoreUtil.copy(model);
+        copy.getBoundedContexts().removeIf(boundedContext -> !slicedContexts.contains(boundedContext.getName()));
+        ContextMap contextMap = copy.getMap();
+        if (Objects.nonNull(contextMap)) {
+            contextMap.getBoundedContexts().removeIf(boundedContext -> !slicedContexts.contains(boundedContext.getName()));
+            contextMap.getRelationships().removeIf(relationship -> getParticipants(relationship).stream()
+                    .anyMatch(participant -> !slicedContexts.contains(participant.getName())));
+        }
+        removeUnusedDomains(copy, getBoundedContexts(copy), slice);
+        return FilteredModelResource.create(cmlResource, copy);
+    }
+
+    private static Set<String> getSelectedContexts(ContextMappingModel model, String fileName, ModelSlice slice) {
+        Set<String> contextNames = new LinkedHashSet<>();
+        Set<String> domainPartNames = new LinkedHashSet<>();
+        Set<String> selectedContexts = new LinkedHashSet<>();
+        for (BoundedContext boundedContext : getBoundedContexts(model)) {
+            contextNames.add(boundedContext.getName());
+            boundedContext.getImplementedDomainParts().forEach(domainPart -> domainPartNames.add(domainPart.getName()));
+            if (slice.contexts().contains(boundedContext.getName()) || boundedContext.getImplementedDomainParts().stream()
+                    .anyMatch(domainPart -> slice.subdomains().contains(domainPart.getName()))) {
+                selectedContexts.add(boundedContext.getName());
+            }
+        }
+        for (Domain domain : model.getDomains()) {
+            domainPartNames.add(domain.getName());
+            domain.getSubdomains().forEach(subdomain -> domainPartNames.add(subdomain.getName()));
+        }
+
+        for (String context : slice.contexts()) {
+            if (!contextNames.contains(context)) {
+                throw new IllegalArgumentException("The bounded context '" + context + "' (--context) does not exist in '" + fileName + "'.");
+            }
+        }
+        for (String subdomain : slice.subdomains()) {
+            if (!domainPartNames.contains(subdomain)) {
+                throw new IllegalArgumentException("The subdomain '" + subdomain + "' (--subdomain) does not exist in '" + fileName + "'.");
+            }
+        }
+        return selectedContexts;
+    }
+
+    /**
+     * @return the bounded contexts of the model and those of imported files which are part of its context map
+     */
+    private static List<BoundedContext> getBoundedContexts(ContextMappingModel model) {
+        Set<BoundedContext> boundedContexts = new LinkedHashSet<>(model.getBoundedContexts());
+        if (Objects.nonNull(model.getMap())) {
+            boundedContexts.addAll(model.getMap().getBoundedContexts());
+        }
+        return new ArrayList<>(boundedContexts);
+    }
+
+    private static List<Map.Entry<String, String>> getRelationships(ContextMappingModel model) {
+        List<Map.Entry<String, String>> relationships = new ArrayList<>();
+        if (Objects.nonNull(model.getMap())) {
+            for (Relationship relationship : model.getMap().getRelationships()) {
+                List<BoundedContext> participants = getParticipants(relationship);
+                if (participants.size() == 2) {
+                    relationships.add(Map.entry(participants.get(0).getName(), participants.get(1).getName()));
+                }
+            }
+        }
+        return relationships;
+    }
+
+    /**
+     * Removes the subdomains (and domains) which are neither implemented by a bounded context of the slice nor
+     * selected themselves.
+     */
+    private static void removeUnusedDomains(ContextMappingModel model, List<BoundedContext> slicedContexts, ModelSlice slice) {
+        Set<String> usedDomainParts = new LinkedHashSet<>(slice.subdomains());
+        for (BoundedContext boundedContext : slicedContexts) {
+            boundedContext.getImplementedDomainParts().stream().map(DomainPart::getName).forEach(usedDomainParts::add);
+        }
+        for (Domain domain : model.getDomains()) {
+            domain.getSubdomains().removeIf(subdomain -> !usedDomainParts.contains(subdomain.getName()));
+        }
+        model.getDomains().removeIf(domain -> domain.getSubdomains().isEmpty() && !usedDomainParts.contains(domain.getName()));
+    }
+
+    /**
+     * @return the bounded contexts related by the relationship (without unresolved participants)
+     */
+    static List<BoundedContext> getParticipants(Relationship relationship) {
+        if (relationship instanceof UpstreamDownstreamRelationship upstreamDownstream) {
+            return Stream.of(upstreamDownstream.getUpstream(), upstreamDownstream.getDownstream()).filter(Objects::nonNull).toList();
+        }
+        if (relationship instanceof SymmetricRelationship symmetric) {
+            return Stream.of(symmetric.getParticipant1(), symmetric.getParticipant2()).filter(Objects::nonNull).toList();
+        }
+        return List.of();
+    }
+}
@@ -0,0 +1,162 @@
+package org.contextmapper.cli;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.function.Predicate;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtext.generator.AbstractFileSystemAccess2;
+
+/**
+ * Writes the files of the generators into the output directory, and records the time spent writing as 'write' phase
+ * of the metrics. Unlike the file system access of the standalone API, files are only written if their content
+ * changed (so that their modification time is kept otherwise), and they are replaced atomically. Every produced file
+ * is added to the {@link OutputManifest}, whether it has been written or not. Files rejected by the file filter are
+ * skipped (neither written nor added to the manifest).
+ */
+class OutputFileSystemAccess extends AbstractFileSystemAccess2 {
+
+    private final Path outputDir;
+    private final OutputManifest manifest;
+    private final Metrics metrics;
+    private final Predicate<String> fileFilter;
+
+    OutputFileSystemAccess(Path outputDir, OutputManifest manifest, Metrics metrics) {
+        this(outputDir, manifest, metrics, fileName -> true);
+    }
+
+    /**
+     * @param fileFilter decides by the file names passed by the generator which files are written
+     */
+    OutputFileSystemAccess(Path outputDir, OutputManifest manifest, Metrics metrics, Predicate<String> fileFilter) {
+        this.outputDir = outputDir.toAbsolutePath().normalize();
+        this.manifest = manifest;
+        this.metrics = metrics;
+        this.fileFilter = fileFilter;
+    }
+
+    @Override
+    public void generateFile(String fileName, String outputConfigurationName, CharSequence contents) {
+        write(fileName, contents.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void generateFile(String fileName, String outputConfigurationName, InputStream source) {
+        try (source) {
+            write(fileName, source.readAllBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void write(String fileName, byte[] content) {
+        if (!fileFilter.test(fileName)) {
+            metrics.count("filesSkipped", 1);
+            return;
+        }
+        Path file = resolve(fileName);
+        String sha256 = Checksums.sha256(content);
+        manifest.add(outputDir.relativize(file).toString().replace(File.separatorChar, '/'), sha256);
+        boolean written = metrics.measure("write", () -> {
+            if (isUnchanged(file, content.length, sha256)) {
+                return false;
+            }
+            writeAtomically(file, content);
+            return true;
+        });
+        if (written) {
+            metrics.count("filesWritten", 1);
+            metrics.count("bytesWritten", content.length);
+        } else {
+            metrics.count("filesUnchanged", 1);
+        }
+    }
+
+    private static boolean isUnchanged(Path file, long size, String sha256) {
+        try {
+            return Files.isRegularFile(file) && Files.size(file) == size && Checksums.sha256(file).equals(sha256);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Writes the file into a temporary file first and then moves it to the target, so that readers never see a
+     * partially written file.
+     */
+    static void writeAtomically(Path file, byte[] content) {
+        Path tempFile = null;
+        try {
+            Files.createDirectories(file.getParent());
+            tempFile = Files.createTempFile(file.getParent(), "." + file.getFileName(), ".tmp");
+            Files.write(tempFile, content);
+            try {
+                Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deleteQuietly(tempFile);
+        }
+    }
+
+    private static void deleteQuietly(Path tempFile) {
+        if (tempFile != null) {
+            try {
+                Files.deleteIfExists(tempFile);
+            } catch (IOException e) {
+                // the temporary file is only left behind
+            }
+        }
+    }
+
+    @Override
+    public void deleteFile(String fileName, String outputConfigurationName) {
+        try {
+            Files.deleteIfExists(resolve(fileName));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public InputStream readBinaryFile(String fileName, String outputConfigurationName) {
+        try {
+            return Files.newInputStream(resolve(fileName));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public CharSequence readTextFile(String fileName, String outputConfigurationName) {
+        try {
+            return Files.readString(resolve(fileName));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean isFile(String fileName, String outputConfigurationName) {
+        return Files.isRegularFile(resolve(fileName));
+    }
+
+    @Override
+    public URI getURI(String fileName, String outputConfigurationName) {
+        return URI.createFileURI(resolve(fileName).toString());
+    }
+
+    private Path resolve(String fileName) {
+        return outputDir.resolve(fileName).normalize();
+    }
+}
@@ -0,0 +1,74 @@
+package org.contextmapper.cli;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Lists the files produced by a generation together with their SHA-256 checksums. It is written into the output
+ * directory in the format of 'sha256sum', so that downstream tools can check cheaply whether the generated files
+ * changed (or verify them with 'sha256sum -c').
+ */
+class OutputManifest {
+
+    static final String FILE_NAME = ".cm-outputs.sha256";
+
+    // generators may run concurrently and add files to the same manifest
+    private final Map<String, String> files = new ConcurrentSkipListMap<>();
+
+    /**
+     * @param relativePath the path of the file relative to the output directory
+     */
+    void add(String relativePath, String sha256) {
+        files.put(relativePath, sha256);
+    }
+
+    Map<String, String> getFiles() {
+        return files;
+    }
+
+    void write(Path outputDir) {
+        StringBuilder content = new StringBuilder();
+        files.forEach((file, sha256) -> content.append(sha256).append("  ").append(file).append('\n'));
+        OutputFileSystemAccess.writeAtomically(outputDir.resolve(FILE_NAME), content.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the files and checksums of the manifest stored in the given output directory, if there is one
+     */
+    static Optional<Map<String, String>> read(Path outputDir) {
+        Map<String, String> files = new TreeMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(outputDir.resolve(FILE_NAME))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int separator = line.indexOf("  ");
+                if (separator > 0) {
+                    files.put(line.substring(separator + 2), line.substring(0, separator));
+                }
+            }
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Optional.of(files);
+    }
+
+    /**
+     * @return true if the given output directory contains a manifest and all files it lists are unchanged
+     */
+    static boolean isIntact(Path outputDir) {
+        return read(outputDir)
+                .map(files -> files.entrySet().stream()
+                        .allMatch(file -> file.getValue().equals(Checksums.sha256(outputDir.resolve(file.getKey())))))
+                .orElse(false);
+    }
+}
@@ -0,0 +1,28 @@
+package org.contextmapper.cli;
+
+/**
+ * The kinds of diagrams of the 'plantuml' generator which can be selected with --plantuml-diagram.
+ */
+public enum PlantUMLDiagramKind {
+
+    COMPONENT("component"),
+    CLASS("class"),
+    STATE("state"),
+    SUBDOMAIN("subdomain"),
+    OTHER("other");
+
+    private final String name;
+
+    PlantUMLDiagramKind(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return this.name;
+    }
+}
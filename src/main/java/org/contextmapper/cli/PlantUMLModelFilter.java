@@ -0,0 +1,68 @@
+package org.contextmapper.cli;
+
+import java.util.Objects;
+
+import org.contextmapper.dsl.cml.CMLResource;
+import org.contextmapper.dsl.contextMappingDSL.BoundedContext;
+import org.contextmapper.dsl.contextMappingDSL.ContextMap;
+import org.contextmapper.dsl.contextMappingDSL.ContextMappingModel;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+
+/**
+ * Removes the elements from a model which the 'plantuml' generator does not need for the selected diagrams
+ * ({@link PlantUMLOptions}), so that it does not create the diagrams which would not be written anyway. The generator
+ * creates a diagram for every bounded context, aggregate, and subdomain of a model; without these elements, their
+ * diagrams are skipped.
+ * <p>
+ * The model is copied, since the loaded model is shared by all generators (and kept by the caches).
+ */
+final class PlantUMLModelFilter {
+
+    private PlantUMLModelFilter() {
+    }
+
+    /**
+     * @return a resource with the filtered copy of the model, or the given resource if all diagrams are selected
+     */
+    static CMLResource filter(CMLResource cmlResource, PlantUMLOptions options) {
+        ContextMappingModel model = cmlResource.getContextMappingModel();
+        if (Objects.isNull(model) || !options.isSelective()) {
+            return cmlResource;
+        }
+        ContextMappingModel copy = EcoreUtil.copy(model);
+        filterContextMap(copy, options);
+        filterBoundedContexts(copy, options);
+        if (!options.isDiagramSelected(PlantUMLDiagramKind.SUBDOMAIN)) {
+            copy.getDomains().clear();
+        }
+        return FilteredModelResource.create(cmlResource, copy);
+    }
+
+    private static void filterContextMap(ContextMappingModel model, PlantUMLOptions options) {
+        ContextMap contextMap = model.getMap();
+        if (Objects.isNull(contextMap)) {
+            return;
+        }
+        if (!options.isDiagramSelected(PlantUMLDiagramKind.COMPONENT)) {
+            EcoreUtil.remove(contextMap);
+            return;
+        }
+        contextMap.getBoundedContexts().removeIf(boundedContext -> !options.isContextSelected(boundedContext.getName()));
+        contextMap.getRelationships().removeIf(relationship -> ModelSlicer.getParticipants(relationship).stream()
+                .anyMatch(participant -> !options.isContextSelected(participant.getName())));
+    }
+
+    private static void filterBoundedContexts(ContextMappingModel model, PlantUMLOptions options) {
+        if (!options.isDiagramSelected(PlantUMLDiagramKind.CLASS) && !options.isDiagramSelected(PlantUMLDiagramKind.STATE)) {
+            // the component diagram still references the removed bounded contexts, which is all it needs of them (they
+            // are kept in the resource, see FilteredModelResource)
+            model.getBoundedContexts().clear();
+            return;
+        }
+        model.getBoundedContexts().removeIf(boundedContext -> !options.isContextSelected(boundedContext.getName()));
+        for (BoundedContext boundedContext : model.getBoundedContexts()) {
+            boundedContext.getAggregates()
+                    .removeIf(aggregate -> !options.isAggregateSelected(boundedContext.getName(), aggregate.getName()));
+        }
+    }
+}
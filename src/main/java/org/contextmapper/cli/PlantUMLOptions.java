@@ -0,0 +1,156 @@
+package org.contextmapper.cli;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * The options of the 'plantuml' generator, which select the diagram kinds as well as the bounded contexts and
+ * aggregates to generate diagrams for.
+ *
+ * @param diagrams the kinds of diagrams to generate
+ * @param includes the bounded contexts/aggregates to generate diagrams for (all if empty)
+ * @param excludes the bounded contexts/aggregates not to generate diagrams for
+ */
+record PlantUMLOptions(List<PlantUMLDiagramKind> diagrams, List<NamePattern> includes, List<NamePattern> excludes) {
+
+    private static final String STATE_DIAGRAM_SUFFIX = "_StateDiagram.puml";
+
+    static PlantUMLOptions defaults() {
+        return new PlantUMLOptions(List.of(PlantUMLDiagramKind.values()), List.of(), List.of());
+    }
+
+    /**
+     * @return false if all diagrams are generated
+     */
+    boolean isSelective() {
+        return !diagrams.containsAll(List.of(PlantUMLDiagramKind.values())) || !includes.isEmpty() || !excludes.isEmpty();
+    }
+
+    boolean isDiagramSelected(PlantUMLDiagramKind kind) {
+        return diagrams.contains(kind);
+    }
+
+    /**
+     * @return true if diagrams are generated for the bounded context (an include pattern of one of its aggregates
+     *         includes the bounded context as well)
+     */
+    boolean isContextSelected(String context) {
+        return (includes.isEmpty() || includes.stream().anyMatch(pattern -> pattern.matchesContext(context)))
+                && excludes.stream().noneMatch(pattern -> Objects.isNull(pattern.aggregate()) && pattern.matchesContext(context));
+    }
+
+    boolean isAggregateSelected(String context, String aggregate) {
+        return isContextSelected(context)
+                && (includes.isEmpty() || includes.stream().anyMatch(pattern -> pattern.matches(context, aggregate)))
+                && excludes.stream().noneMatch(pattern -> Objects.nonNull(pattern.aggregate()) && pattern.matches(context, aggregate));
+    }
+
+    /**
+     * Decides by the name of a generated file whether it is written. The kind and the bounded context/aggregate of a
+     * diagram are derived from the file names of the generator ('[model]_ContextMap.puml', '[model]_BC_[context].puml',
+     * '[model]_BC_[context]_[aggregate]_StateDiagram.puml', '[model]_SD_[subdomain].puml'); all other files are
+     * diagrams of the kind 'other'. As names may contain underscores, every possible split of a name is tried.
+     *
+     * @param modelName the name of the CML file (without extension)
+     */
+    boolean isFileSelected(String modelName, String fileName) {
+        String name = fileName.substring(fileName.lastIndexOf('/') + 1);
+        if (!name.startsWith(modelName + "_")) {
+            return isDiagramSelected(PlantUMLDiagramKind.OTHER);
+        }
+        name = name.substring(modelName.length() + 1);
+        if (name.equals("ContextMap.puml")) {
+            return isDiagramSelected(PlantUMLDiagramKind.COMPONENT);
+        }
+        if (name.startsWith("SD_")) {
+            return isDiagramSelected(PlantUMLDiagramKind.SUBDOMAIN);
+        }
+        if (!name.startsWith("BC_")) {
+            return isDiagramSelected(PlantUMLDiagramKind.OTHER);
+        }
+        name = name.substring("BC_".length());
+        if (name.endsWith(STATE_DIAGRAM_SUFFIX)) {
+            String contextAndAggregate = name.substring(0, name.length() - STATE_DIAGRAM_SUFFIX.length());
+            return isDiagramSelected(PlantUMLDiagramKind.STATE) && isAnySplitSelected(contextAndAggregate);
+        }
+        String context = name.endsWith(".puml") ? name.substring(0, name.length() - ".puml".length()) : name;
+        return isDiagramSelected(PlantUMLDiagramKind.CLASS) && (isContextSelected(context) || isAnyPrefixSelected(context));
+    }
+
+    private boolean isAnySplitSelected(String contextAndAggregate) {
+        for (int i = contextAndAggregate.indexOf('_'); i > 0; i = contextAndAggregate.indexOf('_', i + 1)) {
+            if (isAggregateSelected(contextAndAggregate.substring(0, i), contextAndAggregate.substring(i + 1))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Further diagrams of a bounded context (such as event flows) are named '[model]_BC_[context]_[name].puml'.
+     */
+    private boolean isAnyPrefixSelected(String name) {
+        for (int i = name.indexOf('_'); i > 0; i = name.indexOf('_', i + 1)) {
+            if (isContextSelected(name.substring(0, i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Describes the options for the manifest of incremental generations.
+     */
+    String describe() {
+        if (!isSelective()) {
+            return "";
+        }
+        return diagrams.stream().map(PlantUMLDiagramKind::getName).distinct().toList()
+                + (includes.isEmpty() ? "" : " include=" + includes.stream().map(NamePattern::text).toList())
+                + (excludes.isEmpty() ? "" : " exclude=" + excludes.stream().map(NamePattern::text).toList());
+    }
+
+    /**
+     * A pattern of bounded context names, or of aggregate names within bounded contexts ('[context].[aggregate]'),
+     * where '*' matches any number of characters and '?' exactly one character.
+     *
+     * @param text      the pattern as given on the command line
+     * @param context   the pattern of the bounded context names
+     * @param aggregate the pattern of the aggregate names, or null if the pattern selects bounded contexts
+     */
+    record NamePattern(String text, Pattern context, Pattern aggregate) {
+
+        /**
+         * @throws IllegalArgumentException if the pattern is not valid
+         */
+        static NamePattern parse(String text) {
+            String[] parts = text.split("\\.", -1);
+            if (parts.length > 2 || parts[0].isBlank() || (parts.length == 2 && parts[1].isBlank())) {
+                throw new IllegalArgumentException("The pattern '" + text + "' is not valid; please pass a bounded context name "
+                        + "or '[context].[aggregate]' (with '*' and '?' as wildcards).");
+            }
+            return new NamePattern(text, toRegex(parts[0]), parts.length == 2 ? toRegex(parts[1]) : null);
+        }
+
+        boolean matchesContext(String name) {
+            return context.matcher(name).matches();
+        }
+
+        boolean matches(String contextName, String aggregateName) {
+            return matchesContext(contextName) && (Objects.isNull(aggregate) || aggregate.matcher(aggregateName).matches());
+        }
+
+        private static Pattern toRegex(String glob) {
+            StringBuilder regex = new StringBuilder();
+            for (String literal : glob.split("(?=[*?])|(?<=[*?])")) {
+                regex.append(switch (literal) {
+                    case "*" -> ".*";
+                    case "?" -> ".";
+                    default -> Pattern.quote(literal);
+                });
+            }
+            return Pattern.compile(regex.toString());
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package org.contextmapper.cli;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import picocli.CommandLine;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+@Command(
+    name = "serve",
+    description = """
+        Starts a daemon that keeps the CML parser warm. While it is running, the 'validate' and 'generate' commands
+        called in the same working directory are executed by the daemon.
+        """,
+    mixinStandardHelpOptions = true)
+public class ServeCommand implements Callable<Integer> {
+
+    @Option(
+        names = {"--socket"},
+        description = """
+            Path to the Unix domain socket the daemon listens on
+            (default: derived from the working directory, or the CM_DAEMON_SOCKET environment variable).
+            """)
+    private Path socketPath;
+
+    @Option(
+        names = {"--idle-timeout"},
+        description = "Minutes without requests after which the daemon stops itself (default: ${DEFAULT-VALUE}).",
+        defaultValue = "180")
+    private long idleTimeoutMinutes;
+
+    @Option(
+        names = {"--stop"},
+        description = "Stops the daemon running for the working directory (or the given --socket).")
+    private boolean stop;
+
+    private volatile ServerSocketChannel server;
+    private volatile long lastRequestMillis;
+
+    @Override
+    public Integer call() throws Exception {
+        Path socket = Objects.requireNonNullElseGet(socketPath, DaemonClient::getDefaultSocketPath);
+        DaemonClient client = new DaemonClient(socket);
+        if (stop) {
+            if (!client.stop()) {
+                System.err.println("ERROR: No Context Mapper daemon is running on '" + socket + "'.");
+                return 1;
+            }
+            System.out.println("Stopped the Context Mapper daemon running on '" + socket + "'.");
+            return 0;
+        }
+        if (client.isRunning()) {
+            System.err.println("ERROR: A Context Mapper daemon is already running on '" + socket + "'.");
+            return 1;
+        }
+        // another user could have created the default directory in the temporary directory first
+        Path socketDirectory = socket.toAbsolutePath().getParent();
+        if (socketDirectory.equals(DaemonClient.getDefaultSocketDirectory().toAbsolutePath()) && Files.exists(socketDirectory)
+                && !DaemonClient.isOwnedByCurrentUser(socketDirectory)) {
+            System.err.println("ERROR: The directory '" + socketDirectory + "' of the daemon socket does not belong to the current user.");
+            return 1;
+        }
+        serve(socket);
+        return 0;
+    }
+
+    void serve(Path socket) throws IOException {
+        // warm up the Xtext/EMF setup before the first request arrives
+        StandaloneAPIProvider.get();
+
+        createSocketDirectory(socket.toAbsolutePath().getParent());
+        Files.deleteIfExists(socket);
+        ScheduledExecutorService idleWatchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cm-daemon-idle-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (ServerSocketChannel serverChannel = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            server = serverChannel;
+            serverChannel.bind(UnixDomainSocketAddress.of(socket));
+            restrictToOwner(socket);
+            lastRequestMillis = System.currentTimeMillis();
+            idleWatchdog.scheduleAtFixedRate(this::stopIfIdle, 1, 1, TimeUnit.MINUTES);
+            System.out.println("Context Mapper daemon listening on '" + socket + "'. Stop it with 'cm serve --stop'.");
+
+            while (serverChannel.isOpen()) {
+                try (SocketChannel channel = serverChannel.accept()) {
+                    lastRequestMillis = System.currentTimeMillis();
+                    handle(channel);
+                } catch (AsynchronousCloseException e) {
+                    break;
+                } catch (IOException e) {
+                    System.err.println("WARNING: Daemon request failed: " + e.getMessage());
+                }
+            }
+        } finally {
+            idleWatchdog.shutdownNow();
+            Files.deleteIfExists(socket);
+        }
+    }
+
+    void shutdown() {
+        try {
+            if (Objects.nonNull(server)) {
+                server.close();
+            }
+        } catch (IOException e) {
+            // the daemon terminates anyway
+        }
+    }
+
+    private void stopIfIdle() {
+        if (System.currentTimeMillis() - lastRequestMillis > TimeUnit.MINUTES.toMillis(idleTimeoutMinutes)) {
+            System.out.println("Stopping the Context Mapper daemon after " + idleTimeoutMinutes + " idle minutes.");
+            shutdown();
+        }
+    }
+
+    /**
+     * Requests are handled one after another: the commands print to System.out/System.err, which are redirected to
+     * the client for the duration of a request.
+     */
+    private void handle(SocketChannel channel) throws IOException {
+        DataInputStream request = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+        DataOutputStream response = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+        String requestType = request.readUTF();
+        switch (requestType) {
+            case DaemonClient.REQUEST_PING -> writeExitCode(response, 0);
+            case DaemonClient.REQUEST_STOP -> {
+                writeExitCode(response, 0);
+                shutdown();
+            }
+            case DaemonClient.REQUEST_RUN -> {
+                String versions = request.readUTF();
+                String workingDirectory = request.readUTF();
+                String[] args = new String[request.readInt()];
+                for (int i = 0; i < args.length; i++) {
+                    args[i] = request.readUTF();
+                }
+                // a client of another version (e.g. after an upgrade) must not get the results of this version, and
+                // relative paths would be resolved differently; let the client run the command itself
+                if (!versions.equals(VersionProvider.getBuildVersions()) || !workingDirectory.equals(DaemonClient.getWorkingDirectory())) {
+                    response.writeByte(DaemonClient.FRAME_REJECTED);
+                    response.flush();
+                    return;
+                }
+                writeExitCode(response, run(args, response));
+            }
+            default -> throw new IOException("Unknown request type '" + requestType + "'.");
+        }
+    }
+
+    private int run(String[] args, DataOutputStream response) {
+        PrintStream originalOut = System.out;
+        PrintStream originalErr = System.err;
+        PrintStream out = new PrintStream(new BufferedOutputStream(new FrameOutputStream(response, DaemonClient.FRAME_OUT)), true, StandardCharsets.UTF_8);
+        PrintStream err = new PrintStream(new BufferedOutputStream(new FrameOutputStream(response, DaemonClient.FRAME_ERR)), true, StandardCharsets.UTF_8);
+        System.setOut(out);
+        System.setErr(err);
+        try {
+            return new CommandLine(new ContextMapperCLI()).execute(args);
+        } finally {
+            out.flush();
+            err.flush();
+            System.setOut(originalOut);
+            System.setErr(originalErr);
+        }
+    }
+
+    private void writeExitCode(DataOutputStream response, int exitCode) throws IOException {
+        response.writeByte(DaemonClient.FRAME_EXIT);
+        response.writeInt(exitCode);
+        response.flush();
+    }
+
+    /**
+     * Creates the directory of the socket, accessible only by the user, if it does not exist yet.
+     */
+    private void createSocketDirectory(Path directory) throws IOException {
+        if (Files.notExists(directory)) {
+            try {
+                Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+            } catch (UnsupportedOperationException e) {
+                // not a POSIX file system; the directory gets the default permissions
+                Files.createDirectories(directory);
+            }
+        }
+    }
+
+    private void restrictToOwner(Path socket) {
+        try {
+            Files.setPosixFilePermissions(socket, PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException | IOException e) {
+            // not a POSIX file system; the socket keeps the default permissions
+        }
+    }
+
+    /**
+     * Writes everything as frames of the given type to the response, so that stdout and stderr of a command can be
+     * multiplexed over one connection.
+     */
+    private static class FrameOutputStream extends OutputStream {
+
+        private final DataOutputStream response;
+        private final byte frameType;
+
+        FrameOutputStream(DataOutputStream response, byte frameType) {
+            this.response = response;
+            this.frameType = frameType;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            synchronized (response) {
+                response.writeByte(frameType);
+                response.writeInt(length);
+                response.write(bytes, offset, length);
+                response.flush();
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package org.contextmapper.cli;
+
+import org.contextmapper.dsl.standalone.ContextMapperStandaloneSetup;
+import org.contextmapper.dsl.standalone.StandaloneContextMapperAPI;
+
+/**
+ * Provides the standalone API of Context Mapper. The Xtext/EMF setup behind it is expensive, so it is done only once
+ * per process (on first use) and shared by all commands, worker threads, and daemon requests.
+ */
+final class StandaloneAPIProvider {
+
+    private StandaloneAPIProvider() {
+    }
+
+    static StandaloneContextMapperAPI get() {
+        return Holder.API;
+    }
+
+    private static final class Holder {
+        private static final StandaloneContextMapperAPI API = ContextMapperStandaloneSetup.getStandaloneAPI();
+    }
+}
@@ -0,0 +1,99 @@
+package org.contextmapper.cli;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+@Command(
+    name = "synth",
+    description = """
+        Generates a synthetic CML model for scale and performance tests.
+        The same parameters (including the seed) always generate the same model.
+        """,
+    mixinStandardHelpOptions = true)
+public class SynthCommand implements Callable<Integer> {
+
+    @Option(
+        names = {"-o", "--outputDir"},
+        description = "Path to the directory into which you want to generate the model.",
+        defaultValue = ".")
+    private String outputDir;
+
+    @Option(
+        names = {"-n", "--name"},
+        description = "The name of the main CML file (without extension; default: ${DEFAULT-VALUE}).",
+        defaultValue = "synthetic")
+    private String name;
+
+    @Option(
+        names = {"--seed"},
+        description = "The seed for the randomly chosen relationships (default: ${DEFAULT-VALUE}).",
+        defaultValue = "1")
+    private long seed;
+
+    @Option(
+        names = {"--contexts"},
+        description = "The number of bounded contexts (default: ${DEFAULT-VALUE}).",
+        defaultValue = "100")
+    private int boundedContexts;
+
+    @Option(
+        names = {"--relationships"},
+        description = "The number of relationships per bounded context, each to a random other bounded context (default: ${DEFAULT-VALUE}).",
+        defaultValue = "2")
+    private int relationshipsPerContext;
+
+    @Option(
+        names = {"--aggregates"},
+        description = "The number of aggregates per bounded context (default: ${DEFAULT-VALUE}).",
+        defaultValue = "2")
+    private int aggregatesPerContext;
+
+    @Option(
+        names = {"--entities"},
+        description = "The number of entities per aggregate, each referencing the next one (default: ${DEFAULT-VALUE}).",
+        defaultValue = "3")
+    private int entitiesPerAggregate;
+
+    @Option(
+        names = {"--files"},
+        description = "The number of files the bounded contexts are distributed to; the main file imports the others (default: ${DEFAULT-VALUE}).",
+        defaultValue = "1")
+    private int files;
+
+    @Override
+    public Integer call() throws Exception {
+        File dir = new File(outputDir);
+        if (!dir.isDirectory()) {
+            System.err.println("ERROR: Output directory '" + outputDir + "' does not exist.");
+            return 1;
+        }
+        checkSizeParameters();
+
+        SyntheticModelGenerator generator = new SyntheticModelGenerator(seed, boundedContexts, relationshipsPerContext,
+                aggregatesPerContext, entitiesPerAggregate, files);
+        List<Path> writtenFiles = generator.write(dir.toPath(), name);
+        System.out.println("Generated a model with " + boundedContexts + " bounded contexts and " + generator.getRelationshipCount()
+                + " relationships into '" + writtenFiles.get(0) + "'" + (files > 1 ? " (and " + (files - 1) + " imported files)." : "."));
+        return 0;
+    }
+
+    private void checkSizeParameters() {
+        if (boundedContexts < 1) {
+            throw new IllegalArgumentException("The --contexts parameter must be at least 1.");
+        }
+        if (relationshipsPerContext < 0 || aggregatesPerContext < 0) {
+            throw new IllegalArgumentException("The --relationships and --aggregates parameters must not be negative.");
+        }
+        if (entitiesPerAggregate < 1) {
+            throw new IllegalArgumentException("The --entities parameter must be at least 1.");
+        }
+        if (files < 1 || files > boundedContexts) {
+            throw new IllegalArgumentException("The --files parameter must be between 1 and the number of bounded contexts.");
+        }
+    }
+}
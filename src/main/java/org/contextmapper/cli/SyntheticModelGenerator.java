@@ -0,0 +1,215 @@
+package org.contextmapper.cli;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Writes synthetic CML models for scale and performance tests. The models are determined by the seed and the size
+ * parameters only, so that the same parameters always produce the same files.
+ * <p>
+ * A model consists of a main file with the context map and, if the bounded contexts are split into multiple files,
+ * one imported file per part. Every bounded context contains aggregates, each with a chain of entities referencing the
+ * next one (the root entity is the start of the chain).
+ */
+class SyntheticModelGenerator {
+
+    private static final String[] RELATIONSHIP_TYPES = {
+        "[U]->[D]",
+        "[U,OHS,PL]->[D,ACL]",
+        "[U,S]->[D,C]",
+        "[SK]<->[SK]",
+        "[P]<->[P]"
+    };
+
+    private final long seed;
+    private final int boundedContexts;
+    private final int relationshipsPerContext;
+    private final int aggregatesPerContext;
+    private final int entitiesPerAggregate;
+    private final int files;
+    private List<int[]> relationships;
+
+    /**
+     * @param seed                    the seed of the random relationships
+     * @param boundedContexts         the number of bounded contexts
+     * @param relationshipsPerContext the number of relationships created per bounded context (each to a random other
+     *                                bounded context; limited by the number of bounded contexts it is not related to yet)
+     * @param aggregatesPerContext    the number of aggregates in every bounded context
+     * @param entitiesPerAggregate    the number of entities in every aggregate (the depth of the reference chain)
+     * @param files                   the number of files the bounded contexts are distributed to
+     */
+    SyntheticModelGenerator(long seed, int boundedContexts, int relationshipsPerContext, int aggregatesPerContext,
+            int entitiesPerAggregate, int files) {
+        this.seed = seed;
+        this.boundedContexts = boundedContexts;
+        this.relationshipsPerContext = relationshipsPerContext;
+        this.aggregatesPerContext = aggregatesPerContext;
+        this.entitiesPerAggregate = entitiesPerAggregate;
+        this.files = files;
+    }
+
+    /**
+     * Writes the model into the given directory.
+     *
+     * @param name the name of the main file (without the *.cml extension); imported files are named '[name]-[n].cml'
+     * @return the written files, the main file first
+     */
+    List<Path> write(Path dir, String name) {
+        List<Path> writtenFiles = new ArrayList<>();
+        Path mainFile = dir.resolve(name + ".cml");
+        writtenFiles.add(mainFile);
+        try (BufferedWriter writer = Files.newBufferedWriter(mainFile)) {
+            for (int part = 1; part < files; part++) {
+                String partFileName = name + "-" + part + ".cml";
+                writer.write("import \"./" + partFileName + "\"\n");
+                writtenFiles.add(dir.resolve(partFileName));
+            }
+            writeContextMap(writer);
+            writeBoundedContexts(writer, 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (int part = 1; part < files; part++) {
+            try (BufferedWriter writer = Files.newBufferedWriter(writtenFiles.get(part))) {
+                writeBoundedContexts(writer, part);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return writtenFiles;
+    }
+
+    /**
+     * @return the number of relationships in the context map (fewer than the bounded contexts times the requested
+     *         relationships per bounded context if there are not enough pairs of bounded contexts)
+     */
+    int getRelationshipCount() {
+        return getRelationships().size();
+    }
+
+    private void writeContextMap(Writer writer) throws IOException {
+        writer.write("\nContextMap SyntheticMap {\n");
+        for (int i = 0; i < boundedContexts; i++) {
+            writer.write("\tcontains " + getContextName(i) + "\n");
+        }
+        writer.write("\n");
+        for (int[] relationship : getRelationships()) {
+            writer.write("\t" + getContextName(relationship[0]) + " " + RELATIONSHIP_TYPES[relationship[2]] + " "
+                    + getContextName(relationship[1]) + "\n");
+        }
+        writer.write("}\n");
+    }
+
+    /**
+     * Creates the relationships as triples of the two bounded contexts and the relationship type (once, as the model
+     * may be written and counted multiple times). Every pair of bounded contexts is related at most once: every bounded
+     * context gets the requested number of relationships to random other bounded contexts, or as many as there are
+     * bounded contexts it is not related to yet.
+     */
+    private List<int[]> getRelationships() {
+        if (relationships != null) {
+            return relationships;
+        }
+        Random random = new Random(seed);
+        relationships = new ArrayList<>();
+        Set<Long> relatedPairs = new HashSet<>();
+        int[] relatedContexts = new int[boundedContexts];
+        for (int context = 0; context < boundedContexts; context++) {
+            int unrelatedContexts = boundedContexts - 1 - relatedContexts[context];
+            int count = Math.min(relationshipsPerContext, unrelatedContexts);
+            List<Integer> others = count * 2 <= unrelatedContexts && unrelatedContexts * 2 >= boundedContexts
+                    ? pickSparse(context, count, random, relatedPairs)
+                    : pickDense(context, count, random, relatedPairs);
+            for (int other : others) {
+                relatedPairs.add(getPair(context, other));
+                relatedContexts[context]++;
+                relatedContexts[other]++;
+                relationships.add(new int[] { context, other, random.nextInt(RELATIONSHIP_TYPES.length) });
+            }
+        }
+        return relationships;
+    }
+
+    /**
+     * Picks random other bounded contexts until enough unrelated ones are found; used if at least half of all bounded
+     * contexts are unrelated to the context and at most half of them are picked, so that at least every fourth attempt
+     * succeeds.
+     */
+    private List<Integer> pickSparse(int context, int count, Random random, Set<Long> relatedPairs) {
+        Set<Integer> others = new LinkedHashSet<>();
+        while (others.size() < count) {
+            int other = random.nextInt(boundedContexts);
+            if (other != context && !relatedPairs.contains(getPair(context, other))) {
+                others.add(other);
+            }
+        }
+        return new ArrayList<>(others);
+    }
+
+    /**
+     * Picks random bounded contexts from all bounded contexts unrelated to the context (a partial shuffle), for models
+     * in which most pairs are related already or most of the remaining ones are requested.
+     */
+    private List<Integer> pickDense(int context, int count, Random random, Set<Long> relatedPairs) {
+        List<Integer> candidates = new ArrayList<>();
+        for (int other = 0; other < boundedContexts; other++) {
+            if (other != context && !relatedPairs.contains(getPair(context, other))) {
+                candidates.add(other);
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            Collections.swap(candidates, i, i + random.nextInt(candidates.size() - i));
+        }
+        return candidates.subList(0, count);
+    }
+
+    private long getPair(int context, int other) {
+        return (long) Math.min(context, other) * boundedContexts + Math.max(context, other);
+    }
+
+    private void writeBoundedContexts(Writer writer, int part) throws IOException {
+        for (int context = 0; context < boundedContexts; context++) {
+            if (context % files == part) {
+                writeBoundedContext(writer, context);
+            }
+        }
+    }
+
+    private void writeBoundedContext(Writer writer, int context) throws IOException {
+        String contextName = getContextName(context);
+        writer.write("\nBoundedContext " + contextName + " {\n");
+        for (int aggregate = 0; aggregate < aggregatesPerContext; aggregate++) {
+            String aggregateName = contextName + "Aggregate" + aggregate;
+            writer.write("\tAggregate " + aggregateName + " {\n");
+            for (int entity = 0; entity < entitiesPerAggregate; entity++) {
+                writer.write("\t\tEntity " + aggregateName + "Entity" + entity + " {\n");
+                if (entity == 0) {
+                    writer.write("\t\t\taggregateRoot\n");
+                }
+                writer.write("\t\t\tString name\n");
+                writer.write("\t\t\tint amount\n");
+                if (entity + 1 < entitiesPerAggregate) {
+                    writer.write("\t\t\t- " + aggregateName + "Entity" + (entity + 1) + " child\n");
+                }
+                writer.write("\t\t}\n");
+            }
+            writer.write("\t}\n");
+        }
+        writer.write("}\n");
+    }
+
+    private static String getContextName(int context) {
+        return "Context" + context;
+    }
+}
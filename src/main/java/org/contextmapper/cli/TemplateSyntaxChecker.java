@@ -0,0 +1,67 @@
+package org.contextmapper.cli;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import freemarker.template.Configuration;
+
+/**
+ * Checks the syntax of Freemarker templates, once per process and template. Templates are identified by their path and
+ * the checksum of their content, so that a template is only checked again (e.g. in watch mode) if it changed.
+ * <p>
+ * The 'generic' generator of the CML language only accepts template files and compiles them itself for every model,
+ * with a data model of its own, so the parsed templates cannot be reused for the generation. They are checked once
+ * before any model is loaded, so that syntax errors are reported once instead of once per model.
+ */
+class TemplateSyntaxChecker {
+
+    private final Set<String> checkedTemplates = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @throws IllegalArgumentException if the template cannot be read or has syntax errors
+     */
+    void check(File templateFile) {
+        Path path = templateFile.toPath().toAbsolutePath().normalize();
+        byte[] content;
+        try {
+            content = Files.readAllBytes(path);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("The template '" + templateFile + "' cannot be read: " + e.getMessage(), e);
+        }
+        String key = path + "@" + Checksums.sha256(content);
+        if (!checkedTemplates.contains(key)) {
+            parse(templateFile, path);
+            checkedTemplates.add(key);
+        }
+    }
+
+    int size() {
+        return checkedTemplates.size();
+    }
+
+    private static void parse(File templateFile, Path path) {
+        try {
+            createGeneratorConfiguration(path).getTemplate(path.getFileName().toString());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("The template '" + templateFile + "' is invalid: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Creates a configuration like the one the 'generic' generator (FreemarkerTextGenerator of the CML language)
+     * creates for the template: the Freemarker version of the classpath (shared with the generator, as both use the
+     * same Freemarker library), the same encoding, and templates loaded from the directory of the template. These
+     * determine how a template is parsed, so that the check agrees with the generation.
+     */
+    private static Configuration createGeneratorConfiguration(Path templatePath) throws IOException {
+        Configuration configuration = new Configuration(Configuration.getVersion());
+        configuration.setDirectoryForTemplateLoading(templatePath.getParent().toFile());
+        configuration.setDefaultEncoding(StandardCharsets.UTF_8.name());
+        return configuration;
+    }
+}
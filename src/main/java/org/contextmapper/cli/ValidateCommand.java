@@ -1,12 +1,31 @@
 package org.contextmapper.cli;
 
-import java.io.File;
+import java.nio.file.Path;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.contextmapper.dsl.cml.CMLResource;
-import org.contextmapper.dsl.standalone.ContextMapperStandaloneSetup;
-import org.contextmapper.dsl.standalone.StandaloneContextMapperAPI;
 import org.eclipse.emf.ecore.resource.Resource.Diagnostic;
+import org.eclipse.xtext.diagnostics.Severity;
+import org.eclipse.xtext.resource.IResourceServiceProvider;
+import org.eclipse.xtext.util.CancelIndicator;
+import org.eclipse.xtext.validation.CheckMode;
+import org.eclipse.xtext.validation.Issue;
 
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
@@ -14,47 +33,298 @@ import picocli.CommandLine.Option;
 @Command(name = "validate", description = "Validates a CML file.", mixinStandardHelpOptions = true)
 public class ValidateCommand implements Callable<Integer> {
 
-    @Option(names = {"-i", "--input"}, description = "Path to the CML file which you want to validate.", required = true)
-    private String inputPath;
+    @Option(
+        names = {"-i", "--input"},
+        paramLabel = "<inputPath>",
+        description = """
+            Path to the CML file which you want to validate.
+            Can be repeated and also be a directory (searched recursively for *.cml files) or a glob pattern.
+            Use '-' to read the CML from stdin (imports are resolved relative to --base-dir).
+            """,
+        required = true)
+    private List<String> inputPaths;
+
+    @Option(
+        names = {"--base-dir"},
+        paramLabel = "<dir>",
+        description = "The directory against which the imports of CML read from stdin (-i -) are resolved (default: working directory).",
+        defaultValue = ".")
+    private String baseDir;
+
+    @Option(
+        names = {"--threads"},
+        description = """
+            The number of CML files validated in parallel if multiple input files are given
+            (default: number of available processors).
+            """)
+    private Integer threads;
+
+    @Option(
+        names = {"--watch"},
+        description = "Keeps running and validates again whenever a CML file or one of the files it imports changes.")
+    private boolean watch;
+
+    @Option(
+        names = {"--changed-since"},
+        paramLabel = "<revision>",
+        description = """
+            Validates only the CML files which changed since the given git revision (e.g. origin/main or HEAD~1), or which import
+            a changed file (directly or transitively). The changes are taken from the git repository of the working directory.
+            """)
+    private String changedSince;
+
+    @Option(
+        names = {"--fail-fast"},
+        description = """
+            Stops at the first CML file with errors: the validation of the other files is cancelled, and the command
+            exits with a non-zero status. The results are written in the order in which the files have been validated.
+            """)
+    private boolean failFast;
+
+    @Option(
+        names = {"--format"},
+        paramLabel = "<format>",
+        description = """
+            The format of the validation results (default: ${DEFAULT-VALUE}).
+            Use the following values: ${COMPLETION-CANDIDATES}
+            """,
+        defaultValue = "text")
+    private DiagnosticsFormat format;
+
+    @Option(
+        names = {"--max-diagnostics"},
+        paramLabel = "<count>",
+        description = "The maximum number of errors and warnings written per validation run; further ones are only counted.")
+    private Integer maxDiagnostics;
+
+    @Option(
+        names = {"--cache-dir"},
+        paramLabel = "<dir>",
+        description = """
+            Caches the parsed and linked models in the given directory (created if it does not exist),
+            so that CML files which did not change are not parsed again by later runs.
+            """)
+    private String cacheDir;
+
+    @Option(
+        names = {"--memory-budget"},
+        paramLabel = "<size>",
+        arity = "0..1",
+        fallbackValue = "",
+        description = """
+            Bounds the heap used for many CML files (e.g. 1536m or 2g; default: 75%% of the maximum heap): the models of
+            a file are unloaded as soon as it has been validated, and no further file is started while the heap exceeds the
+            budget. The peak heap usage is reported at the end.
+            """)
+    private String memoryBudgetSize;
+
+    @Option(
+        names = {"--metrics"},
+        paramLabel = "<file>",
+        arity = "0..1",
+        fallbackValue = "",
+        description = """
+            Records the time and memory used by every phase (setup, parse, link, validate) and the size of the models,
+            and writes them as JSON into the given file (or to the console if no file is given).
+            """)
+    private String metricsFile;
+
+    private Metrics metrics = Metrics.disabled();
+    private MemoryBudget memoryBudget = MemoryBudget.disabled();
+
+    private final CmlImportScanner importScanner = new CmlImportScanner();
 
     @Override
     public Integer call() throws Exception {
-        if (!isInputFileValid(inputPath)) {
+        if (watch && inputPaths.contains(CmlInput.STDIN)) {
+            throw new IllegalArgumentException("The --watch parameter cannot be used with input from stdin (-i -).");
+        }
+        Optional<List<CmlInput>> inputs = new CmlInputResolver(false, Path.of(baseDir)).resolve(inputPaths);
+        if (inputs.isEmpty()) {
             return 1;
         }
+        if (Objects.nonNull(maxDiagnostics) && maxDiagnostics < 0) {
+            throw new IllegalArgumentException("The --max-diagnostics parameter must not be negative.");
+        }
+        if (Objects.nonNull(metricsFile)) {
+            metrics = Metrics.enabled("validate");
+        }
+        if (Objects.nonNull(memoryBudgetSize)) {
+            memoryBudget = MemoryBudget.enabled(memoryBudgetSize, ImportCache.shared());
+        }
+        metrics.run("setup", StandaloneAPIProvider::get);
 
-        StandaloneContextMapperAPI cmAPI = ContextMapperStandaloneSetup.getStandaloneAPI();
-        CMLResource cmlResource = cmAPI.loadCML(inputPath);
-
-        printValidationMessages(cmlResource, inputPath);
-
-        return cmlResource.getErrors().isEmpty() ? 0 : 1;
+        // every worker validates with its own resource set; in watch mode, it is kept to reuse unchanged imports
+        // (unless the memory is bounded, as the models are unloaded after every file then)
+        CmlResourceLoaders loaders = new CmlResourceLoaders(watch && !memoryBudget.isEnabled(),
+                Objects.isNull(cacheDir) ? ModelCache.disabled() : ModelCache.enabled(Path.of(cacheDir), metrics));
+        List<CmlInput> changedInputs = Objects.isNull(changedSince) ? inputs.get() : getChangedInputs(inputs.get());
+        int poolSize = Math.min(inputs.get().size(), Objects.isNull(threads) || threads < 1 ? Runtime.getRuntime().availableProcessors() : threads);
+        ExecutorService executor = Executors.newFixedThreadPool(poolSize);
+        DiagnosticsWriter writer = DiagnosticsWriter.create(format, maxDiagnostics);
+        try {
+            int exitCode = validate(executor, loaders, changedInputs, writer);
+            if (watch) {
+                try (FileWatcher watcher = new FileWatcher(FileWatcher.DEFAULT_DEBOUNCE)) {
+                    watcher.runOnChanges(() -> getFilesToWatch(inputs.get()), changedFiles -> {
+                        loaders.reload(changedFiles);
+                        validate(executor, loaders, getAffectedInputs(inputs.get(), changedFiles), writer);
+                    });
+                }
+            }
+            return exitCode;
+        } finally {
+            executor.shutdownNow();
+            metrics.close();
+        }
     }
 
-    protected boolean isInputFileValid(String path) {
-        File inputFile = new File(path);
-        if (!inputFile.exists()) {
-            System.err.println("ERROR: The file '" + path + "' does not exist.");
-            return false;
+    /**
+     * Validates the CML files in parallel and writes the results in the order of the inputs, each as soon as it is
+     * available. With --fail-fast, the results are written in the order in which they become available instead, and
+     * the first invalid file cancels the validation of all others. Files importing other input files are validated
+     * after them (see {@link ImportGraphScheduler}).
+     */
+    private int validate(ExecutorService executor, CmlResourceLoaders loaders, List<CmlInput> inputs, DiagnosticsWriter writer)
+            throws InterruptedException {
+        // checked by the workers between the phases of a validation, as parsing and linking cannot be interrupted
+        AtomicBoolean cancelled = new AtomicBoolean();
+        ImportGraphScheduler scheduler = new ImportGraphScheduler(inputs, importScanner);
+        // not on stdout, as it may be parsed (--format)
+        scheduler.getCycles().forEach(cycle -> System.err.println("WARNING: Import cycle: " + ImportGraphScheduler.describeCycle(cycle)));
+        loaders.share(scheduler.getSharedFiles());
+        List<CompletableFuture<ValidationResult>> results = scheduler.submit(executor, input -> {
+            ValidationResult validationResult = ValidationResult.validate(loaders, input, metrics, memoryBudget, cancelled);
+            if (failFast && !validationResult.errors().isEmpty()) {
+                cancelled.set(true);
+            }
+            return validationResult;
+        });
+        Map<Future<ValidationResult>, CmlInput> resultInputs = new IdentityHashMap<>();
+        BlockingQueue<Future<ValidationResult>> completedResults = new LinkedBlockingQueue<>();
+        for (int i = 0; i < inputs.size(); i++) {
+            CompletableFuture<ValidationResult> result = results.get(i);
+            resultInputs.put(result, inputs.get(i));
+            result.whenComplete((validationResult, failure) -> completedResults.add(result));
+        }
+
+        int validatedFiles = 0;
+        int invalidFiles = 0;
+        writer.startRun();
+        for (int i = 0; i < inputs.size() && !(failFast && invalidFiles > 0); i++) {
+            Future<ValidationResult> result = failFast ? completedResults.take() : results.get(i);
+            CmlInput input = resultInputs.get(result);
+            try {
+                ValidationResult validationResult = result.get();
+                // with multiple files, diagnostics without location would not tell which file they belong to
+                String defaultLocation = inputs.size() > 1 ? input.toString() : null;
+                writer.writeResult(input.toString(), defaultLocation, validationResult.errors(), validationResult.warnings());
+                validatedFiles++;
+                if (!validationResult.errors().isEmpty()) {
+                    invalidFiles++;
+                }
+            } catch (CancellationException e) {
+                // cancelled by an invalid file (--fail-fast), which is reported itself
+            } catch (ExecutionException e) {
+                validatedFiles++;
+                invalidFiles++;
+                writer.writeFailure(input.toString(), e.getCause().getMessage());
+            }
         }
-        if (!path.endsWith(".cml")) {
-            System.err.println("ERROR: Please provide a path to a CML (*.cml) file.");
-            return false;
+        if (failFast && invalidFiles > 0) {
+            // the workers are not interrupted, as they may still be reading files into the resource sets kept in watch mode
+            cancelled.set(true);
+            results.forEach(result -> result.cancel(false));
         }
-        return true;
+        writer.endRun(validatedFiles, invalidFiles);
+        if (validatedFiles < inputs.size()) {
+            System.err.println("Stopped at the first CML file with errors (--fail-fast); " + (inputs.size() - validatedFiles)
+                    + " CML files have not been validated.");
+        }
+        metrics.count("inputs", validatedFiles);
+        if (memoryBudget.isEnabled()) {
+            // not on stdout, as it may be parsed (--format)
+            System.err.println(memoryBudget.describe());
+        }
+        if (metrics.isEnabled()) {
+            metrics.write(metricsFile);
+        }
+        return invalidFiles == 0 ? 0 : 1;
+    }
+
+    private Set<Path> getFilesToWatch(List<CmlInput> inputs) {
+        Set<Path> files = new LinkedHashSet<>();
+        inputs.forEach(input -> files.addAll(importScanner.getFileWithTransitiveImports(input.file())));
+        return files;
     }
 
-    protected void printValidationMessages(final CMLResource cmlResource, final String filePath) {
-        if (cmlResource.getErrors().isEmpty()) {
-            System.out.println("The CML file '" + filePath + "' has been validated without errors.");
-        } else {
-            for (Diagnostic diagnostic : cmlResource.getErrors()) {
-                System.err.println("ERROR in " + diagnostic.getLocation() + " on line " + diagnostic.getLine() + ":" + diagnostic.getMessage());
+    private List<CmlInput> getAffectedInputs(List<CmlInput> inputs, Set<Path> changedFiles) {
+        Set<Path> affectedFiles = importScanner.getAffectedFiles(inputs.stream().map(CmlInput::file).toList(), changedFiles);
+        // CML read from stdin is not known to git, and thus always validated
+        return inputs.stream()
+                .filter(input -> input.isStdin() || affectedFiles.contains(input.file().toAbsolutePath().normalize()))
+                .toList();
+    }
+
+    private List<CmlInput> getChangedInputs(List<CmlInput> inputs) throws InterruptedException {
+        List<CmlInput> changedInputs = getAffectedInputs(inputs, GitChanges.getChangedFiles(Path.of(""), changedSince));
+        // not on stdout, as it may be parsed (--format)
+        System.err.println(changedInputs.size() + " of " + inputs.size() + " CML files are affected by the changes since '" + changedSince + "'.");
+        return changedInputs;
+    }
+
+    private record ValidationResult(List<Diagnostic> errors, List<Diagnostic> warnings) {
+
+        /**
+         * Loads and validates the CML file of the input. (This is not a method of the command, as picocli loads the
+         * types used by all methods of the command, including its lambdas, already to parse the command line.)
+         *
+         * @param cancelled checked before every phase of the validation
+         * @throws CancellationException if the validation has been cancelled
+         */
+        static ValidationResult validate(CmlResourceLoaders loaders, CmlInput input, Metrics metrics, MemoryBudget memoryBudget,
+                AtomicBoolean cancelled) throws InterruptedException {
+            checkCancelled(cancelled);
+            memoryBudget.acquire();
+            CmlResourceLoader loader = loaders.get();
+            try {
+                checkCancelled(cancelled);
+                CMLResource cmlResource = metrics.measure("parse", () -> loader.load(input));
+                checkCancelled(cancelled);
+                // resolve all references, so that references which cannot be resolved are reported as well
+                metrics.run("link", loader::resolveAll);
+                checkCancelled(cancelled);
+                loader.countModel(cmlResource, metrics);
+                return metrics.measure("validate", () -> validate(cmlResource));
+            } finally {
+                memoryBudget.release(loader);
             }
         }
 
-        for (Diagnostic diagnostic : cmlResource.getWarnings()) {
-            System.out.println("WARNING in " + diagnostic.getLocation() + " on line " + diagnostic.getLine() + ":" + diagnostic.getMessage());
+        /**
+         * Runs the validator of the CML language, which reports the syntax errors and the references that could not
+         * be resolved as well as the violations of the checks of the language. The diagnostics are copied, as the
+         * resource must not be accessed by other threads, and the results of all files are kept until they are
+         * written (in the order of the inputs).
+         */
+        private static ValidationResult validate(CMLResource cmlResource) {
+            IResourceServiceProvider serviceProvider = IResourceServiceProvider.Registry.INSTANCE.getResourceServiceProvider(cmlResource.getURI());
+            if (Objects.isNull(serviceProvider)) {
+                // no validator registered for the resource (not a CML file); only its own diagnostics are reported
+                return new ValidationResult(
+                        cmlResource.getErrors().stream().<Diagnostic>map(DetachedDiagnostic::copyOf).toList(),
+                        cmlResource.getWarnings().stream().<Diagnostic>map(DetachedDiagnostic::copyOf).toList());
+            }
+            List<Issue> issues = serviceProvider.getResourceValidator().validate(cmlResource, CheckMode.ALL, CancelIndicator.NullImpl);
+            return new ValidationResult(
+                    issues.stream().filter(issue -> issue.getSeverity() == Severity.ERROR).<Diagnostic>map(DetachedDiagnostic::copyOf).toList(),
+                    issues.stream().filter(issue -> issue.getSeverity() == Severity.WARNING).<Diagnostic>map(DetachedDiagnostic::copyOf).toList());
+        }
+
+        private static void checkCancelled(AtomicBoolean cancelled) {
+            if (cancelled.get()) {
+                throw new CancellationException();
+            }
         }
     }
 }
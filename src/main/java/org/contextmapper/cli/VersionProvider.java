@@ -1,6 +1,10 @@
 package org.contextmapper.cli;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.Optional;
+import java.util.Properties;
 
 import picocli.CommandLine.IVersionProvider;
 
@@ -16,6 +20,22 @@ class VersionProvider implements IVersionProvider {
         return new String[]{"Context Mapper CLI " + versionString};
     }
 
+    /**
+     * Returns the versions of the CLI and of the CML language (context-mapper-dsl) this build uses, as written into
+     * version.properties by the build.
+     */
+    static String getBuildVersions() {
+        Properties versions = new Properties();
+        try (InputStream in = VersionProvider.class.getResourceAsStream("version.properties")) {
+            if (in != null) {
+                versions.load(in);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return "cli " + versions.getProperty("cliVersion", "unknown") + ", cml " + versions.getProperty("cmlVersion", "unknown");
+    }
+
     //Refactored to help the testing process
     protected Package getPackageToInspect() {
         return ContextMapperCLI.class.getPackage();
@@ -0,0 +1,56 @@
+package org.contextmapper.cli;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.xtext.generator.IFileSystemAccess;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ArchiveFileSystemAccessTest {
+
+    private final ArchiveWriter archive = ArchiveWriter.tar(new ByteArrayOutputStream(), false);
+    private final ArchiveFileSystemAccess fsa = new ArchiveFileSystemAccess(archive, "model", Metrics.disabled(), fileName -> true);
+
+    @Test
+    @DisplayName("readTextFile() should return the content of a file written before")
+    void readTextFile_WhenFileWritten_ThenReturnContent() throws IOException {
+        // Given
+        fsa.generateFile("model.puml", "@startuml\n@enduml\n");
+
+        // When / Then
+        assertThat(fsa.isFile("model.puml", IFileSystemAccess.DEFAULT_OUTPUT)).isTrue();
+        assertThat(fsa.readTextFile("model.puml", IFileSystemAccess.DEFAULT_OUTPUT)).hasToString("@startuml\n@enduml\n");
+        try (InputStream content = fsa.readBinaryFile("model.puml", IFileSystemAccess.DEFAULT_OUTPUT)) {
+            assertThat(new String(content.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("@startuml\n@enduml\n");
+        }
+    }
+
+    @Test
+    @DisplayName("readTextFile() should fail with a descriptive message when the file has not been written")
+    void readTextFile_WhenFileNotWritten_ThenThrowException() {
+        // When / Then
+        assertThat(fsa.isFile("other.puml", IFileSystemAccess.DEFAULT_OUTPUT)).isFalse();
+        assertThatThrownBy(() -> fsa.readTextFile("other.puml", IFileSystemAccess.DEFAULT_OUTPUT))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("The file 'model/other.puml' has not been written into the archive.");
+    }
+
+    @Test
+    @DisplayName("deleteFile() should do nothing for a file not written, and fail for a file written into the archive")
+    void deleteFile_WhenFileWritten_ThenThrowException() {
+        // Given
+        fsa.generateFile("model.puml", "@startuml\n@enduml\n");
+
+        // When / Then
+        fsa.deleteFile("other.puml", IFileSystemAccess.DEFAULT_OUTPUT);
+        assertThatThrownBy(() -> fsa.deleteFile("model.puml", IFileSystemAccess.DEFAULT_OUTPUT))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("The file 'model/model.puml' has already been written into the archive and cannot be deleted.");
+    }
+}
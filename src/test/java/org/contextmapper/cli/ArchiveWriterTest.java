@@ -0,0 +1,171 @@
+package org.contextmapper.cli;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ArchiveWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("tar() should write the entries as tar stream and end it with two empty blocks")
+    void tar_WhenEntriesAdded_ThenWriteTarStream() throws IOException {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        String longName = "model/" + "a".repeat(120) + ".puml";
+
+        // When
+        try (ArchiveWriter archive = ArchiveWriter.tar(out, false)) {
+            archive.addEntry("model_ContextMap.puml", "@startuml\n@enduml\n".getBytes(StandardCharsets.UTF_8));
+            archive.addEntry("./sub/model.gv", new byte[0]);
+            archive.addEntry(longName, "long".getBytes(StandardCharsets.UTF_8));
+        }
+
+        // Then
+        byte[] tar = out.toByteArray();
+        assertThat(tar.length % 512).isZero();
+        assertThat(Arrays.copyOfRange(tar, tar.length - 1024, tar.length)).containsOnly(0);
+        assertThat(readTar(tar)).containsExactly(
+                Map.entry("model_ContextMap.puml", "@startuml\n@enduml\n"),
+                Map.entry("sub/model.gv", ""),
+                Map.entry(longName, "long"));
+    }
+
+    @Test
+    @DisplayName("create() should write a zip file when the file name ends with .zip")
+    void create_WhenZipFile_ThenWriteZipFile() throws IOException {
+        // Given
+        Path file = tempDir.resolve("out.zip");
+
+        // When
+        try (ArchiveWriter archive = ArchiveWriter.create(file)) {
+            archive.addEntry("model_ContextMap.puml", "@startuml\n@enduml\n".getBytes(StandardCharsets.UTF_8));
+            archive.addEntry("sub/model.gv", new byte[0]);
+        }
+
+        // Then
+        assertThat(readZip(Files.readAllBytes(file))).containsExactly(
+                Map.entry("model_ContextMap.puml", "@startuml\n@enduml\n"),
+                Map.entry("sub/model.gv", ""));
+        assertThat(tempDir).isDirectoryContaining(path -> path.equals(file))
+                .isDirectoryNotContaining(path -> path.getFileName().toString().endsWith(".tmp"));
+    }
+
+    @Test
+    @DisplayName("create() should write a gzipped tar file when the file name ends with .tar.gz")
+    void create_WhenTarGzFile_ThenWriteGzippedTarFile() throws IOException {
+        // Given
+        Path file = tempDir.resolve("out.tar.gz");
+
+        // When
+        try (ArchiveWriter archive = ArchiveWriter.create(file)) {
+            archive.addEntry("model_ContextMap.puml", "@startuml\n@enduml\n".getBytes(StandardCharsets.UTF_8));
+        }
+
+        // Then
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            assertThat(readTar(in.readAllBytes())).containsExactly(Map.entry("model_ContextMap.puml", "@startuml\n@enduml\n"));
+        }
+    }
+
+    @Test
+    @DisplayName("discard() should keep the existing archive file")
+    void discard_WhenArchiveFileExists_ThenKeepArchiveFile() throws IOException {
+        // Given
+        Path file = tempDir.resolve("out.zip");
+        Files.writeString(file, "last generation");
+
+        // When
+        ArchiveWriter archive = ArchiveWriter.create(file);
+        archive.addEntry("model_ContextMap.puml", "@startuml\n@enduml\n".getBytes(StandardCharsets.UTF_8));
+        archive.discard();
+
+        // Then
+        assertThat(file).hasContent("last generation");
+        assertThat(tempDir).isDirectoryNotContaining(path -> path.getFileName().toString().endsWith(".tmp"));
+    }
+
+    @Test
+    @DisplayName("create() should throw an exception when the format of the file is not supported")
+    void create_WhenFormatNotSupported_ThenThrowException() {
+        // Given
+        Path file = tempDir.resolve("out.rar");
+
+        // When & Then
+        assertThatThrownBy(() -> ArchiveWriter.create(file))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("please pass a *.zip, *.tar.gz, *.tgz or *.tar file");
+        assertThat(tempDir).isEmptyDirectory();
+    }
+
+    /**
+     * Reads the entries of a zip file.
+     */
+    static Map<String, String> readZip(byte[] zip) throws IOException {
+        Map<String, String> entries = new LinkedHashMap<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            for (ZipEntry entry = in.getNextEntry(); entry != null; entry = in.getNextEntry()) {
+                entries.put(entry.getName(), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Reads the entries of a tar stream (as written by {@link ArchiveWriter#tar}) and checks their header checksums.
+     */
+    static Map<String, String> readTar(byte[] tar) {
+        Map<String, String> entries = new LinkedHashMap<>();
+        String paxPath = null;
+        int offset = 0;
+        while (offset + 512 <= tar.length && tar[offset] != 0) {
+            byte[] header = Arrays.copyOfRange(tar, offset, offset + 512);
+            long checksum = 0;
+            for (int i = 0; i < 512; i++) {
+                checksum += i >= 148 && i < 156 ? ' ' : header[i] & 0xff;
+            }
+            assertThat(Long.parseLong(readString(header, 148, 6), 8)).isEqualTo(checksum);
+            assertThat(readString(header, 257, 5)).isEqualTo("ustar");
+
+            int size = Integer.parseInt(readString(header, 124, 11), 8);
+            String content = new String(tar, offset + 512, size, StandardCharsets.UTF_8);
+            if (header[156] == 'x') {
+                paxPath = content.substring(content.indexOf("path=") + 5, content.length() - 1);
+                assertThat(content).startsWith(content.getBytes(StandardCharsets.UTF_8).length + " ");
+            } else {
+                entries.put(paxPath != null ? paxPath : readString(header, 0, 100), content);
+                paxPath = null;
+            }
+            offset += 512 + (size + 511) / 512 * 512;
+        }
+        return entries;
+    }
+
+    private static String readString(byte[] header, int offset, int length) {
+        int end = offset;
+        while (end < offset + length && header[end] != 0) {
+            end++;
+        }
+        return new String(header, offset, end - offset, StandardCharsets.UTF_8);
+    }
+}
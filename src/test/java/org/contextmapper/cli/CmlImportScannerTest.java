@@ -0,0 +1,77 @@
+package org.contextmapper.cli;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CmlImportScannerTest {
+
+    private static final Path MAIN_FILE = Path.of("src/test/resources/imports/main.cml");
+    private static final Path CORE_FILE = Path.of("src/test/resources/imports/shared/core.cml").toAbsolutePath();
+    private static final Path TYPES_FILE = Path.of("src/test/resources/imports/shared/types.cml").toAbsolutePath();
+
+    @TempDir
+    Path tempDir;
+
+    private final CmlImportScanner scanner = new CmlImportScanner();
+
+    @Test
+    @DisplayName("getImports() should return the directly imported files resolved relative to the importing file")
+    void getImports_WhenFileHasImports_ThenReturnResolvedImports() {
+        assertThat(scanner.getImports(MAIN_FILE)).containsExactly(CORE_FILE);
+    }
+
+    @Test
+    @DisplayName("getImports() should ignore commented imports")
+    void getImports_WhenImportIsCommented_ThenIgnoreIt() {
+        assertThat(scanner.getImports(CORE_FILE)).containsExactly(TYPES_FILE);
+    }
+
+    @Test
+    @DisplayName("getTransitiveImports() should return the imports of imported files")
+    void getTransitiveImports_WhenImportedFileHasImports_ThenReturnThemToo() {
+        assertThat(scanner.getTransitiveImports(MAIN_FILE)).containsExactly(CORE_FILE, TYPES_FILE);
+    }
+
+    @Test
+    @DisplayName("getTransitiveImports() should terminate on import cycles")
+    void getTransitiveImports_WhenImportsAreCyclic_ThenTerminate() throws IOException {
+        // Given
+        Path first = tempDir.resolve("first.cml");
+        Path second = tempDir.resolve("second.cml");
+        Files.writeString(first, "import \"./second.cml\"\n");
+        Files.writeString(second, "import \"./first.cml\"\n");
+
+        // When / Then
+        assertThat(scanner.getTransitiveImports(first)).containsExactly(second.toAbsolutePath().normalize());
+    }
+
+    @Test
+    @DisplayName("getAffectedFiles() should return the files importing a changed file transitively")
+    void getAffectedFiles_WhenTransitiveImportChanged_ThenReturnImportingFiles() throws IOException {
+        // Given
+        Path unrelated = tempDir.resolve("unrelated.cml");
+        Files.writeString(unrelated, "BoundedContext Unrelated\n");
+
+        // When
+        Set<Path> affectedFiles = scanner.getAffectedFiles(List.of(MAIN_FILE, CORE_FILE, unrelated), Set.of(TYPES_FILE));
+
+        // Then
+        assertThat(affectedFiles).containsExactly(MAIN_FILE.toAbsolutePath(), CORE_FILE);
+    }
+
+    @Test
+    @DisplayName("getAffectedFiles() should return a changed file itself, but not the files it imports")
+    void getAffectedFiles_WhenImportingFileChanged_ThenReturnOnlyIt() {
+        assertThat(scanner.getAffectedFiles(List.of(MAIN_FILE, CORE_FILE), Set.of(MAIN_FILE.toAbsolutePath())))
+                .containsExactly(MAIN_FILE.toAbsolutePath());
+    }
+}
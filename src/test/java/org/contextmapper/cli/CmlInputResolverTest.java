@@ -0,0 +1,157 @@
+package org.contextmapper.cli;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CmlInputResolverTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ByteArrayOutputStream errContent = new ByteArrayOutputStream();
+    private final PrintStream originalErr = System.err;
+
+    private final CmlInputResolver resolver = new CmlInputResolver();
+
+    @BeforeEach
+    void setUp() {
+        System.setErr(new PrintStream(errContent));
+    }
+
+    @AfterEach
+    void restoreStreams() {
+        System.setErr(originalErr);
+    }
+
+    @Test
+    @DisplayName("resolve() should return the file itself when a CML file is given")
+    void resolve_WhenCalledWithCMLFile_ThenReturnFile() {
+        // When
+        Optional<List<CmlInput>> inputs = resolver.resolve(List.of("src/test/resources/test.cml"));
+
+        // Then
+        assertThat(inputs).isPresent();
+        assertThat(inputs.get()).containsExactly(new CmlInput(Path.of("src/test/resources/test.cml"), "test"));
+    }
+
+    @Test
+    @DisplayName("resolve() should read the CML from stdin as a file in the base directory when '-' is given")
+    void resolve_WhenCalledWithDash_ThenReadStdin() {
+        // Given
+        InputStream originalIn = System.in;
+        System.setIn(new ByteArrayInputStream("BoundedContext Stdin\n".getBytes(StandardCharsets.UTF_8)));
+
+        // When
+        Optional<List<CmlInput>> inputs;
+        try {
+            inputs = new CmlInputResolver(true, tempDir).resolve(List.of("-"));
+        } finally {
+            System.setIn(originalIn);
+        }
+
+        // Then
+        assertThat(inputs).isPresent();
+        assertThat(inputs.get()).containsExactly(CmlInput.fromStdin(tempDir, "BoundedContext Stdin\n"));
+        assertThat(inputs.get().get(0).file()).isEqualTo(tempDir.toAbsolutePath().normalize().resolve("stdin.cml"));
+        assertThat(inputs.get().get(0)).hasToString("<stdin>");
+    }
+
+    @Test
+    @DisplayName("resolve() should find all CML files recursively when a directory is given")
+    void resolve_WhenCalledWithDirectory_ThenReturnAllCMLFiles() {
+        // When
+        Optional<List<CmlInput>> inputs = resolver.resolve(List.of("src/test/resources/multiple"));
+
+        // Then
+        assertThat(inputs).isPresent();
+        assertThat(inputs.get()).extracting(CmlInput::name).containsExactly("first", "sub/second");
+    }
+
+    @Test
+    @DisplayName("resolve() should return the matching CML files when a glob pattern is given")
+    void resolve_WhenCalledWithGlobPattern_ThenReturnMatchingFiles() {
+        // When
+        Optional<List<CmlInput>> inputs = resolver.resolve(List.of("src/test/resources/multiple/**.cml"));
+
+        // Then
+        assertThat(inputs).isPresent();
+        assertThat(inputs.get()).extracting(CmlInput::file)
+                .containsExactly(Path.of("src/test/resources/multiple/first.cml"), Path.of("src/test/resources/multiple/sub/second.cml"));
+    }
+
+    @Test
+    @DisplayName("resolve() should return each file only once when it is given multiple times")
+    void resolve_WhenFileIsGivenTwice_ThenReturnItOnce() {
+        // When
+        Optional<List<CmlInput>> inputs = resolver.resolve(List.of("src/test/resources/multiple", "src/test/resources/multiple/first.cml"));
+
+        // Then
+        assertThat(inputs).isPresent();
+        assertThat(inputs.get()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("resolve() should print error when the pattern does not match any file")
+    void resolve_WhenPatternDoesNotMatch_ThenPrintError() {
+        // When
+        Optional<List<CmlInput>> inputs = resolver.resolve(List.of("src/test/resources/*.txt"));
+
+        // Then
+        assertThat(inputs).isEmpty();
+        assertThat(errContent.toString()).contains("ERROR: The pattern 'src/test/resources/*.txt' does not match any CML (*.cml) files.");
+    }
+
+    @Test
+    @DisplayName("resolve() should print error when the directory does not contain CML files")
+    void resolve_WhenDirectoryIsEmpty_ThenPrintError() {
+        // When
+        Optional<List<CmlInput>> inputs = resolver.resolve(List.of(tempDir.toString()));
+
+        // Then
+        assertThat(inputs).isEmpty();
+        assertThat(errContent.toString()).contains("does not contain any CML (*.cml) files.");
+    }
+
+    @Test
+    @DisplayName("resolve() should print error when two files would be generated into the same directory")
+    void resolve_WhenNamesCollide_ThenPrintError() throws IOException {
+        // Given
+        Path otherTestFile = Files.createFile(tempDir.resolve("test.cml"));
+
+        // When
+        Optional<List<CmlInput>> inputs = resolver.resolve(List.of("src/test/resources/test.cml", otherTestFile.toString()));
+
+        // Then
+        assertThat(inputs).isEmpty();
+        assertThat(errContent.toString()).contains("would be generated into the same directory 'test'");
+    }
+
+    @Test
+    @DisplayName("resolve() should accept files with the same name if unique names are not required")
+    void resolve_WhenNamesCollideAndUniqueNamesNotRequired_ThenResolveBoth() throws IOException {
+        // Given
+        Path otherTestFile = Files.createFile(tempDir.resolve("test.cml"));
+
+        // When
+        Optional<List<CmlInput>> inputs = new CmlInputResolver(false).resolve(List.of("src/test/resources/test.cml", otherTestFile.toString()));
+
+        // Then
+        assertThat(inputs).hasValueSatisfying(resolved -> assertThat(resolved).hasSize(2));
+    }
+}
@@ -0,0 +1,123 @@
+package org.contextmapper.cli;
+
+import org.contextmapper.dsl.cml.CMLResource;
+import org.eclipse.emf.ecore.EObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CmlResourceLoaderTest {
+
+    private static final Path TEST_FILE = Path.of("src/test/resources/test.cml");
+
+    private final CmlResourceLoader loader = new CmlResourceLoader();
+
+    @Test
+    @DisplayName("load() should reuse the loaded model when the file is loaded again")
+    void load_WhenFileIsLoadedTwice_ThenReuseModel() {
+        // Given
+        EObject model = loader.load(TEST_FILE).getContents().get(0);
+
+        // When
+        CMLResource reloaded = loader.load(TEST_FILE);
+
+        // Then
+        assertThat(reloaded.getContents().get(0)).isSameAs(model);
+    }
+
+    @Test
+    @DisplayName("load() should parse the file again after it has been reloaded")
+    void load_WhenFileHasBeenReloaded_ThenParseAgain() {
+        // Given
+        EObject model = loader.load(TEST_FILE).getContents().get(0);
+        loader.reload(List.of(TEST_FILE));
+
+        // When
+        CMLResource reloaded = loader.load(TEST_FILE);
+
+        // Then
+        assertThat(reloaded.getErrors()).isEmpty();
+        assertThat(reloaded.getContents().get(0)).isNotSameAs(model);
+    }
+
+    @Test
+    @DisplayName("unloadAll() should unload the models of all loaded files")
+    void unloadAll_WhenFileLoaded_ThenUnloadModel() {
+        // Given
+        CMLResource resource = loader.load(TEST_FILE);
+        EObject model = resource.getContents().get(0);
+
+        // When
+        loader.unloadAll();
+
+        // Then
+        assertThat(model.eIsProxy()).isTrue();
+        assertThat(loader.load(TEST_FILE).getContents().get(0)).isNotSameAs(model);
+    }
+
+    @Test
+    @DisplayName("reload() should also reload the files importing a changed file")
+    void reload_WhenImportedFileChanged_ThenReloadImportingFile() {
+        // Given
+        Path mainFile = Path.of("src/test/resources/imports/main.cml");
+        EObject model = loader.load(mainFile).getContents().get(0);
+
+        // When
+        loader.reload(List.of(Path.of("src/test/resources/imports/shared/types.cml")));
+
+        // Then
+        assertThat(loader.load(mainFile).getContents().get(0)).isNotSameAs(model);
+    }
+
+    @Test
+    @DisplayName("reload() should keep files which are not affected by the change")
+    void reload_WhenUnrelatedFileChanged_ThenKeepModel() {
+        // Given
+        EObject model = loader.load(TEST_FILE).getContents().get(0);
+
+        // When
+        loader.reload(List.of(Path.of("src/test/resources/imports/shared/types.cml")));
+
+        // Then
+        assertThat(loader.load(TEST_FILE).getContents().get(0)).isSameAs(model);
+    }
+
+    @Test
+    @DisplayName("load() should share the imported files of the import cache between loaders")
+    void load_WhenFilesImportedByMultipleLoaders_ThenShareImportedFiles() {
+        // Given
+        ImportCache importCache = new ImportCache(ImportCache.DEFAULT_MAX_ENTRIES);
+        Path mainFile = Path.of("src/test/resources/imports/main.cml");
+        new CmlResourceLoader(importCache, ModelCache.disabled()).load(mainFile);
+        CmlResourceLoader otherLoader = new CmlResourceLoader(importCache, ModelCache.disabled());
+        Metrics metrics = Metrics.enabled("test");
+
+        // When
+        CMLResource resource = otherLoader.load(mainFile);
+        otherLoader.countModel(resource, metrics);
+
+        // Then
+        assertThat(importCache.size()).isEqualTo(2);
+        assertThat(metrics.toJson()).contains("\"resources\": 1", "\"sharedResources\": 2");
+    }
+
+    @Test
+    @DisplayName("load() should take a shared file from the import cache")
+    void load_WhenFileIsShared_ThenTakeItFromImportCache() {
+        // Given
+        ImportCache importCache = new ImportCache(ImportCache.DEFAULT_MAX_ENTRIES);
+        Path coreFile = Path.of("src/test/resources/imports/shared/core.cml");
+        CmlResourceLoader sharingLoader = new CmlResourceLoader(importCache, ModelCache.disabled(), Set.of(coreFile.toAbsolutePath().normalize()));
+
+        // When
+        CMLResource resource = sharingLoader.load(coreFile);
+
+        // Then
+        assertThat(resource.getContents().get(0)).isSameAs(importCache.get(coreFile, ModelCache.disabled()).get(0).getContents().get(0));
+    }
+}
@@ -0,0 +1,54 @@
+package org.contextmapper.cli;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CmlResourceLoadersTest {
+
+    @Test
+    @DisplayName("get() should return the same loader within a thread if loaders are kept")
+    void get_WhenLoadersAreKept_ThenReturnSameLoaderWithinThread() {
+        // Given
+        CmlResourceLoaders loaders = new CmlResourceLoaders(true);
+
+        // When
+        CmlResourceLoader first = loaders.get();
+        CmlResourceLoader second = loaders.get();
+
+        // Then
+        assertThat(first).isSameAs(second);
+    }
+
+    @Test
+    @DisplayName("get() should return different loaders for different threads")
+    void get_WhenCalledFromDifferentThreads_ThenReturnDifferentLoaders() throws InterruptedException, ExecutionException {
+        // Given
+        CmlResourceLoaders loaders = new CmlResourceLoaders(true);
+
+        // When
+        CmlResourceLoader loader = loaders.get();
+        CmlResourceLoader otherThreadLoader = CompletableFuture.supplyAsync(loaders::get).get();
+
+        // Then
+        assertThat(loader).isNotSameAs(otherThreadLoader);
+    }
+
+    @Test
+    @DisplayName("get() should return a new loader on every call if loaders are not kept")
+    void get_WhenLoadersAreNotKept_ThenReturnNewLoader() {
+        // Given
+        CmlResourceLoaders loaders = new CmlResourceLoaders(false);
+
+        // When
+        CmlResourceLoader first = loaders.get();
+        CmlResourceLoader second = loaders.get();
+
+        // Then
+        assertThat(first).isNotSameAs(second);
+    }
+}
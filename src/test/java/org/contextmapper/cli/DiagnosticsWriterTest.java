@@ -0,0 +1,119 @@
+package org.contextmapper.cli;
+
+import org.eclipse.emf.ecore.resource.Resource.Diagnostic;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DiagnosticsWriterTest {
+
+    private final ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream errContent = new ByteArrayOutputStream();
+    private final PrintStream originalOut = System.out;
+    private final PrintStream originalErr = System.err;
+
+    @BeforeEach
+    void setUp() {
+        System.setOut(new PrintStream(outContent));
+        System.setErr(new PrintStream(errContent));
+    }
+
+    @AfterEach
+    void restoreStreams() {
+        System.setOut(originalOut);
+        System.setErr(originalErr);
+    }
+
+    @Test
+    @DisplayName("quote() should escape quotes, backslashes and control characters")
+    void quote_WhenValueContainsSpecialCharacters_ThenEscapeThem() {
+        // Given
+        String value = "a \"b\" \\ c\n\u0001";
+
+        // When
+        String quoted = DiagnosticsWriter.quote(value);
+
+        // Then
+        assertThat(quoted).isEqualTo("\"a \\\"b\\\" \\\\ c\\n\\u0001\"");
+    }
+
+    @Test
+    @DisplayName("writeResult() should use the file of the input for diagnostics without location")
+    void writeResult_WhenDiagnosticHasNoLocation_ThenUseInputFile() {
+        // Given
+        DiagnosticsWriter writer = DiagnosticsWriter.create(DiagnosticsFormat.JSONL, null);
+
+        // When
+        writer.startRun();
+        writer.writeResult("model.cml", null, List.of(), List.of(new TestDiagnostic(null, 3, 7, "unused")));
+        writer.endRun(1, 0);
+
+        // Then
+        assertThat(outContent.toString()).isEqualTo("{\"file\": \"model.cml\", \"line\": 3, \"column\": 7, \"severity\": \"warning\", "
+                + "\"code\": null, \"message\": \"unused\"}" + System.lineSeparator());
+    }
+
+    @Test
+    @DisplayName("endRun() should write a valid JSON document for a run without diagnostics")
+    void endRun_WhenNoDiagnostics_ThenWriteEmptyArray() {
+        // Given
+        DiagnosticsWriter writer = DiagnosticsWriter.create(DiagnosticsFormat.JSON, null);
+
+        // When
+        writer.startRun();
+        writer.writeResult("model.cml", null, List.of(), List.of());
+        writer.endRun(1, 0);
+
+        // Then
+        assertThat(outContent.toString()).startsWith("{\n  \"diagnostics\": [],\n  \"files\": 1,");
+    }
+
+    @Test
+    @DisplayName("writeResult() should keep the text format of the messages")
+    void writeResult_WhenTextFormat_ThenPrintErrorsOnStderrAndWarningsOnStdout() {
+        // Given
+        DiagnosticsWriter writer = DiagnosticsWriter.create(DiagnosticsFormat.TEXT, 1);
+
+        // When
+        writer.startRun();
+        writer.writeResult("model.cml", "model.cml", List.of(new TestDiagnostic(null, 2, 1, "broken")),
+                List.of(new TestDiagnostic("other.cml", 5, 1, "unused")));
+        writer.endRun(1, 1);
+
+        // Then
+        assertThat(errContent.toString()).contains("ERROR in model.cml on line 2:broken");
+        assertThat(outContent.toString())
+                .doesNotContain("WARNING")
+                .contains("Omitted 1 further diagnostics (--max-diagnostics).");
+    }
+
+    private record TestDiagnostic(String location, int line, int column, String message) implements Diagnostic {
+
+        @Override
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String getLocation() {
+            return location;
+        }
+
+        @Override
+        public int getLine() {
+            return line;
+        }
+
+        @Override
+        public int getColumn() {
+            return column;
+        }
+    }
+}
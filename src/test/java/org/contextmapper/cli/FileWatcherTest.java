@@ -0,0 +1,80 @@
+package org.contextmapper.cli;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileWatcherTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @Timeout(30)
+    @DisplayName("awaitChanges() should return the changed files after a burst of changes")
+    void awaitChanges_WhenFilesChange_ThenReturnChangedFiles() throws Exception {
+        // Given
+        Path first = Files.writeString(tempDir.resolve("first.cml"), "BoundedContext First");
+        Path second = Files.writeString(tempDir.resolve("second.cml"), "BoundedContext Second");
+        Path unwatched = Files.writeString(tempDir.resolve("unwatched.cml"), "BoundedContext Unwatched");
+
+        try (FileWatcher watcher = new FileWatcher(Duration.ofMillis(500))) {
+            watcher.watch(List.of(first, second));
+            CompletableFuture<Set<Path>> changes = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return watcher.awaitChanges();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+
+            // When
+            Thread.sleep(200);
+            Files.writeString(first, "BoundedContext FirstChanged");
+            Files.writeString(unwatched, "BoundedContext UnwatchedChanged");
+            Files.writeString(second, "BoundedContext SecondChanged");
+
+            // Then
+            assertThat(changes.get()).containsExactlyInAnyOrder(first.toAbsolutePath().normalize(), second.toAbsolutePath().normalize());
+        }
+    }
+
+    @Test
+    @Timeout(30)
+    @DisplayName("awaitChanges() should report files which are replaced by a new file")
+    void awaitChanges_WhenFileIsReplaced_ThenReturnFile() throws Exception {
+        // Given
+        Path file = Files.writeString(tempDir.resolve("model.cml"), "BoundedContext First");
+
+        try (FileWatcher watcher = new FileWatcher(Duration.ofMillis(100))) {
+            watcher.watch(List.of(file));
+
+            // When
+            Path newFile = Files.writeString(tempDir.resolve("model.cml.tmp"), "BoundedContext Second");
+            Files.move(newFile, file, StandardCopyOption.REPLACE_EXISTING);
+
+            // Then
+            assertThat(watcher.awaitChanges()).containsExactly(file.toAbsolutePath().normalize());
+        }
+    }
+
+    @Test
+    @DisplayName("watch() should accept files whose directory does not exist")
+    void watch_WhenDirectoryDoesNotExist_ThenIgnoreIt() throws IOException {
+        try (FileWatcher watcher = new FileWatcher(Duration.ofMillis(100))) {
+            watcher.watch(List.of(tempDir.resolve("missing/model.cml")));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.contextmapper.cli;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+
+import org.contextmapper.dsl.cml.CMLResource;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class FilteredModelResourceTest {
+
+    @Test
+    @DisplayName("create() should keep the removed elements still referenced by the copy, and resolve the imported files")
+    void create_WhenReferencedElementRemoved_ThenKeepItInResource() {
+        // Given: a model whose element 'Kept' references the removed element 'Removed' and an element of an imported file
+        ResourceSetImpl resourceSet = new ResourceSetImpl();
+        resourceSet.setURIResourceMap(new HashMap<>());
+        Resource importedResource = new ResourceImpl(URI.createFileURI("/models/imported.cml"));
+        EClass importedElement = createClass("Imported");
+        importedResource.getContents().add(importedElement);
+        resourceSet.getURIResourceMap().put(importedResource.getURI(), importedResource);
+        Resource resource = new ResourceImpl(URI.createFileURI("/models/model.cml"));
+        resourceSet.getResources().add(resource);
+        EPackage model = EcoreFactory.eINSTANCE.createEPackage();
+        EClass removedElement = createClass("Removed");
+        EClass keptElement = createClass("Kept");
+        keptElement.getESuperTypes().add(removedElement);
+        keptElement.getESuperTypes().add(importedElement);
+        model.getEClassifiers().add(removedElement);
+        model.getEClassifiers().add(keptElement);
+        resource.getContents().add(model);
+        EPackage copy = EcoreUtil.copy(model);
+        copy.getEClassifiers().remove(0);
+
+        // When
+        CMLResource filteredResource = FilteredModelResource.create(new CMLResource(resource), copy);
+
+        // Then
+        Resource copyResource = copy.eResource();
+        assertThat(copyResource.getURI()).isEqualTo(resource.getURI());
+        assertThat(copyResource.getResourceSet()).isNotNull().isNotSameAs(resourceSet);
+        assertThat(copyResource.getContents()).startsWith(copy)
+                .filteredOn(EClass.class::isInstance)
+                .extracting(object -> ((EClass) object).getName())
+                .containsExactly("Removed");
+        assertThat(copyResource.getResourceSet().getResource(importedResource.getURI(), false)).isSameAs(importedResource);
+        assertThat(filteredResource.getURI()).isEqualTo(resource.getURI());
+        // no reference of the copy points to an element outside of a resource
+        copyResource.getAllContents().forEachRemaining(object -> assertThat(object.eCrossReferences())
+                .allSatisfy(referencedObject -> assertThat(((EObject) referencedObject).eResource()).isNotNull()));
+        assertThat(((EClass) copy.getEClassifiers().get(0)).getESuperTypes())
+                .extracting(EClass::getName)
+                .containsExactly("Removed", "Imported");
+    }
+
+    private static EClass createClass(String name) {
+        EClass eClass = EcoreFactory.eINSTANCE.createEClass();
+        eClass.setName(name);
+        return eClass;
+    }
+}
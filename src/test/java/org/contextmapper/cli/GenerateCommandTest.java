@@ -7,12 +7,16 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.io.TempDir;
 import picocli.CommandLine;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -59,7 +63,9 @@ class GenerateCommandTest {
         // Then
         assertThat(exitCode).isEqualTo(0);
         assertThat(outContent.toString())
-                .contains("Usage: cm generate [-hV] [-f=<outputFileName>] [-g=<generatorType>]")
+                .contains("Usage: cm generate [-hV]")
+                .contains("-f, --outputFile=<outputFileName>")
+                .contains("-g, --generator=<generatorType>[,<generatorType>...]")
                 .contains("Generates output from a CML file.");
     }
 
@@ -203,6 +209,180 @@ class GenerateCommandTest {
         assertThat(new File(testOutDirString, "test_ContextMap.puml")).exists();
     }
 
+    @Test
+    @DisplayName("run() should only generate the selected PlantUML diagrams")
+    void run_WhenCalledWithPlantUMLSelection_ThenGenerateSelectedDiagramsOnly() {
+        // Given
+        String[] args = { "generate", "-i", "src/test/resources/test.cml", "-g", "plantuml", "--plantuml-diagram", "class",
+                "--plantuml-include", "*Context", "--plantuml-exclude", "Location*", "-o", testOutDirString };
+
+        // When
+        int exitCode = cmd.execute(args);
+
+        // Then
+        assertThat(exitCode).isEqualTo(0);
+        assertThat(new File(testOutDirString, "test_BC_CargoBookingContext.puml")).exists();
+        assertThat(new File(testOutDirString, "test_BC_VoyagePlanningContext.puml")).exists();
+        assertThat(new File(testOutDirString, "test_BC_LocationContext.puml")).doesNotExist();
+        assertThat(new File(testOutDirString, "test_ContextMap.puml")).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("run() should print error when a PlantUML pattern is not valid")
+    void run_WhenCalledWithInvalidPlantUMLPattern_ThenPrintError() {
+        // Given
+        String[] args = { "generate", "-i", "src/test/resources/test.cml", "-g", "plantuml", "--plantuml-include", "Cargo.",
+                "-o", testOutDirString };
+
+        // When
+        int exitCode = cmd.execute(args);
+
+        // Then
+        assertThat(exitCode).isNotEqualTo(0);
+        assertThat(errContent.toString()).contains("The pattern 'Cargo.' is not valid");
+    }
+
+    @Test
+    @DisplayName("run() should print error when --depth is given without a bounded context or subdomain")
+    void run_WhenCalledWithDepthOnly_ThenPrintError() {
+        // Given
+        String[] args = { "generate", "-i", "src/test/resources/test.cml", "-g", "plantuml", "--depth", "1", "-o", testOutDirString };
+
+        // When
+        int exitCode = cmd.execute(args);
+
+        // Then
+        assertThat(exitCode).isNotEqualTo(0);
+        assertThat(errContent.toString()).contains("The --depth parameter requires --context or --subdomain.");
+    }
+
+    @Test
+    @DisplayName("run() should read the CML from stdin and write the generated files to stdout as tar stream")
+    void run_WhenCalledWithStdinAndStdout_ThenStreamTar() throws IOException {
+        // Given
+        InputStream originalIn = System.in;
+        System.setIn(new ByteArrayInputStream(Files.readAllBytes(Path.of("src/test/resources/test.cml"))));
+        String[] args = { "generate", "-i", "-", "--base-dir", "src/test/resources", "-g", "plantuml", "-o", "-" };
+
+        // When
+        int exitCode;
+        try {
+            exitCode = cmd.execute(args);
+        } finally {
+            System.setIn(originalIn);
+        }
+
+        // Then
+        assertThat(exitCode).isEqualTo(0);
+        assertThat(ArchiveWriterTest.readTar(outContent.toByteArray()))
+                .containsKeys("stdin_ContextMap.puml", "stdin_BC_CargoBookingContext.puml")
+                .doesNotContainKey(OutputManifest.FILE_NAME);
+        assertThat(errContent.toString()).contains("Generated into stdout.");
+    }
+
+    @Test
+    @DisplayName("run() should print error when the output is written to stdout incrementally")
+    void run_WhenCalledWithStdoutAndIncremental_ThenPrintError() {
+        // Given
+        String[] args = { "generate", "-i", "src/test/resources/test.cml", "-g", "plantuml", "-o", "-", "--incremental" };
+
+        // When
+        int exitCode = cmd.execute(args);
+
+        // Then
+        assertThat(exitCode).isNotEqualTo(0);
+        assertThat(errContent.toString()).contains("cannot be used with output to stdout (-o -)");
+    }
+
+    @Test
+    @DisplayName("run() should write all generated files into the archive when called with --archive")
+    void run_WhenCalledWithArchive_ThenWriteArchive() throws IOException {
+        // Given
+        Path archiveFile = testOutPath.resolve("out.zip");
+        Path outputDir = testOutPath.resolve("out");
+        Files.createDirectories(outputDir);
+        String[] args = { "generate", "-i", "src/test/resources/test.cml", "-g", "plantuml", "-o", outputDir.toString(),
+                "--archive", archiveFile.toString() };
+
+        // When
+        int exitCode = cmd.execute(args);
+
+        // Then
+        assertThat(exitCode).isEqualTo(0);
+        assertThat(ArchiveWriterTest.readZip(Files.readAllBytes(archiveFile)))
+                .containsKeys("test_ContextMap.puml", "test_BC_CargoBookingContext.puml")
+                .doesNotContainKey(OutputManifest.FILE_NAME);
+        assertThat(outputDir).isEmptyDirectory();
+        assertThat(outContent.toString()).contains("Generated into '" + archiveFile + "'.");
+    }
+
+    @Test
+    @DisplayName("run() should print error when the archive is written incrementally")
+    void run_WhenCalledWithArchiveAndIncremental_ThenPrintError() {
+        // Given
+        String[] args = { "generate", "-i", "src/test/resources/test.cml", "-g", "plantuml",
+                "--archive", testOutPath.resolve("out.zip").toString(), "--incremental" };
+
+        // When
+        int exitCode = cmd.execute(args);
+
+        // Then
+        assertThat(exitCode).isNotEqualTo(0);
+        assertThat(errContent.toString()).contains("cannot be used with --archive");
+    }
+
+    @Test
+    @DisplayName("run() should print error when the format of the archive is not supported")
+    void run_WhenCalledWithUnsupportedArchive_ThenPrintError() {
+        // Given
+        String[] args = { "generate", "-i", "src/test/resources/test.cml", "-g", "plantuml",
+                "--archive", testOutPath.resolve("out.rar").toString() };
+
+        // When
+        int exitCode = cmd.execute(args);
+
+        // Then
+        assertThat(exitCode).isNotEqualTo(0);
+        assertThat(errContent.toString()).contains("please pass a *.zip, *.tar.gz, *.tgz or *.tar file");
+    }
+
+    @Test
+    @DisplayName("run() should report the peak heap usage when called with --memory-budget")
+    void run_WhenCalledWithMemoryBudget_ThenReportPeakHeapUsage() throws IOException {
+        // Given
+        Path metricsFile = testOutPath.resolve("metrics.json");
+        String[] args = { "generate", "-i", "src/test/resources/multiple/first.cml", "-i", "src/test/resources/multiple/sub",
+                "-g", "plantuml", "-o", testOutDirString, "--memory-budget", "--metrics=" + metricsFile };
+
+        // When
+        int exitCode = cmd.execute(args);
+
+        // Then
+        assertThat(exitCode).isEqualTo(0);
+        assertThat(testOutPath.resolve("second/second_ContextMap.puml")).exists();
+        assertThat(outContent.toString()).contains("Generated 2 of 2 CML files into").contains("Peak heap usage: ");
+        assertThat(Files.readString(metricsFile)).contains("\"peakHeapBytes\": ");
+    }
+
+    @Test
+    @DisplayName("run() should write the metrics of all phases as JSON when called with --metrics")
+    void run_WhenCalledWithMetrics_ThenWriteMetricsFile() throws IOException {
+        // Given
+        Path metricsFile = testOutPath.resolve("metrics.json");
+        String[] args = { "generate", "-i", "src/test/resources/test.cml", "-g", "plantuml", "-o", testOutDirString,
+                "--metrics=" + metricsFile };
+
+        // When
+        int exitCode = cmd.execute(args);
+
+        // Then
+        assertThat(exitCode).isEqualTo(0);
+        assertThat(Files.readString(metricsFile))
+                .contains("\"command\": \"generate\"")
+                .contains("\"name\": \"setup\"", "\"name\": \"parse\"", "\"name\": \"link\"", "\"name\": \"generate\"", "\"name\": \"write\"")
+                .contains("\"inputs\": 1", "\"resources\": ", "\"filesWritten\": 4", "\"bytesWritten\": ");
+    }
+
     @Test
     @DisplayName("run() should generate Context Map files when context-map generator is specified")
     void run_WhenCalledWithContextMapParam_ThenGenerateContextMapFiles() {
@@ -221,6 +401,53 @@ class GenerateCommandTest {
         assertThat(new File(testOutDirString, "test_ContextMap.svg")).exists();
     }
 
+    @Test
+    @DisplayName("run() should only render the selected context map formats")
+    void run_WhenCalledWithContextMapFormat_ThenGenerateSelectedFormatsOnly() {
+        // Given
+        String[] args = { "generate", "-i", "src/test/resources/test.cml", "-g", "context-map", "--map-format", "svg,gv",
+                "--map-width", "1200", "-o", testOutDirString };
+
+        // When
+        int exitCode = cmd.execute(args);
+
+        // Then
+        assertThat(exitCode).isEqualTo(0);
+        assertThat(new File(testOutDirString, "test_ContextMap.svg")).exists();
+        assertThat(new File(testOutDirString, "test_ContextMap.gv")).exists();
+        assertThat(new File(testOutDirString, "test_ContextMap.png")).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("run() should print error when both width and height of the context map are given")
+    void run_WhenCalledWithContextMapWidthAndHeight_ThenPrintError() {
+        // Given
+        String[] args = { "generate", "-i", "src/test/resources/test.cml", "-g", "context-map", "--map-width", "1200",
+                "--map-height", "800", "-o", testOutDirString };
+
+        // When
+        int exitCode = cmd.execute(args);
+
+        // Then
+        assertThat(exitCode).isNotEqualTo(0);
+        assertThat(errContent.toString()).contains("Please pass either --map-width or --map-height");
+    }
+
+    @Test
+    @DisplayName("run() should print error when the label spacing of the context map is out of range")
+    void run_WhenCalledWithInvalidLabelSpacing_ThenPrintError() {
+        // Given
+        String[] args = { "generate", "-i", "src/test/resources/test.cml", "-g", "context-map", "--map-label-spacing", "21",
+                "-o", testOutDirString };
+
+        // When
+        int exitCode = cmd.execute(args);
+
+        // Then
+        assertThat(exitCode).isNotEqualTo(0);
+        assertThat(errContent.toString()).contains("The --map-label-spacing parameter must be between 1 and 20.");
+    }
+
     @Test
     @DisplayName("run() should generate generic output when generic generator and template are specified")
     void run_WhenCalledWithGenericParam_ThenGenerateGenericOutput() {
@@ -238,6 +465,190 @@ class GenerateCommandTest {
         assertThat(new File(testOutDirString, outputFileName)).exists();
     }
 
+    @Test
+    @DisplayName("run() should generate into a subdirectory per file when multiple input files are specified")
+    void run_WhenCalledWithMultipleInputs_ThenGenerateIntoSubdirectories() {
+        // Given
+        String[] args = { "generate", "-i", "src/test/resources/multiple/first.cml", "-i", "src/test/resources/multiple/sub",
+                "-g", "plantuml", "-o", testOutDirString, "--threads", "2" };
+
+        // When
+        int exitCode = cmd.execute(args);
+
+        // Then
+        assertThat(exitCode).isEqualTo(0);
+        assertThat(outContent.toString()).contains("Generated 2 of 2 CML files into '" + testOutDirString + "'.");
+        assertThat(new File(testOutDirString, "first/first_ContextMap.puml")).exists();
+        assertThat(new File(testOutDirString, "second/second_ContextMap.puml")).exists();
+    }
+
+    @Test
+    @DisplayName("run() should generate for all CML files in a directory")
+    void run_WhenCalledWithDirectory_ThenGenerateForAllFiles() {
+        // Given
+        String[] args = { "generate", "-i", "src/test/resources/multiple", "-g", "plantuml", "-o", testOutDirString };
+
+        // When
+        int exitCode = cmd.execute(args);
+
+        // Then
+        assertThat(exitCode).isEqualTo(0);
+        assertThat(new File(testOutDirString, "first/first_ContextMap.puml")).exists();
+        assertThat(new File(testOutDirString, "sub/second/second_ContextMap.puml")).exists();
+    }
+
+    @Test
+    @DisplayName("run() should print error when a glob pattern does not match any CML file")
+    void run_WhenGlobPatternDoesNotMatch_ThenPrintError() {
+        // Given
+        String[] args = { "generate", "-i", "src/test/resources/*.txt", "-g", "plantuml", "-o", testOutDirString };
+
+        // When
+        int exitCode = cmd.execute(args);
+
+        // Then
+        assertThat(exitCode).isEqualTo(1);
+        assertThat(errContent.toString()).contains("ERROR: The pattern 'src/test/resources/*.txt' does not match any CML (*.cml) files.");
+    }
+
+    @Test
+    @DisplayName("run() should call all generators when multiple generators are specified")
+    void run_WhenCalledWithMultipleGenerators_ThenGenerateOutputOfAllGenerators() {
+        // Given
+        String[] args = { "generate", "-i", "src/test/resources/test.cml", "-g", "plantuml,context-map", "-g", "generic",
+                "-o", testOutDirString, "-t", "src/test/resources/test.ftl", "-f", "first.md",
+                "-t", "src/test/resources/test.ftl", "-f", "second.md" };
+
+        // When
+        int exitCode = cmd.execute(args);
+
+        // Then
+        assertThat(exitCode).isEqualTo(0);
+        assertThat(outContent.toString()).contains("Generated into '" + testOutDirString + "'.");
+        assertThat(new File(testOutDirString, "test_ContextMap.puml")).exists();
+        assertThat(new File(testOutDirString, "test_ContextMap.svg")).exists();
+        assertThat(new File(testOutDirString, "first.md")).exists();
+        assertThat(new File(testOutDirString, "second.md")).exists();
+    }
+
+    @Test
+    @DisplayName("run() should print error when templates and output files of the generic generator are not given in pairs")
+    void run_WhenGenericGeneratorTemplatesAndOutputFilesDoNotMatch_ThenPrintError() {
+        // Given
+        String[] args = { "generate", "-i", "src/test/resources/test.cml", "-g", "generic", "-o", testOutDirString,
+                "-t", "src/test/resources/test.ftl", "-t", "src/test/resources/test.ftl", "-f", "test.md" };
+
+        // When
+        int exitCode = cmd.execute(args);
+
+        // Then
+        assertThat(exitCode).isNotEqualTo(0);
+        assertThat(errContent.toString())
+                .contains("Please pass one --outputFile (-f) parameter per --template (-t) parameter for the 'generic' generator.");
+    }
+
+    @Test
+    @DisplayName("run() should skip the generation when called incrementally and nothing changed")
+    void run_WhenCalledIncrementallyWithoutChanges_ThenSkipGeneration() throws IOException {
+        // Given
+        Path inputFile = testOutPath.resolve("model.cml");
+        Files.copy(Path.of("src/test/resources/test.cml"), inputFile);
+        Path outDir = Files.createDirectory(testOutPath.resolve("out"));
+        String[] args = { "generate", "-i", inputFile.toString(), "-g", "plantuml", "-o", outDir.toString(), "--incremental" };
+        cmd.execute(args);
+        outContent.reset();
+
+        // When
+        int exitCode = new CommandLine(new ContextMapperCLI()).execute(args);
+
+        // Then
+        assertThat(exitCode).isEqualTo(0);
+        assertThat(outContent.toString()).contains("The output in '" + outDir + "' is up to date.");
+        assertThat(outDir.resolve(GenerationManifest.FILE_NAME)).exists();
+    }
+
+    @Test
+    @DisplayName("run() should generate again when called incrementally and the CML file changed")
+    void run_WhenCalledIncrementallyWithChangedInput_ThenGenerate() throws IOException {
+        // Given
+        Path inputFile = testOutPath.resolve("model.cml");
+        Files.copy(Path.of("src/test/resources/test.cml"), inputFile);
+        Path outDir = Files.createDirectory(testOutPath.resolve("out"));
+        String[] args = { "generate", "-i", inputFile.toString(), "-g", "plantuml", "-o", outDir.toString(), "--incremental" };
+        cmd.execute(args);
+        Files.writeString(inputFile, "\nBoundedContext AnotherContext\n", StandardOpenOption.APPEND);
+        outContent.reset();
+
+        // When
+        int exitCode = new CommandLine(new ContextMapperCLI()).execute(args);
+
+        // Then
+        assertThat(exitCode).isEqualTo(0);
+        assertThat(outContent.toString()).contains("Generated into '" + outDir + "'.");
+    }
+
+    @Test
+    @DisplayName("run() should generate again when called incrementally and a generated file has been deleted")
+    void run_WhenCalledIncrementallyWithDeletedOutput_ThenGenerate() throws IOException {
+        // Given
+        Path inputFile = testOutPath.resolve("model.cml");
+        Files.copy(Path.of("src/test/resources/test.cml"), inputFile);
+        Path outDir = Files.createDirectory(testOutPath.resolve("out"));
+        String[] args = { "generate", "-i", inputFile.toString(), "-g", "plantuml", "-o", outDir.toString(), "--incremental" };
+        cmd.execute(args);
+        Files.delete(outDir.resolve("model_ContextMap.puml"));
+        outContent.reset();
+
+        // When
+        int exitCode = new CommandLine(new ContextMapperCLI()).execute(args);
+
+        // Then
+        assertThat(exitCode).isEqualTo(0);
+        assertThat(outContent.toString()).contains("Generated into '" + outDir + "'.");
+        assertThat(outDir.resolve("model_ContextMap.puml")).exists();
+    }
+
+    @Test
+    @DisplayName("run() should write the manifest of the generated files and keep unchanged files")
+    void run_WhenGeneratedTwice_ThenKeepUnchangedFilesAndWriteOutputManifest() throws IOException {
+        // Given
+        String[] args = { "generate", "-i", "src/test/resources/test.cml", "-g", "plantuml", "-o", testOutDirString };
+        cmd.execute(args);
+        Path generatedFile = testOutPath.resolve("test_ContextMap.puml");
+        FileTime lastModified = FileTime.fromMillis(0);
+        Files.setLastModifiedTime(generatedFile, lastModified);
+
+        // When
+        int exitCode = new CommandLine(new ContextMapperCLI()).execute(args);
+
+        // Then
+        assertThat(exitCode).isEqualTo(0);
+        assertThat(Files.getLastModifiedTime(generatedFile)).isEqualTo(lastModified);
+        assertThat(Files.readAllLines(testOutPath.resolve(OutputManifest.FILE_NAME)))
+                .hasSize(4)
+                .contains(Checksums.sha256(generatedFile) + "  test_ContextMap.puml");
+    }
+
+    @Test
+    @DisplayName("run() should report an invalid template once before generating any CML file")
+    void run_WhenTemplateInvalid_ThenPrintErrorOnce() throws IOException {
+        // Given
+        Path templateFile = Files.writeString(testOutPath.resolve("broken.ftl"), "<#list boundedContexts as bc>\n");
+        Path outDir = Files.createDirectory(testOutPath.resolve("out"));
+        String[] args = { "generate", "-i", "src/test/resources/test.cml", "-i", "src/test/resources/test-with-error.cml",
+                "-g", "generic", "-t", templateFile.toString(), "-f", "out.md", "-o", outDir.toString() };
+
+        // When
+        int exitCode = cmd.execute(args);
+
+        // Then
+        assertThat(exitCode).isNotEqualTo(0);
+        assertThat(errContent.toString()).containsOnlyOnce("The template '" + templateFile + "' is invalid: ");
+        try (var files = Files.list(outDir)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
     @Test
     @DisplayName("run() should print error when generic generator is missing the template parameter")
     void run_WhenGenericGeneratorMissingTemplate_ThenPrintError() {
@@ -283,6 +694,7 @@ class GenerateCommandTest {
         assertThat(exitCode).isNotEqualTo(0);
         assertThat(errContent.toString())
                 .contains("Missing required option: '--input=<inputPath>'")
-                .contains("Usage: cm generate [-hV] [-f=<outputFileName>] [-g=<generatorType>]");
+                .contains("Usage: cm generate [-hV]")
+                .contains("-g, --generator=<generatorType>[,<generatorType>...]");
     }
 }
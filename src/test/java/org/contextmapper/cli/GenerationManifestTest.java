@@ -0,0 +1,83 @@
+package org.contextmapper.cli;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GenerationManifestTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path outputDir;
+    private CmlInput input;
+    private Path importedFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        outputDir = Files.createDirectory(tempDir.resolve("out"));
+        importedFile = tempDir.resolve("imported.cml");
+        Files.writeString(importedFile, "BoundedContext ImportedContext\n");
+        Path inputFile = tempDir.resolve("model.cml");
+        Files.writeString(inputFile, "import \"./imported.cml\"\nBoundedContext ModelContext\n");
+        input = new CmlInput(inputFile, "model");
+    }
+
+    @Test
+    @DisplayName("isUpToDate() should return true if nothing changed since the manifest has been written")
+    void isUpToDate_WhenNothingChanged_ThenReturnTrue() {
+        // Given
+        GenerationManifest.create(input, "plantuml", List.of()).write(outputDir);
+
+        // When / Then
+        assertThat(GenerationManifest.create(input, "plantuml", List.of()).isUpToDate(outputDir)).isTrue();
+    }
+
+    @Test
+    @DisplayName("isUpToDate() should return false if no manifest has been written")
+    void isUpToDate_WhenNoManifestExists_ThenReturnFalse() {
+        assertThat(GenerationManifest.create(input, "plantuml", List.of()).isUpToDate(outputDir)).isFalse();
+    }
+
+    @Test
+    @DisplayName("isUpToDate() should return false if an imported file changed")
+    void isUpToDate_WhenImportedFileChanged_ThenReturnFalse() throws IOException {
+        // Given
+        GenerationManifest.create(input, "plantuml", List.of()).write(outputDir);
+        Files.writeString(importedFile, "BoundedContext RenamedContext\n");
+
+        // When / Then
+        assertThat(GenerationManifest.create(input, "plantuml", List.of()).isUpToDate(outputDir)).isFalse();
+    }
+
+    @Test
+    @DisplayName("isUpToDate() should return false if the generator configuration changed")
+    void isUpToDate_WhenConfigurationChanged_ThenReturnFalse() {
+        // Given
+        GenerationManifest.create(input, "plantuml", List.of()).write(outputDir);
+
+        // When / Then
+        assertThat(GenerationManifest.create(input, "context-map", List.of()).isUpToDate(outputDir)).isFalse();
+    }
+
+    @Test
+    @DisplayName("isUpToDate() should return false if a template changed")
+    void isUpToDate_WhenTemplateChanged_ThenReturnFalse() throws IOException {
+        // Given
+        Path template = tempDir.resolve("template.ftl");
+        Files.writeString(template, "first");
+        GenerationManifest.create(input, "generic", List.of(template)).write(outputDir);
+        Files.writeString(template, "second");
+
+        // When / Then
+        assertThat(GenerationManifest.create(input, "generic", List.of(template)).isUpToDate(outputDir)).isFalse();
+    }
+}
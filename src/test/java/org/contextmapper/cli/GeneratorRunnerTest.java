@@ -0,0 +1,50 @@
+package org.contextmapper.cli;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.contextmapper.dsl.generator.ContextMapGenerator;
+import org.contextmapper.dsl.generator.GenericContentGenerator;
+import org.contextmapper.dsl.generator.PlantUMLGenerator;
+import org.eclipse.xtext.generator.IGenerator2;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class GeneratorRunnerTest {
+
+    @ParameterizedTest
+    @EnumSource(ContextMapperGenerator.class)
+    void createGenerator_WhenCalled_ThenReturnGeneratorImplementation(final ContextMapperGenerator generator) {
+        // Given
+        // generator is provided by @EnumSource
+
+        // When
+        final IGenerator2 generatorImpl = GeneratorRunner.createGenerator(generator);
+
+        // Then
+        assertThat(generatorImpl).isInstanceOf(switch (generator) {
+            case CONTEXT_MAP -> ContextMapGenerator.class;
+            case PLANT_UML -> PlantUMLGenerator.class;
+            case GENERIC -> GenericContentGenerator.class;
+        });
+    }
+
+    @Test
+    @DisplayName("getGenerators() should create one context map generator for all selected formats")
+    void getGenerators_WhenMultipleContextMapFormatsSelected_ThenCreateOneContextMapGenerator() {
+        // Given
+        ContextMapOptions options = new ContextMapOptions(List.of(ContextMapFormatOption.SVG, ContextMapFormatOption.PNG,
+                ContextMapFormatOption.SVG), null, 600, 2);
+        GeneratorRunner runner = new GeneratorRunner(List.of(ContextMapperGenerator.CONTEXT_MAP, ContextMapperGenerator.PLANT_UML),
+                List.of(), List.of(), options, PlantUMLOptions.defaults(), ModelSlice.all(), null, Metrics.disabled());
+
+        // When
+        List<IGenerator2> generators = runner.getGenerators();
+
+        // Then
+        assertThat(generators).hasExactlyElementsOfTypes(ContextMapGenerator.class, PlantUMLGenerator.class);
+    }
+}
@@ -0,0 +1,103 @@
+package org.contextmapper.cli;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GitChangesTest {
+
+    @TempDir
+    Path repository;
+
+    @BeforeEach
+    void setUp() throws IOException, InterruptedException {
+        Files.createDirectories(repository.resolve("models"));
+        Files.writeString(repository.resolve("models/changed.cml"), "BoundedContext A\n");
+        Files.writeString(repository.resolve("models/deleted.cml"), "BoundedContext B\n");
+        Files.writeString(repository.resolve("models/unchanged.cml"), "BoundedContext C\n");
+        Files.writeString(repository.resolve(".gitignore"), "*.tmp\n");
+        git("init", "-q");
+        git("add", ".");
+        git("-c", "user.name=test", "-c", "user.email=test@example.com", "commit", "-q", "-m", "models");
+    }
+
+    @Test
+    @DisplayName("getChangedFiles() should return the changed, deleted and untracked files")
+    void getChangedFiles_WhenFilesChanged_ThenReturnThem() throws IOException, InterruptedException {
+        // Given
+        Files.writeString(repository.resolve("models/changed.cml"), "BoundedContext A2\n");
+        Files.delete(repository.resolve("models/deleted.cml"));
+        Files.writeString(repository.resolve("models/new.cml"), "BoundedContext D\n");
+        Files.writeString(repository.resolve("models/ignored.tmp"), "");
+
+        // When
+        List<Path> changedFiles = new ArrayList<>(GitChanges.getChangedFiles(repository.resolve("models"), "HEAD"));
+
+        // Then
+        Path models = repository.resolve("models").toAbsolutePath().normalize();
+        assertThat(changedFiles).containsExactlyInAnyOrder(models.resolve("changed.cml"), models.resolve("deleted.cml"), models.resolve("new.cml"));
+    }
+
+    @Test
+    @DisplayName("getChangedFiles() should return no files when nothing changed")
+    void getChangedFiles_WhenNothingChanged_ThenReturnNoFiles() throws InterruptedException {
+        assertThat(GitChanges.getChangedFiles(repository, "HEAD")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("getChangedFiles() should throw an exception when the revision does not exist")
+    void getChangedFiles_WhenRevisionUnknown_ThenThrowException() {
+        assertThatThrownBy(() -> GitChanges.getChangedFiles(repository, "unknown-branch"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("The files changed since 'unknown-branch' cannot be determined: ");
+    }
+
+    @Test
+    @Timeout(60)
+    @DisplayName("getChangedFiles() should not block when git writes much to stderr")
+    void getChangedFiles_WhenGitWritesManyWarnings_ThenReturnChangedFiles() throws IOException, InterruptedException {
+        // Given: git warns about the line endings of every changed file, more than a pipe buffer holds
+        Path generated = Files.createDirectories(repository.resolve("generated"));
+        for (int i = 0; i < 2000; i++) {
+            Files.writeString(generated.resolve("model" + i + ".cml"), "BoundedContext C" + i + "\n");
+        }
+        git("add", ".");
+        git("-c", "user.name=test", "-c", "user.email=test@example.com", "commit", "-q", "-m", "generated models");
+        git("config", "core.autocrlf", "true");
+        for (int i = 0; i < 2000; i++) {
+            Files.writeString(generated.resolve("model" + i + ".cml"), "BoundedContext D" + i + "\n");
+        }
+
+        // When
+        List<Path> changedFiles = new ArrayList<>(GitChanges.getChangedFiles(repository, "HEAD"));
+
+        // Then
+        assertThat(changedFiles).hasSize(2000);
+    }
+
+    @Test
+    @DisplayName("getChangedFiles() should throw an exception when the revision looks like an option")
+    void getChangedFiles_WhenRevisionStartsWithDash_ThenThrowException() {
+        assertThatThrownBy(() -> GitChanges.getChangedFiles(repository, "--output=changes.txt"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("The revision '--output=changes.txt' (--changed-since) is not valid.");
+    }
+
+    private void git(String... args) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(List.of("git"));
+        command.addAll(List.of(args));
+        Process process = new ProcessBuilder(command).directory(repository.toFile()).inheritIO().start();
+        assertThat(process.waitFor()).isZero();
+    }
+}
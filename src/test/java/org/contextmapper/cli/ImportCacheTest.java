@@ -0,0 +1,169 @@
+package org.contextmapper.cli;
+
+import org.contextmapper.dsl.cml.CMLResource;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImportCacheTest {
+
+    private static final Path CORE_FILE = Path.of("src/test/resources/imports/shared/core.cml");
+    private static final Path TYPES_FILE = Path.of("src/test/resources/imports/shared/types.cml");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("get() should load an imported file once and return it with the files it imports")
+    void get_WhenFileRequestedTwice_ThenReturnSameResources() {
+        // Given
+        ImportCache importCache = new ImportCache(ImportCache.DEFAULT_MAX_ENTRIES);
+        List<Resource> resources = importCache.get(CORE_FILE, ModelCache.disabled());
+
+        // When
+        List<Resource> cachedResources = importCache.get(CORE_FILE.toAbsolutePath(), ModelCache.disabled());
+
+        // Then
+        assertThat(cachedResources).isSameAs(resources);
+        assertThat(resources).extracting(resource -> resource.getURI().lastSegment()).containsExactly("core.cml", "types.cml");
+        // types.cml has an entry of its own, which is shared by core.cml
+        assertThat(importCache.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("get() should load an imported file again if a file it imports changed")
+    void get_WhenTransitiveImportChanged_ThenLoadAgain() throws IOException {
+        // Given
+        Path coreFile = Files.copy(CORE_FILE, tempDir.resolve("core.cml"));
+        Path typesFile = Files.copy(TYPES_FILE, tempDir.resolve("types.cml"));
+        ImportCache importCache = new ImportCache(ImportCache.DEFAULT_MAX_ENTRIES);
+        List<Resource> resources = importCache.get(coreFile, ModelCache.disabled());
+        Files.writeString(typesFile, "BoundedContext ChangedContext\n");
+
+        // When
+        List<Resource> reloadedResources = importCache.get(coreFile, ModelCache.disabled());
+
+        // Then
+        assertThat(reloadedResources.get(0)).isNotSameAs(resources.get(0));
+    }
+
+    @Test
+    @DisplayName("get() should evict the least recently used entry if the cache is full")
+    void get_WhenCacheFull_ThenEvictLeastRecentlyUsedEntry() {
+        // Given
+        ImportCache importCache = new ImportCache(1);
+        List<Resource> resources = importCache.get(CORE_FILE, ModelCache.disabled());
+
+        // When
+        importCache.get(TYPES_FILE, ModelCache.disabled());
+
+        // Then
+        assertThat(importCache.size()).isEqualTo(1);
+        assertThat(importCache.get(CORE_FILE, ModelCache.disabled())).isNotSameAs(resources);
+    }
+
+    @Test
+    @DisplayName("clear() should evict all entries")
+    void clear_WhenEntriesCached_ThenLoadAgain() {
+        // Given
+        ImportCache importCache = new ImportCache(ImportCache.DEFAULT_MAX_ENTRIES);
+        List<Resource> resources = importCache.get(CORE_FILE, ModelCache.disabled());
+
+        // When
+        importCache.clear();
+
+        // Then
+        assertThat(importCache.size()).isZero();
+        assertThat(importCache.get(CORE_FILE, ModelCache.disabled())).isNotSameAs(resources);
+    }
+
+    @Test
+    @DisplayName("get() should return no resources for a file which does not exist")
+    void get_WhenFileMissing_ThenReturnEmptyList() {
+        // Given
+        ImportCache importCache = new ImportCache(ImportCache.DEFAULT_MAX_ENTRIES);
+
+        // When / Then
+        assertThat(importCache.get(tempDir.resolve("missing.cml"), ModelCache.disabled())).isEmpty();
+        assertThat(importCache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("get() should load the files of an import cycle together")
+    void get_WhenImportsAreCyclic_ThenLoadCycleTogether() throws IOException {
+        // Given
+        Path first = tempDir.resolve("first.cml");
+        Path second = tempDir.resolve("second.cml");
+        Files.writeString(first, "import \"./second.cml\"\nBoundedContext First\n");
+        Files.writeString(second, "import \"./first.cml\"\nBoundedContext Second\n");
+        ImportCache importCache = new ImportCache(ImportCache.DEFAULT_MAX_ENTRIES);
+
+        // When
+        List<Resource> resources = importCache.get(first, ModelCache.disabled());
+
+        // Then
+        assertThat(resources).extracting(resource -> resource.getURI().lastSegment()).containsExactly("first.cml", "second.cml");
+        assertThat(importCache.size()).isEqualTo(1);
+    }
+
+    @Test
+    @Timeout(60)
+    @DisplayName("get() should share an imported file with inputs linked in parallel")
+    void get_WhenInputsLinkedInParallel_ThenShareImportedFile() throws Exception {
+        // Given
+        int inputCount = 8;
+        Files.createDirectories(tempDir.resolve("shared"));
+        Files.copy(CORE_FILE, tempDir.resolve("shared/core.cml"));
+        Files.copy(TYPES_FILE, tempDir.resolve("shared/types.cml"));
+        List<Path> inputs = new ArrayList<>();
+        for (int i = 0; i < inputCount; i++) {
+            inputs.add(Files.writeString(tempDir.resolve("input" + i + ".cml"), "import \"./shared/core.cml\"\n\n"
+                    + "ContextMap InputMap {\n\tcontains Input" + i + "Context, CoreContext\n\n\tInput" + i + "Context <- CoreContext\n}\n\n"
+                    + "BoundedContext Input" + i + "Context\n"));
+        }
+        ImportCache importCache = new ImportCache(ImportCache.DEFAULT_MAX_ENTRIES);
+        CyclicBarrier start = new CyclicBarrier(inputCount);
+        ExecutorService executor = Executors.newFixedThreadPool(inputCount);
+
+        // When
+        List<Future<CMLResource>> results = new ArrayList<>();
+        List<CMLResource> cmlResources = new ArrayList<>();
+        try {
+            for (Path input : inputs) {
+                results.add(executor.submit(() -> {
+                    CmlResourceLoader loader = new CmlResourceLoader(importCache, ModelCache.disabled());
+                    start.await();
+                    CMLResource cmlResource = loader.load(input);
+                    loader.resolveAll();
+                    return cmlResource;
+                }));
+            }
+            for (Future<CMLResource> result : results) {
+                cmlResources.add(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        assertThat(cmlResources).allSatisfy(cmlResource -> assertThat(cmlResource.getErrors()).isEmpty());
+        assertThat(importCache.size()).isEqualTo(2);
+        List<Resource> sharedResources = importCache.get(tempDir.resolve("shared/core.cml"), ModelCache.disabled());
+        assertThat(sharedResources).extracting(resource -> resource.getURI().lastSegment()).containsExactly("core.cml", "types.cml");
+        assertThat(sharedResources).allSatisfy(resource -> assertThat(resource.getErrors()).isEmpty());
+    }
+}
@@ -0,0 +1,112 @@
+package org.contextmapper.cli;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImportGraphSchedulerTest {
+
+    private static final CmlInput MAIN = new CmlInput(Path.of("src/test/resources/imports/main.cml"), "main");
+    private static final CmlInput CORE = new CmlInput(Path.of("src/test/resources/imports/shared/core.cml"), "shared/core");
+    private static final CmlInput TYPES = new CmlInput(Path.of("src/test/resources/imports/shared/types.cml"), "shared/types");
+
+    @TempDir
+    Path tempDir;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(3);
+
+    @AfterEach
+    void shutDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("submit() should process imported input files before the files importing them")
+    void submit_WhenInputsImportEachOther_ThenProcessImportedFilesFirst() throws Exception {
+        // Given
+        ImportGraphScheduler scheduler = new ImportGraphScheduler(List.of(MAIN, CORE, TYPES), new CmlImportScanner());
+        List<String> processed = new CopyOnWriteArrayList<>();
+
+        // When
+        List<CompletableFuture<String>> results = scheduler.submit(executor, input -> {
+            processed.add(input.name());
+            return input.name();
+        });
+
+        // Then
+        assertThat(results.get(0).get()).isEqualTo("main");
+        assertThat(results.get(2).get()).isEqualTo("shared/types");
+        assertThat(processed).containsExactly("shared/types", "shared/core", "main");
+        assertThat(scheduler.getSharedFiles()).containsExactlyInAnyOrder(
+                CORE.file().toAbsolutePath().normalize(), TYPES.file().toAbsolutePath().normalize());
+        assertThat(scheduler.getCycles()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("submit() should process the files importing a failed file as well")
+    void submit_WhenImportedFileFails_ThenProcessImportingFiles() throws Exception {
+        // Given
+        ImportGraphScheduler scheduler = new ImportGraphScheduler(List.of(MAIN, CORE), new CmlImportScanner());
+
+        // When
+        List<CompletableFuture<String>> results = scheduler.submit(executor, input -> {
+            if (input == CORE) {
+                throw new IllegalStateException("failed");
+            }
+            return input.name();
+        });
+
+        // Then
+        assertThat(results.get(0).get()).isEqualTo("main");
+        assertThatThrownBy(() -> results.get(1).get()).isInstanceOf(ExecutionException.class).hasRootCauseMessage("failed");
+    }
+
+    @Test
+    @Timeout(10)
+    @DisplayName("submit() should not wait for files of the same import cycle")
+    void submit_WhenInputsAreCyclic_ThenProcessThemAndReportCycle() throws Exception {
+        // Given
+        Path first = tempDir.resolve("first.cml");
+        Path second = tempDir.resolve("second.cml");
+        Files.writeString(first, "import \"./second.cml\"\n");
+        Files.writeString(second, "import \"./first.cml\"\n");
+        ImportGraphScheduler scheduler = new ImportGraphScheduler(List.of(new CmlInput(first, "first"), new CmlInput(second, "second")),
+                new CmlImportScanner());
+
+        // When
+        List<CompletableFuture<String>> results = scheduler.submit(executor, CmlInput::name);
+
+        // Then
+        assertThat(results.get(0).get()).isEqualTo("first");
+        assertThat(results.get(1).get()).isEqualTo("second");
+        assertThat(scheduler.getSharedFiles()).isEmpty();
+        assertThat(scheduler.getCycles()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("describeCycle() should list the files of the cycle relative to the working directory")
+    void describeCycle_WhenFilesInWorkingDir_ThenUseRelativePaths() {
+        // Given
+        Path first = Path.of("src/test/resources/imports/main.cml").toAbsolutePath();
+        Path second = Path.of("src/test/resources/imports/shared/core.cml").toAbsolutePath();
+
+        // When / Then
+        assertThat(ImportGraphScheduler.describeCycle(List.of(first, second, first)))
+                .isEqualTo("src/test/resources/imports/main.cml -> src/test/resources/imports/shared/core.cml -> src/test/resources/imports/main.cml");
+    }
+}
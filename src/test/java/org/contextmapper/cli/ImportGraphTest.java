@@ -0,0 +1,72 @@
+package org.contextmapper.cli;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImportGraphTest {
+
+    private static final Path MAIN_FILE = Path.of("src/test/resources/imports/main.cml").toAbsolutePath();
+    private static final Path CORE_FILE = Path.of("src/test/resources/imports/shared/core.cml").toAbsolutePath();
+    private static final Path TYPES_FILE = Path.of("src/test/resources/imports/shared/types.cml").toAbsolutePath();
+
+    @TempDir
+    Path tempDir;
+
+    private final CmlImportScanner scanner = new CmlImportScanner();
+
+    @Test
+    @DisplayName("scan() should build the graph of the given files and all files they import")
+    void scan_WhenFilesHaveImports_ThenContainImportedFiles() {
+        // When
+        ImportGraph graph = ImportGraph.scan(List.of(MAIN_FILE), scanner);
+
+        // Then
+        assertThat(graph.getImports(MAIN_FILE)).containsExactly(CORE_FILE);
+        assertThat(graph.getTransitiveImports(MAIN_FILE)).containsExactly(CORE_FILE, TYPES_FILE);
+        assertThat(graph.getImportingFiles(List.of(TYPES_FILE))).containsExactly(TYPES_FILE, CORE_FILE, MAIN_FILE);
+        assertThat(graph.getCycles()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("getCycles() should return the path of an import cycle")
+    void getCycles_WhenImportsAreCyclic_ThenReturnCycle() throws IOException {
+        // Given
+        Path first = write("first.cml", "import \"./second.cml\"\n");
+        Path second = write("second.cml", "import \"./third.cml\"\n");
+        Path third = write("third.cml", "import \"./first.cml\"\n");
+        Path importing = write("importing.cml", "import \"./first.cml\"\n");
+
+        // When
+        List<List<Path>> cycles = ImportGraph.scan(List.of(importing), scanner).getCycles();
+
+        // Then
+        assertThat(cycles).hasSize(1);
+        List<Path> cycle = cycles.get(0);
+        assertThat(cycle).hasSize(4).doesNotContain(importing).containsAll(List.of(first, second, third));
+        assertThat(cycle.get(0)).isEqualTo(cycle.get(3));
+    }
+
+    @Test
+    @DisplayName("getCycles() should return a file importing itself")
+    void getCycles_WhenFileImportsItself_ThenReturnCycle() throws IOException {
+        // Given
+        Path file = write("self.cml", "import \"./self.cml\"\n");
+
+        // When / Then
+        assertThat(ImportGraph.scan(List.of(file), scanner).getCycles()).containsExactly(List.of(file, file));
+    }
+
+    private Path write(String fileName, String content) throws IOException {
+        Path file = tempDir.resolve(fileName).toAbsolutePath().normalize();
+        Files.writeString(file, content);
+        return file;
+    }
+}
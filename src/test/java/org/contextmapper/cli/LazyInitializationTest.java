@@ -0,0 +1,118 @@
+package org.contextmapper.cli;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the CLI in an isolated class loader to check that commands which do not need a model (help, version, invalid
+ * arguments) do not load the classes of Xtext, EMF, Guice, Freemarker, or the CML language.
+ */
+class LazyInitializationTest {
+
+    private static final List<String> DSL_PACKAGES = List.of(
+            "org.eclipse.xtext.", "org.eclipse.emf.", "org.contextmapper.dsl.", "com.google.inject.", "freemarker.");
+    // the return type of the deprecated ContextMapperGenerator.getGenerator(), resolved when picocli looks up the
+    // constants of the enum; loading the interface does not initialize the CML language
+    private static final Set<String> ALLOWED_CLASSES = Set.of("org.eclipse.xtext.generator.IGenerator2");
+
+    private final PrintStream originalOut = System.out;
+    private final PrintStream originalErr = System.err;
+
+    @BeforeEach
+    void setUp() {
+        System.setOut(new PrintStream(new ByteArrayOutputStream()));
+        System.setErr(new PrintStream(new ByteArrayOutputStream()));
+    }
+
+    @AfterEach
+    void restoreStreams() {
+        System.setOut(originalOut);
+        System.setErr(originalErr);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "--version",
+            "--help",
+            "validate --help",
+            "generate --help",
+            "serve --help",
+            "synth --help",
+            "validate",
+            "generate -i src/test/resources/test.cml",
+            "validate -i src/test/resources/test.txt",
+            "validate -i nonexistent.cml",
+            "generate -i nonexistent.cml -g plantuml",
+            "generate -i src/test/resources/test.cml -g unknown",
+            "generate -i src/test/resources/test.cml -g plantuml --plantuml-include Context.",
+            "generate -i src/test/resources/test.cml -g plantuml --context CargoBookingContext --depth -1",
+            "generate -i src/test/resources/test.cml -g generic"
+    })
+    @DisplayName("runCLI() should not load the CML language for commands which do not need a model")
+    void runCLI_WhenNoModelNeeded_ThenDoNotLoadDslClasses(final String arguments) throws Exception {
+        // Given
+        RecordingClassLoader classLoader = new RecordingClassLoader();
+
+        // When
+        try (classLoader) {
+            classLoader.loadClass(ContextMapperCLI.class.getName())
+                    .getMethod("runCLI", String[].class)
+                    .invoke(null, (Object) arguments.split(" "));
+        }
+
+        // Then
+        assertThat(classLoader.getLoadedClasses()).contains(ContextMapperCLI.class.getName());
+        assertThat(classLoader.getLoadedClasses())
+                .filteredOn(className -> DSL_PACKAGES.stream().anyMatch(className::startsWith))
+                .filteredOn(className -> !ALLOWED_CLASSES.contains(className))
+                .isEmpty();
+    }
+
+    /**
+     * Loads all classes of the class path itself (instead of delegating to the application class loader, which has
+     * loaded them for other tests already) and records their names.
+     */
+    private static class RecordingClassLoader extends URLClassLoader {
+
+        private final Set<String> loadedClasses = ConcurrentHashMap.newKeySet();
+
+        RecordingClassLoader() throws MalformedURLException {
+            super(getClassPath(), ClassLoader.getPlatformClassLoader());
+        }
+
+        @Override
+        protected Class<?> findClass(final String name) throws ClassNotFoundException {
+            Class<?> loadedClass = super.findClass(name);
+            loadedClasses.add(name);
+            return loadedClass;
+        }
+
+        Set<String> getLoadedClasses() {
+            return loadedClasses;
+        }
+
+        private static URL[] getClassPath() throws MalformedURLException {
+            List<URL> urls = new ArrayList<>();
+            for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+                urls.add(new File(entry).toURI().toURL());
+            }
+            return urls.toArray(URL[]::new);
+        }
+    }
+}
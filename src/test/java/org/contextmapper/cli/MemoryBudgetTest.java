@@ -0,0 +1,128 @@
+package org.contextmapper.cli;
+
+import org.eclipse.emf.ecore.EObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MemoryBudgetTest {
+
+    @Test
+    @DisplayName("parseSize() should accept bytes, kilobytes, megabytes and gigabytes")
+    void parseSize_WhenUnitGiven_ThenReturnBytes() {
+        assertThat(MemoryBudget.parseSize("4096")).isEqualTo(4096);
+        assertThat(MemoryBudget.parseSize("512k")).isEqualTo(512L * 1024);
+        assertThat(MemoryBudget.parseSize("1536M")).isEqualTo(1536L * 1024 * 1024);
+        assertThat(MemoryBudget.parseSize("2gb")).isEqualTo(2L * 1024 * 1024 * 1024);
+    }
+
+    @Test
+    @DisplayName("parseSize() should throw an exception when the size is not valid")
+    void parseSize_WhenSizeInvalid_ThenThrowException() {
+        assertThatThrownBy(() -> MemoryBudget.parseSize("0m"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("The --memory-budget parameter '0m' is not valid; please pass a size such as 1536m or 2g.");
+        assertThatThrownBy(() -> MemoryBudget.parseSize("2 tb")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("enabled() should use 75% of the maximum heap when no size is given")
+    void enabled_WhenNoSizeGiven_ThenUsePartOfMaximumHeap() {
+        // When
+        MemoryBudget memoryBudget = MemoryBudget.enabled("", new ImportCache(1));
+
+        // Then
+        assertThat(memoryBudget.isEnabled()).isTrue();
+        assertThat(memoryBudget.getBudgetBytes()).isEqualTo((long) (Runtime.getRuntime().maxMemory() * 0.75));
+    }
+
+    @Test
+    @DisplayName("release() should unload the models of the processed input and record the peak heap")
+    void release_WhenInputProcessed_ThenUnloadModels() throws InterruptedException {
+        // Given
+        MemoryBudget memoryBudget = MemoryBudget.enabled("2g", new ImportCache(1));
+        CmlResourceLoader loader = new CmlResourceLoader();
+        memoryBudget.acquire();
+        EObject model = loader.load(Path.of("src/test/resources/test.cml")).getContents().get(0);
+
+        // When
+        memoryBudget.release(loader);
+
+        // Then
+        assertThat(model.eIsProxy()).isTrue();
+        assertThat(memoryBudget.getPeakHeapBytes()).isPositive();
+        assertThat(memoryBudget.describe()).matches("Peak heap usage: \\d+ MB \\(memory budget: 2048 MB\\)\\.");
+    }
+
+    @Test
+    @Timeout(10)
+    @DisplayName("getPeakHeapBytes() should include the heap used while an input is processed")
+    void getPeakHeapBytes_WhenHeapFreedBeforeRelease_ThenIncludeItsPeak() throws InterruptedException {
+        // Given
+        MemoryBudget memoryBudget = MemoryBudget.enabled("2g", new ImportCache(1));
+        memoryBudget.acquire();
+
+        // When
+        byte[] model = new byte[64 << 20];
+        model[model.length - 1] = 1;
+        model = null;
+        System.gc();
+        while (memoryBudget.getPeakHeapBytes() < 64 << 20) {
+            Thread.sleep(20);
+        }
+        memoryBudget.release(new CmlResourceLoader());
+
+        // Then
+        assertThat(memoryBudget.getPeakHeapBytes()).isGreaterThanOrEqualTo(64 << 20);
+    }
+
+    @Test
+    @Timeout(10)
+    @DisplayName("acquire() should wait for the running input when the heap exceeds the budget")
+    void acquire_WhenBudgetExceeded_ThenWaitForRunningInput() throws Exception {
+        // Given
+        ImportCache importCache = new ImportCache(1);
+        importCache.get(Path.of("src/test/resources/imports/shared/types.cml"), ModelCache.disabled());
+        MemoryBudget memoryBudget = MemoryBudget.enabled("1k", importCache);
+        memoryBudget.acquire();
+
+        // When
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> {
+            try {
+                memoryBudget.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // Then
+        Thread.sleep(200);
+        assertThat(second).isNotDone();
+        assertThat(importCache.size()).isZero();
+        memoryBudget.release(new CmlResourceLoader());
+        second.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("acquire() and release() should do nothing when disabled")
+    void acquire_WhenDisabled_ThenDoNothing() throws InterruptedException {
+        // Given
+        MemoryBudget memoryBudget = MemoryBudget.disabled();
+
+        // When
+        memoryBudget.acquire();
+        memoryBudget.acquire();
+        memoryBudget.release(new CmlResourceLoader());
+
+        // Then
+        assertThat(memoryBudget.isEnabled()).isFalse();
+        assertThat(memoryBudget.getPeakHeapBytes()).isZero();
+    }
+}
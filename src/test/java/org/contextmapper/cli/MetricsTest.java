@@ -0,0 +1,93 @@
+package org.contextmapper.cli;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MetricsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("measure() should sum up all executions of a phase")
+    void measure_WhenPhaseRunsTwice_ThenCountBothExecutions() {
+        // Given
+        Metrics metrics = Metrics.enabled("test");
+
+        // When
+        String result = metrics.measure("parse", () -> "model");
+        metrics.run("parse", () -> { });
+
+        // Then
+        assertThat(result).isEqualTo("model");
+        assertThat(metrics.toJson())
+                .contains("\"command\": \"test\"")
+                .contains("{\"name\": \"parse\", \"count\": 2, ")
+                .containsPattern("\"peakHeapBytes\": [1-9]");
+    }
+
+    @Test
+    @DisplayName("measure() should record the phase if the action fails")
+    void measure_WhenActionThrows_ThenRecordPhaseAndRethrow() {
+        // Given
+        Metrics metrics = Metrics.enabled("test");
+
+        // When / Then
+        assertThatThrownBy(() -> metrics.run("write", () -> {
+            throw new IOException("disk full");
+        })).isInstanceOf(IOException.class).hasMessage("disk full");
+        assertThat(metrics.toJson()).contains("{\"name\": \"write\", \"count\": 1, ");
+    }
+
+    @Test
+    @DisplayName("count() should sum up the values of a counter")
+    void count_WhenCalledTwice_ThenSumValues() {
+        // Given
+        Metrics metrics = Metrics.enabled("test");
+
+        // When
+        metrics.count("resources", 2);
+        metrics.count("resources", 3);
+
+        // Then
+        assertThat(metrics.toJson()).contains("\"resources\": 5");
+    }
+
+    @Test
+    @DisplayName("disabled metrics should run the phases without recording them")
+    void disabled_WhenPhaseRuns_ThenOnlyRunAction() {
+        // Given
+        Metrics metrics = Metrics.disabled();
+
+        // When
+        String result = metrics.measure("parse", () -> "model");
+        metrics.count("resources", 1);
+
+        // Then
+        assertThat(metrics.isEnabled()).isFalse();
+        assertThat(result).isEqualTo("model");
+        assertThat(metrics.toJson()).doesNotContain("parse", "resources");
+    }
+
+    @Test
+    @DisplayName("write() should write the JSON into the given file")
+    void write_WhenFileGiven_ThenWriteJson() throws IOException {
+        // Given
+        Metrics metrics = Metrics.enabled("test");
+        Path metricsFile = tempDir.resolve("metrics.json");
+
+        // When
+        metrics.write(metricsFile.toString());
+
+        // Then
+        assertThat(Files.readString(metricsFile)).startsWith("{").contains("\"phases\": [", "\"counters\": {");
+    }
+}
@@ -0,0 +1,105 @@
+package org.contextmapper.cli;
+
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ModelCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path cacheDir;
+    private Metrics metrics;
+    private ModelCache modelCache;
+
+    @BeforeEach
+    void setUp() {
+        // make sure the CML language is registered with EMF
+        StandaloneAPIProvider.get();
+        cacheDir = tempDir.resolve("cache");
+        metrics = Metrics.enabled("test");
+        modelCache = ModelCache.enabled(cacheDir, metrics);
+    }
+
+    @Test
+    @DisplayName("load() should load a stored model from the cache instead of parsing it")
+    void load_WhenModelStored_ThenLoadFromCache() {
+        // Given
+        Path cmlFile = Path.of("src/test/resources/test.cml");
+        Resource parsed = modelCache.load(new ResourceSetImpl(), cmlFile);
+        modelCache.store(parsed);
+
+        // When
+        Resource cached = modelCache.load(new ResourceSetImpl(), cmlFile);
+
+        // Then
+        assertThat(parsed).isNotInstanceOf(BinaryResourceImpl.class);
+        assertThat(cached).isInstanceOf(BinaryResourceImpl.class);
+        assertThat(cached.getURI()).isEqualTo(parsed.getURI());
+        assertThat(cached.getContents()).hasSameSizeAs(parsed.getContents());
+        assertThat(metrics.toJson()).contains("\"modelCacheMisses\": 1", "\"modelCacheHits\": 1");
+    }
+
+    @Test
+    @DisplayName("load() should parse a file again if it changed since its model has been stored")
+    void load_WhenFileChanged_ThenParseAgain() throws IOException {
+        // Given
+        Path cmlFile = Files.copy(Path.of("src/test/resources/test.cml"), tempDir.resolve("model.cml"));
+        modelCache.store(modelCache.load(new ResourceSetImpl(), cmlFile));
+        Files.writeString(cmlFile, "\nBoundedContext AnotherContext\n", StandardOpenOption.APPEND);
+
+        // When
+        Resource resource = modelCache.load(new ResourceSetImpl(), cmlFile);
+
+        // Then
+        assertThat(resource).isNotInstanceOf(BinaryResourceImpl.class);
+    }
+
+    @Test
+    @DisplayName("store() should not store models with errors")
+    void store_WhenModelHasErrors_ThenDoNotStore() throws IOException {
+        // Given
+        Resource resource = modelCache.load(new ResourceSetImpl(), Path.of("src/test/resources/test-with-error.cml"));
+
+        // When
+        modelCache.store(resource);
+
+        // Then
+        try (var files = Files.list(cacheDir)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("load() should parse the file if the cached model is corrupt")
+    void load_WhenCacheFileCorrupt_ThenParseAgain() throws IOException {
+        // Given
+        Path cmlFile = Path.of("src/test/resources/test.cml");
+        modelCache.store(modelCache.load(new ResourceSetImpl(), cmlFile));
+        try (var files = Files.list(cacheDir)) {
+            Files.writeString(files.findFirst().orElseThrow(), "corrupt");
+        }
+
+        // When
+        Resource resource = modelCache.load(new ResourceSetImpl(), cmlFile);
+
+        // Then
+        assertThat(resource).isNotInstanceOf(BinaryResourceImpl.class);
+        assertThat(resource.getContents()).isNotEmpty();
+        try (var files = Files.list(cacheDir)) {
+            assertThat(files).isEmpty();
+        }
+    }
+}
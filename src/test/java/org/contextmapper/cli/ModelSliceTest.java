@@ -0,0 +1,65 @@
+package org.contextmapper.cli;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ModelSliceTest {
+
+    // A - B - C - D, and E on its own
+    private static final List<Map.Entry<String, String>> RELATIONSHIPS = List.of(
+            Map.entry("A", "B"), Map.entry("C", "B"), Map.entry("C", "D"));
+
+    @Test
+    @DisplayName("select() should only select the given bounded contexts if no depth is given")
+    void select_WhenNoDepth_ThenSelectGivenContextsOnly() {
+        // Given
+        ModelSlice slice = new ModelSlice(List.of("B"), List.of(), null);
+
+        // When
+        Set<String> selected = slice.select(Set.of("B"), RELATIONSHIPS);
+
+        // Then
+        assertThat(selected).containsExactly("B");
+    }
+
+    @Test
+    @DisplayName("select() should add the bounded contexts within the given number of relationship hops in both directions")
+    void select_WhenDepthGiven_ThenAddNeighbours() {
+        // Given
+        ModelSlice slice = new ModelSlice(List.of("A"), List.of(), 2);
+
+        // When
+        Set<String> selected = slice.select(Set.of("A", "E"), RELATIONSHIPS);
+
+        // Then
+        assertThat(selected).containsExactlyInAnyOrder("A", "B", "C", "E");
+    }
+
+    @Test
+    @DisplayName("check() should throw an exception if the depth is negative or given without a selection")
+    void check_WhenDepthInvalid_ThenThrowException() {
+        // When / Then
+        assertThatThrownBy(() -> new ModelSlice(List.of("A"), List.of(), -1).check())
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("The --depth parameter must not be negative.");
+        assertThatThrownBy(() -> new ModelSlice(List.of(), List.of(), 1).check())
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("The --depth parameter requires --context or --subdomain.");
+    }
+
+    @Test
+    @DisplayName("describe() should describe the slice, or nothing if the whole model is selected")
+    void describe_WhenCalled_ThenDescribeSlice() {
+        // When / Then
+        assertThat(ModelSlice.all().describe()).isEmpty();
+        assertThat(new ModelSlice(List.of("A"), List.of("Booking"), 1).describe())
+                .isEqualTo(" slice[contexts=[A] subdomains=[Booking] depth=1]");
+    }
+}
@@ -0,0 +1,93 @@
+package org.contextmapper.cli;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutputFileSystemAccessTest {
+
+    @TempDir
+    Path outputDir;
+
+    private final OutputManifest manifest = new OutputManifest();
+
+    @Test
+    @DisplayName("generateFile() should write new files into subdirectories and add them to the manifest")
+    void generateFile_WhenFileIsNew_ThenWriteFile() throws IOException {
+        // Given
+        OutputFileSystemAccess fileSystemAccess = new OutputFileSystemAccess(outputDir, manifest, Metrics.disabled());
+
+        // When
+        fileSystemAccess.generateFile("diagrams/model.puml", "@startuml\n@enduml\n");
+
+        // Then
+        assertThat(outputDir.resolve("diagrams/model.puml")).hasContent("@startuml\n@enduml\n");
+        assertThat(manifest.getFiles()).containsEntry("diagrams/model.puml", Checksums.sha256(outputDir.resolve("diagrams/model.puml")));
+        try (var files = Files.list(outputDir.resolve("diagrams"))) {
+            assertThat(files).containsExactly(outputDir.resolve("diagrams/model.puml"));
+        }
+    }
+
+    @Test
+    @DisplayName("generateFile() should not write a file whose content did not change")
+    void generateFile_WhenContentUnchanged_ThenKeepFile() throws IOException {
+        // Given
+        Path file = outputDir.resolve("model.gv");
+        Files.writeString(file, "digraph {}");
+        FileTime lastModified = FileTime.fromMillis(0);
+        Files.setLastModifiedTime(file, lastModified);
+        Metrics metrics = Metrics.enabled("test");
+        OutputFileSystemAccess fileSystemAccess = new OutputFileSystemAccess(outputDir, manifest, metrics);
+
+        // When
+        fileSystemAccess.generateFile("model.gv", new ByteArrayInputStream("digraph {}".getBytes(StandardCharsets.UTF_8)));
+
+        // Then
+        assertThat(Files.getLastModifiedTime(file)).isEqualTo(lastModified);
+        assertThat(manifest.getFiles()).containsKey("model.gv");
+        assertThat(metrics.toJson()).contains("\"filesUnchanged\": 1").doesNotContain("filesWritten");
+    }
+
+    @Test
+    @DisplayName("generateFile() should skip files rejected by the file filter")
+    void generateFile_WhenFileFiltered_ThenSkipFile() {
+        // Given
+        Metrics metrics = Metrics.enabled("test");
+        OutputFileSystemAccess fileSystemAccess = new OutputFileSystemAccess(outputDir, manifest, metrics,
+                fileName -> fileName.endsWith("_ContextMap.puml"));
+
+        // When
+        fileSystemAccess.generateFile("model_ContextMap.puml", "@startuml\n@enduml\n");
+        fileSystemAccess.generateFile("model_BC_Location.puml", "@startuml\n@enduml\n");
+
+        // Then
+        assertThat(outputDir.resolve("model_ContextMap.puml")).exists();
+        assertThat(outputDir.resolve("model_BC_Location.puml")).doesNotExist();
+        assertThat(manifest.getFiles()).containsOnlyKeys("model_ContextMap.puml");
+        assertThat(metrics.toJson()).contains("\"filesSkipped\": 1", "\"filesWritten\": 1");
+    }
+
+    @Test
+    @DisplayName("generateFile() should replace a file whose content changed")
+    void generateFile_WhenContentChanged_ThenReplaceFile() throws IOException {
+        // Given
+        Path file = outputDir.resolve("model.gv");
+        Files.writeString(file, "digraph {}");
+        OutputFileSystemAccess fileSystemAccess = new OutputFileSystemAccess(outputDir, manifest, Metrics.disabled());
+
+        // When
+        fileSystemAccess.generateFile("model.gv", "digraph { a }");
+
+        // Then
+        assertThat(file).hasContent("digraph { a }");
+    }
+}
@@ -0,0 +1,57 @@
+package org.contextmapper.cli;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutputManifestTest {
+
+    @TempDir
+    Path outputDir;
+
+    @Test
+    @DisplayName("write() should write the files sorted by path in the format of sha256sum")
+    void write_WhenFilesAdded_ThenWriteSortedChecksums() throws IOException {
+        // Given
+        OutputManifest manifest = new OutputManifest();
+        manifest.add("b.puml", "2222");
+        manifest.add("a/c.puml", "1111");
+
+        // When
+        manifest.write(outputDir);
+
+        // Then
+        assertThat(Files.readAllLines(outputDir.resolve(OutputManifest.FILE_NAME))).containsExactly("1111  a/c.puml", "2222  b.puml");
+        assertThat(OutputManifest.read(outputDir)).hasValueSatisfying(files -> assertThat(files).isEqualTo(manifest.getFiles()));
+    }
+
+    @Test
+    @DisplayName("isIntact() should return true only if all listed files are unchanged")
+    void isIntact_WhenListedFileChanged_ThenReturnFalse() throws IOException {
+        // Given
+        Path file = Files.writeString(outputDir.resolve("model.puml"), "@startuml\n@enduml\n");
+        OutputManifest manifest = new OutputManifest();
+        manifest.add("model.puml", Checksums.sha256(file));
+        manifest.write(outputDir);
+        boolean intactBeforeChange = OutputManifest.isIntact(outputDir);
+
+        // When
+        Files.writeString(file, "@startuml\nA\n@enduml\n");
+
+        // Then
+        assertThat(intactBeforeChange).isTrue();
+        assertThat(OutputManifest.isIntact(outputDir)).isFalse();
+    }
+
+    @Test
+    @DisplayName("isIntact() should return false if no manifest has been written")
+    void isIntact_WhenNoManifestExists_ThenReturnFalse() {
+        assertThat(OutputManifest.isIntact(outputDir)).isFalse();
+    }
+}
@@ -0,0 +1,102 @@
+package org.contextmapper.cli;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class PlantUMLOptionsTest {
+
+    @Test
+    @DisplayName("isSelective() should be false for the default options")
+    void isSelective_WhenDefaults_ThenReturnFalse() {
+        // Given
+        PlantUMLOptions options = PlantUMLOptions.defaults();
+
+        // When / Then
+        assertThat(options.isSelective()).isFalse();
+        assertThat(options.describe()).isEmpty();
+        assertThat(options.isFileSelected("model", "model_BC_AnyContext_AnyAggregate_StateDiagram.puml")).isTrue();
+    }
+
+    @Test
+    @DisplayName("isContextSelected() should match the include and exclude patterns with wildcards")
+    void isContextSelected_WhenPatternsGiven_ThenMatchWildcards() {
+        // Given
+        PlantUMLOptions options = create(List.of(PlantUMLDiagramKind.values()), List.of("Cargo*", "Location?ontext"), List.of("*Test*"));
+
+        // When / Then
+        assertThat(options.isContextSelected("CargoBookingContext")).isTrue();
+        assertThat(options.isContextSelected("LocationContext")).isTrue();
+        assertThat(options.isContextSelected("VoyagePlanningContext")).isFalse();
+        assertThat(options.isContextSelected("CargoTestContext")).isFalse();
+    }
+
+    @Test
+    @DisplayName("isAggregateSelected() should select the aggregates of included contexts unless they are excluded")
+    void isAggregateSelected_WhenAggregatePatternsGiven_ThenSelectMatchingAggregates() {
+        // Given
+        PlantUMLOptions options = create(List.of(PlantUMLDiagramKind.values()), List.of("Cargo*.*", "Location.Location"),
+                List.of("CargoBooking.*Internal"));
+
+        // When / Then
+        assertThat(options.isContextSelected("Location")).isTrue();
+        assertThat(options.isAggregateSelected("Location", "Location")).isTrue();
+        assertThat(options.isAggregateSelected("Location", "Tracking")).isFalse();
+        assertThat(options.isAggregateSelected("CargoBooking", "Cargo")).isTrue();
+        assertThat(options.isAggregateSelected("CargoBooking", "CargoInternal")).isFalse();
+        assertThat(options.isAggregateSelected("Voyage", "Voyage")).isFalse();
+    }
+
+    @Test
+    @DisplayName("isFileSelected() should derive the diagram kind and the bounded context from the file name")
+    void isFileSelected_WhenKindsAndPatternsGiven_ThenSelectMatchingDiagrams() {
+        // Given
+        PlantUMLOptions options = create(List.of(PlantUMLDiagramKind.CLASS, PlantUMLDiagramKind.STATE), List.of("Cargo_Booking"),
+                List.of("Cargo_Booking.Internal"));
+
+        // When / Then
+        assertThat(options.isFileSelected("model", "model_BC_Cargo_Booking.puml")).isTrue();
+        assertThat(options.isFileSelected("model", "model_BC_Cargo_Booking_Cargo_StateDiagram.puml")).isTrue();
+        assertThat(options.isFileSelected("model", "model_BC_Cargo_Booking_Internal_StateDiagram.puml")).isFalse();
+        assertThat(options.isFileSelected("model", "model_BC_Cargo_Booking_BookingFlow.puml")).isTrue();
+        assertThat(options.isFileSelected("model", "model_BC_Location.puml")).isFalse();
+        assertThat(options.isFileSelected("model", "model_ContextMap.puml")).isFalse();
+        assertThat(options.isFileSelected("model", "model_SD_Booking.puml")).isFalse();
+        assertThat(options.isFileSelected("model", "model_UseCases.puml")).isFalse();
+    }
+
+    @Test
+    @DisplayName("isFileSelected() should select the component and other diagrams by their kind")
+    void isFileSelected_WhenOnlyKindsGiven_ThenSelectDiagramsOfTheseKinds() {
+        // Given
+        PlantUMLOptions options = create(List.of(PlantUMLDiagramKind.COMPONENT, PlantUMLDiagramKind.OTHER), List.of(), List.of());
+
+        // When / Then
+        assertThat(options.isFileSelected("model", "model_ContextMap.puml")).isTrue();
+        assertThat(options.isFileSelected("model", "model_UseCases.puml")).isTrue();
+        assertThat(options.isFileSelected("model", "model_BC_Location.puml")).isFalse();
+        assertThat(options.isFileSelected("model", "model_SD_Booking.puml")).isFalse();
+        assertThat(options.describe()).isEqualTo("[component, other]");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "Context.", ".Aggregate", "Context.Aggregate.Entity"})
+    @DisplayName("NamePattern.parse() should throw an exception for invalid patterns")
+    void parse_WhenPatternInvalid_ThenThrowException(final String pattern) {
+        // When / Then
+        assertThatThrownBy(() -> PlantUMLOptions.NamePattern.parse(pattern))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("The pattern '" + pattern + "' is not valid");
+    }
+
+    private static PlantUMLOptions create(List<PlantUMLDiagramKind> diagrams, List<String> includes, List<String> excludes) {
+        return new PlantUMLOptions(diagrams, includes.stream().map(PlantUMLOptions.NamePattern::parse).toList(),
+                excludes.stream().map(PlantUMLOptions.NamePattern::parse).toList());
+    }
+}
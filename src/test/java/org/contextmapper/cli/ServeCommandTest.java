@@ -0,0 +1,183 @@
+package org.contextmapper.cli;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.OptionalInt;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServeCommandTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream errContent = new ByteArrayOutputStream();
+
+    private Path socket;
+    private ServeCommand daemon;
+    private CompletableFuture<Void> daemonRun;
+
+    @BeforeEach
+    void startDaemon() throws InterruptedException {
+        socket = tempDir.resolve("cm.sock");
+        daemon = new ServeCommand();
+        daemonRun = CompletableFuture.runAsync(() -> {
+            try {
+                daemon.serve(socket);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        waitUntilRunning(new DaemonClient(socket));
+    }
+
+    @AfterEach
+    void stopDaemon() {
+        daemon.shutdown();
+        daemonRun.join();
+    }
+
+    @Test
+    @DisplayName("run() should execute the command on the daemon and return its output")
+    void run_WhenDaemonIsRunning_ThenExecuteCommandOnDaemon() {
+        // Given
+        DaemonClient client = new DaemonClient(socket);
+        String[] args = { "validate", "-i", "src/test/resources/test.cml" };
+
+        // When
+        OptionalInt exitCode = client.run(args, new PrintStream(outContent), new PrintStream(errContent));
+
+        // Then
+        assertThat(exitCode).hasValue(0);
+        assertThat(outContent.toString())
+                .contains("The CML file 'src/test/resources/test.cml' has been validated without errors.");
+    }
+
+    @Test
+    @DisplayName("run() should return the output of stderr and the exit code of a failing command")
+    void run_WhenCommandFails_ThenReturnErrorOutputAndExitCode() {
+        // Given
+        DaemonClient client = new DaemonClient(socket);
+        String[] args = { "validate", "-i", "nonexistent.cml" };
+
+        // When
+        OptionalInt exitCode = client.run(args, new PrintStream(outContent), new PrintStream(errContent));
+
+        // Then
+        assertThat(exitCode).hasValue(1);
+        assertThat(errContent.toString()).contains("ERROR: The file 'nonexistent.cml' does not exist.");
+    }
+
+    @Test
+    @DisplayName("stop() should stop the daemon")
+    void stop_WhenDaemonIsRunning_ThenStopDaemon() {
+        // Given
+        DaemonClient client = new DaemonClient(socket);
+
+        // When
+        boolean stopped = client.stop();
+        daemonRun.join();
+
+        // Then
+        assertThat(stopped).isTrue();
+        assertThat(client.isRunning()).isFalse();
+        assertThat(socket).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("run() should return no exit code when the daemon runs another version")
+    void run_WhenDaemonVersionDiffers_ThenReturnEmpty() {
+        // Given
+        DaemonClient client = new DaemonClient(socket, "cli 0.0.1, cml 0.0.1");
+
+        // When
+        OptionalInt exitCode = client.run(new String[]{ "validate", "-i", "src/test/resources/test.cml" },
+                new PrintStream(outContent), new PrintStream(errContent));
+
+        // Then
+        assertThat(exitCode).isEmpty();
+        assertThat(outContent.toString()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("isOwnedByCurrentUser() should accept the socket of the daemon and reject missing files")
+    void isOwnedByCurrentUser_WhenSocketCreatedByUser_ThenReturnTrue() {
+        assertThat(DaemonClient.isOwnedByCurrentUser(socket)).isTrue();
+        assertThat(DaemonClient.isOwnedByCurrentUser(tempDir.resolve("other.sock"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("serve() should create the directory of the socket accessible only by the user")
+    void serve_WhenSocketDirectoryMissing_ThenCreateItForUserOnly() throws Exception {
+        // Given
+        Path otherSocket = tempDir.resolve("sockets/cm.sock");
+        ServeCommand otherDaemon = new ServeCommand();
+
+        // When
+        CompletableFuture<Void> otherRun = CompletableFuture.runAsync(() -> {
+            try {
+                otherDaemon.serve(otherSocket);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        waitUntilRunning(new DaemonClient(otherSocket));
+
+        // Then
+        try {
+            assertThat(new DaemonClient(otherSocket).isRunning()).isTrue();
+            assertThat(Files.getPosixFilePermissions(otherSocket.getParent())).isEqualTo(PosixFilePermissions.fromString("rwx------"));
+        } finally {
+            otherDaemon.shutdown();
+            otherRun.join();
+        }
+    }
+
+    @Test
+    @DisplayName("run() should return no exit code when no daemon is running")
+    void run_WhenNoDaemonIsRunning_ThenReturnEmpty() {
+        // Given
+        DaemonClient client = new DaemonClient(tempDir.resolve("other.sock"));
+
+        // When
+        OptionalInt exitCode = client.run(new String[]{ "validate", "-i", "src/test/resources/test.cml" },
+                new PrintStream(outContent), new PrintStream(errContent));
+
+        // Then
+        assertThat(exitCode).isEmpty();
+    }
+
+    @Test
+    @DisplayName("isForwardable() should only forward the validate and generate commands")
+    void isForwardable_WhenCalled_ThenOnlyAcceptValidateAndGenerate() {
+        assertThat(DaemonClient.isForwardable(new String[]{ "validate", "-i", "test.cml" })).isTrue();
+        assertThat(DaemonClient.isForwardable(new String[]{ "generate", "-i", "test.cml" })).isTrue();
+        assertThat(DaemonClient.isForwardable(new String[]{ "serve" })).isFalse();
+        assertThat(DaemonClient.isForwardable(new String[0])).isFalse();
+    }
+
+    @Test
+    @DisplayName("isForwardable() should not forward commands reading CML from stdin")
+    void isForwardable_WhenReadingStdin_ThenDoNotForward() {
+        assertThat(DaemonClient.isForwardable(new String[]{ "validate", "-i", "-" })).isFalse();
+        assertThat(DaemonClient.isForwardable(new String[]{ "generate", "--input=-", "-g", "plantuml" })).isFalse();
+        assertThat(DaemonClient.isForwardable(new String[]{ "generate", "-i", "test.cml", "-g", "plantuml", "-o", "-" })).isTrue();
+    }
+
+    private static void waitUntilRunning(DaemonClient client) throws InterruptedException {
+        for (int i = 0; i < 600 && !client.isRunning(); i++) {
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package org.contextmapper.cli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import picocli.CommandLine;
+
+class SynthCommandTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream errContent = new ByteArrayOutputStream();
+    private final PrintStream originalOut = System.out;
+    private final PrintStream originalErr = System.err;
+    private CommandLine cmd;
+
+    @BeforeEach
+    void setUp() {
+        System.setOut(new PrintStream(outContent));
+        System.setErr(new PrintStream(errContent));
+        cmd = new CommandLine(new ContextMapperCLI());
+    }
+
+    @AfterEach
+    void restoreStreams() {
+        System.setOut(originalOut);
+        System.setErr(originalErr);
+    }
+
+    @Test
+    @DisplayName("run() should generate a model which can be validated")
+    void run_WhenCalled_ThenGenerateValidModel() {
+        // Given
+        String[] args = { "synth", "-o", tempDir.toString(), "--contexts", "20", "--files", "3" };
+
+        // When
+        int exitCode = cmd.execute(args);
+        int validateExitCode = cmd.execute("validate", "-i", tempDir.resolve("synthetic.cml").toString());
+
+        // Then
+        assertThat(exitCode).isEqualTo(0);
+        assertThat(validateExitCode).isEqualTo(0);
+        assertThat(outContent.toString())
+                .contains("Generated a model with 20 bounded contexts and ")
+                .contains("(and 2 imported files).");
+        assertThat(tempDir.resolve("synthetic-1.cml")).isRegularFile();
+        assertThat(tempDir.resolve("synthetic-2.cml")).isRegularFile();
+    }
+
+    @Test
+    @DisplayName("run() should generate the same model for the same seed")
+    void run_WhenCalledTwiceWithSameSeed_ThenGenerateSameModel() throws IOException {
+        // Given
+        String[] args = { "synth", "-o", tempDir.toString(), "--seed", "42" };
+        String[] otherArgs = { "synth", "-o", tempDir.toString(), "--seed", "42", "-n", "other" };
+
+        // When
+        cmd.execute(args);
+        cmd.execute(otherArgs);
+
+        // Then
+        assertThat(Files.readString(tempDir.resolve("other.cml"))).isEqualTo(Files.readString(tempDir.resolve("synthetic.cml")));
+    }
+
+    @Test
+    @DisplayName("run() should print error when the output directory does not exist")
+    void run_WhenOutputDirDoesNotExist_ThenPrintError() {
+        // Given
+        String[] args = { "synth", "-o", tempDir.resolve("missing").toString() };
+
+        // When
+        int exitCode = cmd.execute(args);
+
+        // Then
+        assertThat(exitCode).isEqualTo(1);
+        assertThat(errContent.toString()).contains("ERROR: Output directory '" + tempDir.resolve("missing") + "' does not exist.");
+    }
+
+    @Test
+    @DisplayName("run() should print error when more files than bounded contexts are requested")
+    void run_WhenMoreFilesThanContexts_ThenPrintError() {
+        // Given
+        String[] args = { "synth", "-o", tempDir.toString(), "--contexts", "2", "--files", "3" };
+
+        // When
+        int exitCode = cmd.execute(args);
+
+        // Then
+        assertThat(exitCode).isNotEqualTo(0);
+        assertThat(errContent.toString()).contains("The --files parameter must be between 1 and the number of bounded contexts.");
+    }
+}
@@ -0,0 +1,109 @@
+package org.contextmapper.cli;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SyntheticModelGeneratorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("write() should distribute the bounded contexts to imported files")
+    void write_WhenMultipleFiles_ThenMainFileImportsParts() throws IOException {
+        // Given
+        SyntheticModelGenerator generator = new SyntheticModelGenerator(1, 5, 1, 1, 1, 2);
+
+        // When
+        List<Path> files = generator.write(tempDir, "model");
+
+        // Then
+        assertThat(files).containsExactly(tempDir.resolve("model.cml"), tempDir.resolve("model-1.cml"));
+        assertThat(new CmlImportScanner().getImports(files.get(0))).containsExactly(files.get(1).toAbsolutePath());
+        assertThat(Files.readString(files.get(0)))
+                .contains("contains Context4")
+                .contains("BoundedContext Context0 {")
+                .doesNotContain("BoundedContext Context1 {");
+        assertThat(Files.readString(files.get(1))).contains("BoundedContext Context1 {");
+    }
+
+    @Test
+    @DisplayName("write() should create a chain of entities per aggregate")
+    void write_WhenMultipleEntities_ThenEntitiesReferenceNextOne() throws IOException {
+        // Given
+        SyntheticModelGenerator generator = new SyntheticModelGenerator(1, 1, 0, 1, 3, 1);
+
+        // When
+        String model = Files.readString(generator.write(tempDir, "model").get(0));
+
+        // Then
+        assertThat(model).containsSubsequence(
+                "Entity Context0Aggregate0Entity0 {", "aggregateRoot", "- Context0Aggregate0Entity1 child",
+                "Entity Context0Aggregate0Entity1 {", "- Context0Aggregate0Entity2 child",
+                "Entity Context0Aggregate0Entity2 {");
+    }
+
+    @Test
+    @DisplayName("getRelationshipCount() should be the requested number of relationships per bounded context")
+    void getRelationshipCount_WhenEnoughPairs_ThenCreateRequestedRelationships() {
+        // Given
+        SyntheticModelGenerator generator = new SyntheticModelGenerator(1, 50, 3, 1, 1, 1);
+
+        // When
+        int relationships = generator.getRelationshipCount();
+
+        // Then
+        assertThat(relationships).isEqualTo(150);
+    }
+
+    @Test
+    @DisplayName("getRelationshipCount() should be limited by the number of pairs of bounded contexts")
+    void getRelationshipCount_WhenMoreRelationshipsThanPairs_ThenRelateEveryPairOnce() {
+        // Given
+        SyntheticModelGenerator generator = new SyntheticModelGenerator(1, 4, 100, 1, 1, 1);
+
+        // When
+        int relationships = generator.getRelationshipCount();
+
+        // Then
+        assertThat(relationships).isEqualTo(6);
+    }
+
+    @Test
+    @Timeout(10)
+    @DisplayName("getRelationshipCount() should relate every pair quickly when all possible relationships are requested")
+    void getRelationshipCount_WhenAllPairsRequested_ThenRelateEveryPair() {
+        // Given
+        SyntheticModelGenerator generator = new SyntheticModelGenerator(1, 1000, 999, 0, 1, 1);
+
+        // When
+        int relationships = generator.getRelationshipCount();
+
+        // Then
+        assertThat(relationships).isEqualTo(1000 * 999 / 2);
+    }
+
+    @Test
+    @DisplayName("write() should generate other relationships for another seed")
+    void write_WhenOtherSeed_ThenGenerateOtherModel() throws IOException {
+        // Given
+        SyntheticModelGenerator generator = new SyntheticModelGenerator(1, 50, 2, 0, 1, 1);
+        SyntheticModelGenerator otherGenerator = new SyntheticModelGenerator(2, 50, 2, 0, 1, 1);
+
+        // When
+        String model = Files.readString(generator.write(tempDir, "model").get(0));
+        String otherModel = Files.readString(otherGenerator.write(tempDir, "other").get(0));
+
+        // Then
+        assertThat(model).isNotEqualTo(otherModel);
+    }
+}
@@ -0,0 +1,86 @@
+package org.contextmapper.cli;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class TemplateSyntaxCheckerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final TemplateSyntaxChecker templateSyntaxChecker = new TemplateSyntaxChecker();
+
+    @Test
+    @DisplayName("check() should check an unchanged template only once")
+    void check_WhenTemplateUnchanged_ThenCheckOnlyOnce() {
+        // Given
+        templateSyntaxChecker.check(Path.of("src/test/resources/test.ftl").toFile());
+
+        // When
+        templateSyntaxChecker.check(Path.of("src/test/resources/test.ftl").toAbsolutePath().toFile());
+
+        // Then
+        assertThat(templateSyntaxChecker.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("check() should check a template again if its content changed")
+    void check_WhenTemplateChanged_ThenCheckAgain() throws IOException {
+        // Given
+        Path templateFile = Files.writeString(tempDir.resolve("template.ftl"), "${name}");
+        templateSyntaxChecker.check(templateFile.toFile());
+        Files.writeString(templateFile, "<#list boundedContexts as bc>\n${bc.name}\n");
+
+        // When / Then
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> templateSyntaxChecker.check(templateFile.toFile()))
+                .withMessageStartingWith("The template '" + templateFile + "' is invalid: ");
+        assertThat(templateSyntaxChecker.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("check() should throw an exception if the template has syntax errors")
+    void check_WhenTemplateInvalid_ThenThrowException() throws IOException {
+        // Given
+        Path templateFile = Files.writeString(tempDir.resolve("broken.ftl"), "<#list boundedContexts as bc>\n${bc.name}\n");
+
+        // When / Then
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> templateSyntaxChecker.check(templateFile.toFile()))
+                .withMessageStartingWith("The template '" + templateFile + "' is invalid: ");
+    }
+
+    @Test
+    @DisplayName("check() should accept a template including another template of its directory")
+    void check_WhenTemplateIncludesOtherTemplate_ThenAcceptIt() throws IOException {
+        // Given
+        Files.writeString(tempDir.resolve("header.ftl"), "# ${name}\n");
+        Path templateFile = Files.writeString(tempDir.resolve("report.ftl"), "<#include \"header.ftl\">\n${name}\n");
+
+        // When
+        templateSyntaxChecker.check(templateFile.toFile());
+
+        // Then
+        assertThat(templateSyntaxChecker.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("check() should throw an exception if the template does not exist")
+    void check_WhenTemplateMissing_ThenThrowException() {
+        // Given
+        Path templateFile = tempDir.resolve("missing.ftl");
+
+        // When / Then
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> templateSyntaxChecker.check(templateFile.toFile()))
+                .withMessageStartingWith("The template '" + templateFile + "' cannot be read: ");
+    }
+}
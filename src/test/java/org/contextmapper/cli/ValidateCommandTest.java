@@ -1,18 +1,29 @@
 package org.contextmapper.cli;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
 
 import picocli.CommandLine;
 
 class ValidateCommandTest {
 
+    @TempDir
+    Path tempDir;
+
     private final ByteArrayOutputStream outContent = new ByteArrayOutputStream();
     private final ByteArrayOutputStream errContent = new ByteArrayOutputStream();
     private final PrintStream originalOut = System.out;
@@ -44,7 +55,8 @@ class ValidateCommandTest {
         // Then
         assertThat(exitCode).isEqualTo(0);
         assertThat(outContent.toString())
-                .contains("Usage: cm validate [-hV] -i=<inputPath>")
+                .contains("Usage: cm validate [-hV]")
+                .contains("-i, --input=<inputPath>")
                 .contains("Validates a CML file.");
     }
 
@@ -78,6 +90,27 @@ class ValidateCommandTest {
                 .contains("ERROR in null on line 2:mismatched input '<EOF>' expecting RULE_CLOSE");
     }
 
+    @Test
+    @DisplayName("run() should validate the CML read from stdin")
+    void run_WhenCalledWithStdin_ThenValidateStdin() throws IOException {
+        // Given
+        InputStream originalIn = System.in;
+        System.setIn(new ByteArrayInputStream(Files.readAllBytes(Path.of("src/test/resources/test-with-error.cml"))));
+        String[] args = { "validate", "-i", "-", "--base-dir", "src/test/resources" };
+
+        // When
+        int exitCode;
+        try {
+            exitCode = cmd.execute(args);
+        } finally {
+            System.setIn(originalIn);
+        }
+
+        // Then
+        assertThat(exitCode).isEqualTo(1);
+        assertThat(errContent.toString()).contains("on line 2:mismatched input '<EOF>' expecting RULE_CLOSE");
+    }
+
     @Test
     @DisplayName("run() should print error when input file does not exist")
     void run_WhenInputFileDoesNotExist_ThenPrintError() {
@@ -121,6 +154,306 @@ class ValidateCommandTest {
         assertThat(exitCode).isNotEqualTo(0);
         assertThat(errContent.toString())
                 .contains("Missing required option: '--input=<inputPath>'")
-                .contains("Usage: cm validate [-hV] -i=<inputPath>");
+                .contains("Usage: cm validate [-hV]")
+                .contains("-i, --input=<inputPath>");
+    }
+
+    @Test
+    @DisplayName("run() should validate all CML files in a directory")
+    void run_WhenCalledWithDirectory_ThenValidateAllFiles() {
+        // Given
+        String[] args = { "validate", "-i", "src/test/resources/multiple", "--threads", "2" };
+
+        // When
+        int exitCode = cmd.execute(args);
+
+        // Then
+        assertThat(exitCode).isEqualTo(0);
+        assertThat(outContent.toString())
+                .containsSubsequence(
+                        "The CML file 'src/test/resources/multiple/first.cml' has been validated without errors.",
+                        "The CML file 'src/test/resources/multiple/sub/second.cml' has been validated without errors.",
+                        "Validated 2 CML files, 0 with errors.");
+    }
+
+    @Test
+    @DisplayName("run() should print the results in input order and fail if one of multiple CML files is invalid")
+    void run_WhenOneOfMultipleFilesIsInvalid_ThenPrintResultsInOrderAndFail() {
+        // Given
+        String[] args = { "validate",
+                "-i", "src/test/resources/test-with-error.cml",
+                "-i", "src/test/resources/test.cml",
+                "-i", "src/test/resources/multiple/first.cml" };
+
+        // When
+        int exitCode = cmd.execute(args);
+
+        // Then
+        assertThat(exitCode).isEqualTo(1);
+        assertThat(errContent.toString())
+                .contains("ERROR in src/test/resources/test-with-error.cml on line 2:mismatched input '<EOF>' expecting RULE_CLOSE");
+        assertThat(outContent.toString())
+                .containsSubsequence(
+                        "The CML file 'src/test/resources/test.cml' has been validated without errors.",
+                        "The CML file 'src/test/resources/multiple/first.cml' has been validated without errors.",
+                        "Validated 3 CML files, 1 with errors.");
+    }
+
+    @Test
+    @Timeout(60)
+    @DisplayName("run() should validate again when the CML file changes in watch mode")
+    void run_WhenCalledWithWatchAndFileChanges_ThenValidateAgain() throws IOException, InterruptedException {
+        // Given
+        Path inputFile = tempDir.resolve("model.cml");
+        Files.copy(Path.of("src/test/resources/test.cml"), inputFile);
+        String[] args = { "validate", "-i", inputFile.toString(), "--watch" };
+        Thread watchThread = new Thread(() -> cmd.execute(args));
+        watchThread.start();
+        waitForOutput(errContent, "Watching for changes");
+
+        // When
+        Files.copy(Path.of("src/test/resources/test-with-error.cml"), inputFile, StandardCopyOption.REPLACE_EXISTING);
+        waitForOutput(errContent, "mismatched input '<EOF>' expecting RULE_CLOSE");
+        watchThread.interrupt();
+        watchThread.join();
+
+        // Then
+        assertThat(outContent.toString())
+                .contains("The CML file '" + inputFile + "' has been validated without errors.")
+                .doesNotContain("Watching for changes");
+        assertThat(errContent.toString()).contains("mismatched input '<EOF>' expecting RULE_CLOSE");
+    }
+
+    private static void waitForOutput(ByteArrayOutputStream output, String expected) throws InterruptedException {
+        while (!output.toString().contains(expected)) {
+            Thread.sleep(50);
+        }
+    }
+
+    @Test
+    @DisplayName("run() should print the metrics as JSON when called with --metrics without file")
+    void run_WhenCalledWithMetricsWithoutFile_ThenPrintMetrics() {
+        // Given
+        String[] args = { "validate", "-i", "src/test/resources/test.cml", "--metrics" };
+
+        // When
+        int exitCode = cmd.execute(args);
+
+        // Then
+        assertThat(exitCode).isEqualTo(0);
+        assertThat(outContent.toString())
+                .contains("The CML file 'src/test/resources/test.cml' has been validated without errors.")
+                .contains("\"command\": \"validate\"")
+                .contains("\"name\": \"parse\"", "\"name\": \"link\"", "\"name\": \"validate\"")
+                .contains("\"inputs\": 1", "\"diagnostics\": 0");
+    }
+
+    @Test
+    @DisplayName("run() should report the peak heap usage on stderr when called with --memory-budget")
+    void run_WhenCalledWithMemoryBudget_ThenReportPeakHeapUsage() {
+        // Given
+        String[] args = { "validate", "-i", "src/test/resources/test-with-error.cml", "-i", "src/test/resources/test.cml",
+                "--format", "jsonl", "--memory-budget", "1g" };
+
+        // When
+        int exitCode = cmd.execute(args);
+
+        // Then
+        assertThat(exitCode).isEqualTo(1);
+        assertThat(outContent.toString().lines()).containsExactly(
+                "{\"file\": \"src/test/resources/test-with-error.cml\", \"line\": 2, \"column\": 1, \"severity\": \"error\", "
+                        + "\"code\": null, \"message\": \"mismatched input '<EOF>' expecting RULE_CLOSE\"}");
+        assertThat(errContent.toString()).containsPattern("Peak heap usage: \\d+ MB \\(memory budget: 1024 MB\\)\\.");
+    }
+
+    @Test
+    @DisplayName("run() should print an error when --memory-budget is not a size")
+    void run_WhenMemoryBudgetInvalid_ThenPrintError() {
+        // Given
+        String[] args = { "validate", "-i", "src/test/resources/test.cml", "--memory-budget", "lots" };
+
+        // When
+        int exitCode = cmd.execute(args);
+
+        // Then
+        assertThat(exitCode).isEqualTo(1);
+        assertThat(errContent.toString()).contains("The --memory-budget parameter 'lots' is not valid");
+    }
+
+    @Test
+    @DisplayName("run() should write one JSON object per diagnostic when called with --format jsonl")
+    void run_WhenCalledWithJsonLinesFormat_ThenWriteDiagnosticsAsJsonLines() {
+        // Given
+        String[] args = { "validate", "-i", "src/test/resources/test-with-error.cml", "-i", "src/test/resources/test.cml",
+                "--format", "jsonl" };
+
+        // When
+        int exitCode = cmd.execute(args);
+
+        // Then
+        assertThat(exitCode).isEqualTo(1);
+        assertThat(outContent.toString().lines()).containsExactly(
+                "{\"file\": \"src/test/resources/test-with-error.cml\", \"line\": 2, \"column\": 1, \"severity\": \"error\", "
+                        + "\"code\": null, \"message\": \"mismatched input '<EOF>' expecting RULE_CLOSE\"}");
+        assertThat(errContent.toString()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("run() should write a SARIF log when called with --format sarif")
+    void run_WhenCalledWithSarifFormat_ThenWriteSarifLog() {
+        // Given
+        String[] args = { "validate", "-i", "src/test/resources/test-with-error.cml", "--format", "sarif" };
+
+        // When
+        int exitCode = cmd.execute(args);
+
+        // Then
+        assertThat(exitCode).isEqualTo(1);
+        assertThat(outContent.toString())
+                .contains("\"version\": \"2.1.0\"")
+                .contains("{\"level\": \"error\", \"message\": {\"text\": \"mismatched input '<EOF>' expecting RULE_CLOSE\"}")
+                .contains("{\"uri\": \"src/test/resources/test-with-error.cml\"}, \"region\": {\"startLine\": 2, \"startColumn\": 1}}")
+                .contains("\"properties\": {\"files\": 1, \"filesWithErrors\": 1, \"omittedDiagnostics\": 0}");
+    }
+
+    @Test
+    @DisplayName("run() should only count the diagnostics exceeding --max-diagnostics")
+    void run_WhenMaxDiagnosticsExceeded_ThenOmitFurtherDiagnostics() throws IOException {
+        // Given
+        Path copy = tempDir.resolve("copy-with-error.cml");
+        Files.copy(Path.of("src/test/resources/test-with-error.cml"), copy);
+        String[] args = { "validate", "-i", "src/test/resources/test-with-error.cml", "-i", copy.toString(),
+                "--format", "json", "--max-diagnostics", "1" };
+
+        // When
+        int exitCode = cmd.execute(args);
+
+        // Then
+        assertThat(exitCode).isEqualTo(1);
+        assertThat(outContent.toString())
+                .containsOnlyOnce("\"severity\": \"error\"")
+                .contains("\"files\": 2,\n  \"filesWithErrors\": 2,\n  \"omittedDiagnostics\": 1\n}");
+    }
+
+    @Test
+    @DisplayName("run() should stop at the first file with errors when called with --fail-fast")
+    void run_WhenCalledWithFailFast_ThenStopAtFirstInvalidFile() throws IOException {
+        // Given
+        Path first = tempDir.resolve("first.cml");
+        Path second = tempDir.resolve("second.cml");
+        Files.copy(Path.of("src/test/resources/test.cml"), first);
+        Files.copy(Path.of("src/test/resources/test.cml"), second);
+        String[] args = { "validate", "-i", "src/test/resources/test-with-error.cml", "-i", first.toString(), "-i", second.toString(),
+                "--fail-fast", "--threads", "1" };
+
+        // When
+        int exitCode = cmd.execute(args);
+
+        // Then
+        assertThat(exitCode).isEqualTo(1);
+        assertThat(outContent.toString()).doesNotContain("has been validated without errors");
+        assertThat(errContent.toString())
+                .contains("ERROR in src/test/resources/test-with-error.cml on line 2:mismatched input '<EOF>' expecting RULE_CLOSE")
+                .contains("Stopped at the first CML file with errors (--fail-fast); 2 CML files have not been validated.");
+    }
+
+    @Test
+    @DisplayName("run() should validate all files when called with --fail-fast and no file has errors")
+    void run_WhenCalledWithFailFastWithoutErrors_ThenValidateAllFiles() throws IOException {
+        // Given
+        Path copy = tempDir.resolve("copy.cml");
+        Files.copy(Path.of("src/test/resources/test.cml"), copy);
+        String[] args = { "validate", "-i", "src/test/resources/test.cml", "-i", copy.toString(), "--fail-fast" };
+
+        // When
+        int exitCode = cmd.execute(args);
+
+        // Then
+        assertThat(exitCode).isEqualTo(0);
+        assertThat(outContent.toString()).contains("Validated 2 CML files, 0 with errors.");
+        assertThat(errContent.toString()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("run() should validate input files importing each other")
+    void run_WhenInputsImportEachOther_ThenValidateAll() {
+        // Given
+        String[] args = { "validate", "-i", "src/test/resources/imports", "--threads", "3" };
+
+        // When
+        int exitCode = cmd.execute(args);
+
+        // Then
+        assertThat(exitCode).isEqualTo(0);
+        assertThat(outContent.toString()).contains("Validated 3 CML files, 0 with errors.");
+        assertThat(errContent.toString()).isEmpty();
+    }
+
+    @Test
+    @Timeout(30)
+    @DisplayName("run() should report an import cycle and validate its files")
+    void run_WhenImportsAreCyclic_ThenPrintWarning() throws IOException {
+        // Given
+        Path first = tempDir.resolve("first.cml");
+        Path second = tempDir.resolve("second.cml");
+        Files.writeString(first, "import \"./second.cml\"\nBoundedContext First\n");
+        Files.writeString(second, "import \"./first.cml\"\nBoundedContext Second\n");
+        String[] args = { "validate", "-i", first.toString(), "-i", second.toString() };
+
+        // When
+        int exitCode = cmd.execute(args);
+
+        // Then
+        assertThat(exitCode).isEqualTo(0);
+        assertThat(outContent.toString()).contains("Validated 2 CML files, 0 with errors.");
+        assertThat(errContent.toString()).contains("WARNING: Import cycle: ").contains("first.cml").contains("second.cml");
+    }
+
+    @Test
+    @DisplayName("run() should print an error when the revision of --changed-since is not valid")
+    void run_WhenChangedSinceRevisionInvalid_ThenPrintError() {
+        // Given
+        String[] args = { "validate", "-i", "src/test/resources/test.cml", "--changed-since=-x" };
+
+        // When
+        int exitCode = cmd.execute(args);
+
+        // Then
+        assertThat(exitCode).isEqualTo(1);
+        assertThat(errContent.toString()).contains("The revision '-x' (--changed-since) is not valid.");
+    }
+
+    @Test
+    @DisplayName("run() should print an error when --max-diagnostics is negative")
+    void run_WhenMaxDiagnosticsNegative_ThenPrintError() {
+        // Given
+        String[] args = { "validate", "-i", "src/test/resources/test.cml", "--max-diagnostics", "-1" };
+
+        // When
+        int exitCode = cmd.execute(args);
+
+        // Then
+        assertThat(exitCode).isEqualTo(1);
+        assertThat(errContent.toString()).contains("The --max-diagnostics parameter must not be negative.");
+    }
+
+    @Test
+    @DisplayName("run() should load unchanged models from the cache directory when called with --cache-dir")
+    void run_WhenCalledTwiceWithCacheDir_ThenLoadModelFromCache() throws IOException {
+        // Given
+        Path cacheDir = tempDir.resolve("cache");
+        Path metricsFile = tempDir.resolve("metrics.json");
+        String[] args = { "validate", "-i", "src/test/resources/test.cml", "--cache-dir", cacheDir.toString(),
+                "--metrics=" + metricsFile };
+        cmd.execute(args);
+        outContent.reset();
+
+        // When
+        int exitCode = new CommandLine(new ContextMapperCLI()).execute(args);
+
+        // Then
+        assertThat(exitCode).isEqualTo(0);
+        assertThat(outContent.toString()).contains("The CML file 'src/test/resources/test.cml' has been validated without errors.");
+        assertThat(Files.readString(metricsFile)).contains("\"modelCacheHits\": 1").doesNotContain("modelCacheMisses");
     }
 }